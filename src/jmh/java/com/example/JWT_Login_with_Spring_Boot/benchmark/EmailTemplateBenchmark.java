@@ -0,0 +1,69 @@
+package com.example.JWT_Login_with_Spring_Boot.benchmark;
+
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.example.JWT_Login_with_Spring_Boot.model.RenderedEmail;
+import com.example.JWT_Login_with_Spring_Boot.service.EmailTemplateService;
+
+
+/**
+ * Verification email rendering: precompiled template vs. the previous per-call string concatenation
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class EmailTemplateBenchmark {
+
+    private EmailTemplateService emailTemplateService;
+    private String code;
+
+    @Setup
+    public void setup() {
+        emailTemplateService = new EmailTemplateService();
+        code = "123456";
+    }
+
+    @Benchmark
+    public RenderedEmail precompiledTemplate() {
+        return emailTemplateService.render("verification", Locale.ENGLISH, Map.of("verificationCode", code));
+    }
+
+    @Benchmark
+    public RenderedEmail precompiledTemplateArabic() {
+        return emailTemplateService.render("verification", Locale.forLanguageTag("ar"), Map.of("verificationCode", code));
+    }
+
+    // Copy of the string concatenation AuthenticationService used before the template engine
+    @Benchmark
+    public String stringConcatenation() {
+        String verificationCode = "Verification code " + code;
+        return "<html>"
+                + "<body style=\"font-family: Arial, sans-serif;\">"
+                + "<div style=\"background-color: #f5f5f5; padding: 20px;\">"
+                + "<h2 style=\"color: #333;\">Welcome to our app!</h2>"
+                + "<p style=\"font-size: 16px;\">Please enter the verification code below to continue:</p>"
+                + "<div style=\"background-color: #fff; padding: 20px; border-radius: 5px; box-shadow: 0 0 10px rgba(0,0,0,0.1);\">"
+                + "<h3 style=\"color: #333;\">Verification Code:</h3>"
+                + "<p style=\"font-size: 18px; font-weight: bold; color: #007bff;\">" + verificationCode + "</p>"
+                + "</div>"
+                + "</div>"
+                + "</body>"
+                + "</html>";
+    }
+}
@@ -0,0 +1,62 @@
+package com.example.JWT_Login_with_Spring_Boot.benchmark;
+
+import java.time.LocalDateTime;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.example.JWT_Login_with_Spring_Boot.model.User;
+import com.example.JWT_Login_with_Spring_Boot.responses.LoginResponse;
+import com.example.JWT_Login_with_Spring_Boot.service.JwtKeyRing;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+
+
+/**
+ * Jackson serialization of the login response and of the User entity (signup response)
+ * - score: average time per response
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class JsonSerializationBenchmark {
+
+    private ObjectMapper objectMapper;
+    private LoginResponse loginResponse;
+    private User user;
+
+    @Setup
+    public void setup() {
+        objectMapper = new ObjectMapper().registerModule(new JavaTimeModule());
+
+        user = JwtServiceBenchmark.benchmarkUser();
+        user.setEnabled(false);
+        user.setVerificationCode("123456");
+        user.setVerificationCodeExpireAt(LocalDateTime.now().plusMinutes(15));
+
+        String token = JwtServiceBenchmark.jwtService(JwtKeyRing.HS256, false).generateToken(user);
+        loginResponse = new LoginResponse(token, 3600000L);
+    }
+
+    @Benchmark
+    public byte[] loginResponse() throws Exception {
+        return objectMapper.writeValueAsBytes(loginResponse);
+    }
+
+    @Benchmark
+    public byte[] user() throws Exception {
+        return objectMapper.writeValueAsBytes(user);
+    }
+}
@@ -0,0 +1,92 @@
+package com.example.JWT_Login_with_Spring_Boot.benchmark;
+
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.security.core.userdetails.UserDetailsService;
+
+import com.example.JWT_Login_with_Spring_Boot.config.JwtAuthenticationFilter;
+import com.example.JWT_Login_with_Spring_Boot.model.User;
+import com.example.JWT_Login_with_Spring_Boot.service.JwtKeyRing;
+import com.example.JWT_Login_with_Spring_Boot.service.JwtService;
+import com.example.JWT_Login_with_Spring_Boot.service.TokenDenylist;
+import com.example.JWT_Login_with_Spring_Boot.service.TokenEpochRegistry;
+import com.example.JWT_Login_with_Spring_Boot.service.VerifiedTokenCache;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+
+/**
+ * JwtAuthenticationFilter on a mock "GET /users/me" request with a valid token
+ * - cache: verified-token cache enabled or not (parse & verify on every request)
+ * - stateless: user built from the token claims, or loaded through the UserDetailsService
+ *   (an in-memory lookup here, so the score is the filter's own cost without the database)
+ * - score: average time per request, including the mock request / response creation
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class JwtAuthenticationFilterBenchmark {
+
+    @Param({"true", "false"})
+    public boolean cache;
+
+    @Param({"false", "true"})
+    public boolean stateless;
+
+    private JwtAuthenticationFilter filter;
+    private String authorizationHeader;
+
+    @Setup
+    public void setup() {
+        MeterRegistry meterRegistry = new SimpleMeterRegistry(); // Timers are recorded, as in the application
+        JwtKeyRing keyRing = new JwtKeyRing(
+                JwtKeyRing.HS256, JwtServiceBenchmark.SECRET_KEY, "", Duration.ofMinutes(5), 3600000);
+        JwtService jwtService = new JwtService(keyRing, 3600000, stateless, meterRegistry);
+        User user = JwtServiceBenchmark.benchmarkUser();
+        UserDetailsService userDetailsService = email -> user;
+
+        filter = new JwtAuthenticationFilter(
+                (request, response, handler, exception) -> null,
+                jwtService,
+                userDetailsService,
+                new VerifiedTokenCache(cache, 10000),
+                new TokenDenylist(100000, 0.01, 1000000), // Empty: every lookup takes the Bloom filter fast path
+                new TokenEpochRegistry(3600000), // Empty: no recent epoch change
+                meterRegistry);
+        authorizationHeader = "Bearer " + jwtService.generateToken(user);
+    }
+
+    @Benchmark
+    public Object doFilter() throws Exception {
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/users/me");
+        request.addHeader("Authorization", authorizationHeader);
+        MockHttpServletResponse response = new MockHttpServletResponse();
+
+        try {
+            filter.doFilter(request, response, new MockFilterChain());
+            return SecurityContextHolder.getContext().getAuthentication();
+        } finally {
+            SecurityContextHolder.clearContext(); // Every request starts unauthenticated
+        }
+    }
+}
@@ -0,0 +1,93 @@
+package com.example.JWT_Login_with_Spring_Boot.benchmark;
+
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.example.JWT_Login_with_Spring_Boot.model.User;
+import com.example.JWT_Login_with_Spring_Boot.service.JwtKeyRing;
+import com.example.JWT_Login_with_Spring_Boot.service.JwtService;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+
+/**
+ * JwtService token generation, subject extraction and validation, for tokens with 0 / 10 / 50 extra claims
+ * - algorithm: HMAC secret (HS256), or a generated ES256 / EdDSA key pair (JwtKeyRing)
+ * - score: average time per call
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class JwtServiceBenchmark {
+
+    static final String SECRET_KEY = "dGVzdC1zZWNyZXQta2V5LWZvci1pbnRlZ3JhdGlvbi10ZXN0cy0wMTIzNDU2Nzg5";
+
+    @Param({"0", "10", "50"})
+    public int extraClaims;
+
+    @Param({JwtKeyRing.HS256, JwtKeyRing.ES256, JwtKeyRing.EDDSA})
+    public String algorithm;
+
+    private JwtService jwtService;
+    private User user;
+    private Map<String, Object> claims;
+    private String token;
+
+    @Setup
+    public void setup() {
+        jwtService = jwtService(algorithm, false);
+        user = benchmarkUser();
+
+        claims = new HashMap<>();
+        for (int i = 0; i < extraClaims; i++) {
+            claims.put("claim" + i, "value-" + i);
+        }
+        token = jwtService.generateToken(claims, user);
+    }
+
+    @Benchmark
+    public String generateToken() {
+        return jwtService.generateToken(claims, user);
+    }
+
+    @Benchmark
+    public String extractUsername() {
+        return jwtService.extractUsername(token);
+    }
+
+    @Benchmark
+    public boolean isTokenValid() {
+        return jwtService.isTokenValid(token, user);
+    }
+
+    // JwtService as configured in the application (keys generated in memory for ES256 / EdDSA)
+    static JwtService jwtService(String algorithm, boolean stateless) {
+        JwtKeyRing keyRing = new JwtKeyRing(algorithm, SECRET_KEY, "", Duration.ofMinutes(5), 3600000);
+        return new JwtService(keyRing, 3600000, stateless, new SimpleMeterRegistry());
+    }
+
+    static User benchmarkUser() {
+        User user = new User("alice", "alice@example.com",
+                "{bcrypt}$2a$10$7EqJtq98hPqEX7fNZaFWoOhi5BWX4Z1D6Ky9kd1TzK2bYjWfJ0A8q");
+        user.setId(1L);
+        user.setEnabled(true);
+        return user;
+    }
+}
@@ -0,0 +1,63 @@
+package com.example.JWT_Login_with_Spring_Boot.benchmark;
+
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.example.JWT_Login_with_Spring_Boot.service.RateLimiter;
+
+
+/**
+ * RateLimiter cost of an allowed request (the limit is never reached), on 1 / 10k distinct keys, from 4 threads
+ * - keys=1: every thread updates the same bucket (CAS contention)
+ * - score: average time per tryAcquire
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@Threads(4)
+public class RateLimiterBenchmark {
+
+    @Param({"1", "10000"})
+    public int keys;
+
+    private RateLimiter rateLimiter;
+    private String[] keyValues;
+
+    // Per-thread position in the key list
+    @State(Scope.Thread)
+    public static class Cursor {
+        int next;
+    }
+
+    @Setup
+    public void setup() {
+        rateLimiter = new RateLimiter(Integer.MAX_VALUE, Duration.ofSeconds(1), 100000);
+        keyValues = new String[keys];
+        for (int i = 0; i < keys; i++) {
+            keyValues[i] = "10.0." + (i / 256) + "." + (i % 256);
+        }
+    }
+
+    @Benchmark
+    public long allowed(Cursor cursor) {
+        String key = keyValues[cursor.next];
+        cursor.next = (cursor.next + 1) % keyValues.length;
+        return rateLimiter.tryAcquire(key);
+    }
+}
@@ -0,0 +1,64 @@
+package com.example.JWT_Login_with_Spring_Boot.benchmark;
+
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.example.JWT_Login_with_Spring_Boot.service.TokenDenylist;
+
+
+/**
+ * TokenDenylist lookups (done by JwtAuthenticationFilter on every authenticated request), with 0 / 10k / 1M revoked tokens
+ * - notRevoked: the common case, answered by the Bloom filter alone
+ * - revoked: Bloom filter hit, confirmed by the exact set
+ * - score: average time per lookup, run with "-prof gc" to check that lookups do not allocate
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class TokenDenylistBenchmark {
+
+    @Param({"0", "10000", "1000000"})
+    public int entries;
+
+    private TokenDenylist tokenDenylist;
+    private String revokedJti;
+    private String activeJti;
+
+    @Setup
+    public void setup() {
+        tokenDenylist = new TokenDenylist(Math.max(100000, entries), 0.01, Integer.MAX_VALUE);
+        long expiresAt = System.currentTimeMillis() + 3600000;
+        for (int i = 0; i < entries; i++) {
+            tokenDenylist.revoke(UUID.randomUUID().toString(), expiresAt);
+        }
+
+        revokedJti = UUID.randomUUID().toString();
+        tokenDenylist.revoke(revokedJti, expiresAt);
+        activeJti = UUID.randomUUID().toString();
+    }
+
+    @Benchmark
+    public boolean notRevoked() {
+        return tokenDenylist.isRevoked(activeJti);
+    }
+
+    @Benchmark
+    public boolean revoked() {
+        return tokenDenylist.isRevoked(revokedJti);
+    }
+}
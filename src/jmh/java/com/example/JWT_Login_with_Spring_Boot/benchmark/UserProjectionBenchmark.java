@@ -0,0 +1,91 @@
+package com.example.JWT_Login_with_Spring_Boot.benchmark;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.AuxCounters;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.example.JWT_Login_with_Spring_Boot.model.User;
+import com.example.JWT_Login_with_Spring_Boot.responses.UserResponse;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+
+
+/**
+ * /users response serialization: full User entity vs. the UserResponse projection
+ * - score: responses per second (rows per second = score * rows)
+ * - "bytes" aux counter: bytes written per second (bytes per response = bytes / score)
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class UserProjectionBenchmark {
+
+    @Param({"1", "100", "1000"})
+    public int rows;
+
+    private ObjectMapper objectMapper;
+    private List<User> entities;
+    private List<UserResponse> projections;
+
+    // Bytes written, reported as a rate next to the throughput
+    @State(Scope.Thread)
+    @AuxCounters(AuxCounters.Type.OPERATIONS)
+    public static class ResponseSize {
+        public long bytes;
+
+        @Setup(Level.Iteration)
+        public void reset() {
+            bytes = 0;
+        }
+    }
+
+    @Setup
+    public void setup() {
+        objectMapper = new ObjectMapper().registerModule(new JavaTimeModule());
+        entities = new ArrayList<>(rows);
+        projections = new ArrayList<>(rows);
+
+        for (long id = 1; id <= rows; id++) {
+            User user = new User("user" + id, "user" + id + "@example.com",
+                    "{bcrypt}$2a$10$7EqJtq98hPqEX7fNZaFWoOhi5BWX4Z1D6Ky9kd1TzK2bYjWfJ0A8q");
+            user.setId(id);
+            user.setEnabled(id % 2 == 0);
+            user.setVerificationCode(id % 2 == 0 ? null : "123456");
+            user.setVerificationCodeExpireAt(id % 2 == 0 ? null : LocalDateTime.now().plusMinutes(15));
+            entities.add(user);
+            projections.add(UserResponse.of(user));
+        }
+    }
+
+    @Benchmark
+    public byte[] entity(ResponseSize responseSize) throws Exception {
+        byte[] json = objectMapper.writeValueAsBytes(entities);
+        responseSize.bytes += json.length;
+        return json;
+    }
+
+    @Benchmark
+    public byte[] projection(ResponseSize responseSize) throws Exception {
+        byte[] json = objectMapper.writeValueAsBytes(projections);
+        responseSize.bytes += json.length;
+        return json;
+    }
+}
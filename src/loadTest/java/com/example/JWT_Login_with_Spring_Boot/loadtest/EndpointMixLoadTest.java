@@ -0,0 +1,28 @@
+package com.example.JWT_Login_with_Spring_Boot.loadtest;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import org.junit.jupiter.api.Test;
+
+
+/**
+ * Throughput & latency of one node for the configured mix of signup, verify, login and /users/me
+ * (see LoadTestSettings for the settings). Prints a summary and writes the HDR histograms.
+ */
+class EndpointMixLoadTest {
+
+    @Test
+    void endpointMix() throws Exception {
+        LoadTestSettings settings = LoadTestSettings.fromSystemProperties();
+
+        LoadReport report = settings.run();
+
+        String profiles = settings.profiles().isEmpty() ? "default" : String.join("+", settings.profiles());
+        report.print("Endpoint mix (" + profiles + ")", System.out);
+        report.writeHistograms(settings.reportDirectory(), "endpoint-mix-" + profiles);
+
+        settings.mix().weights().keySet().forEach(operation -> assertThat(report.requests(operation))
+                .as("%s requests", operation.label())
+                .isPositive());
+    }
+}
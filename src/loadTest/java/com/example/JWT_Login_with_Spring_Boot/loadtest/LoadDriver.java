@@ -0,0 +1,160 @@
+package com.example.JWT_Login_with_Spring_Boot.loadtest;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.HdrHistogram.Recorder;
+
+import com.example.JWT_Login_with_Spring_Boot.loadtest.LoadTestServer.SeededUser;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+
+/**
+ * Drives an operation mix against a LoadTestServer from many concurrent clients (one virtual thread each),
+ * every client sending its next request as soon as the previous one is answered (closed loop).
+ *
+ * - Latencies are recorded in lock-free HDR histogram recorders, one per operation
+ * - Warmup requests are sent the same way, but their results are dropped
+ */
+final class LoadDriver {
+
+    private static final long MAX_LATENCY_NANOS = Duration.ofMinutes(1).toNanos();
+
+    private final LoadTestServer server;
+    private final List<SeededUser> users;
+    private final String password;
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private final HttpClient httpClient = HttpClient.newBuilder()
+            .connectTimeout(Duration.ofSeconds(10))
+            .executor(Executors.newVirtualThreadPerTaskExecutor())
+            .build();
+
+    private final AtomicLong signupSequence = new AtomicLong();
+    private final Queue<String> awaitingVerification = new ConcurrentLinkedQueue<>(); // Emails of new users
+
+    private final Map<Operation, Recorder> recorders = new EnumMap<>(Operation.class);
+    private final Map<Operation, StatusCounts> statusCounts = new EnumMap<>(Operation.class);
+
+    LoadDriver(LoadTestServer server, List<SeededUser> users, String password) {
+        this.server = server;
+        this.users = users;
+        this.password = password;
+        for (Operation operation : Operation.values()) {
+            recorders.put(operation, new Recorder(MAX_LATENCY_NANOS, 3));
+            statusCounts.put(operation, new StatusCounts());
+        }
+    }
+
+
+    /**
+     * Run the mix with "clients" concurrent clients: "warmup" first (dropped), then "duration" (measured)
+     */
+    LoadReport run(Mix mix, int clients, Duration warmup, Duration duration) throws InterruptedException {
+        RunState state = new RunState();
+
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            for (int i = 0; i < clients; i++) {
+                executor.submit(() -> runClient(mix, state));
+            }
+
+            Thread.sleep(warmup);
+            recorders.values().forEach(Recorder::reset);
+            statusCounts.values().forEach(StatusCounts::reset);
+
+            long start = System.nanoTime();
+            Thread.sleep(duration);
+            Map<Operation, LoadReport.OperationResult> results = new EnumMap<>(Operation.class);
+            recorders.forEach((operation, recorder) -> results.put(operation, new LoadReport.OperationResult(
+                    recorder.getIntervalHistogram(), statusCounts.get(operation).snapshot())));
+            Duration elapsed = Duration.ofNanos(System.nanoTime() - start);
+
+            state.running = false; // Clients finish their current request and stop
+            return new LoadReport(mix, clients, elapsed, results);
+        }
+    }
+
+
+
+    // 🔹 Private Helper Methods (Internal logic)
+
+    private static final class RunState {
+        volatile boolean running = true;
+    }
+
+    private void runClient(Mix mix, RunState state) {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        while (state.running) {
+            Operation operation = mix.pick(random);
+            String email = switch (operation) {
+                case SIGNUP -> "load-" + signupSequence.incrementAndGet() + "@example.com";
+                case VERIFY -> awaitingVerification.poll();
+                case LOGIN, ME -> null;
+            };
+            if (operation == Operation.VERIFY && email == null) {
+                // Nobody to verify yet: create someone first
+                operation = Operation.SIGNUP;
+                email = "load-" + signupSequence.incrementAndGet() + "@example.com";
+            }
+
+            HttpRequest request;
+            try {
+                request = request(operation, email, users.get(random.nextInt(users.size())));
+            } catch (Exception setupFailure) {
+                statusCounts.get(operation).record(-1);
+                continue;
+            }
+
+            long start = System.nanoTime();
+            int status;
+            try {
+                status = httpClient.send(request, HttpResponse.BodyHandlers.discarding()).statusCode();
+            } catch (InterruptedException interruptedException) {
+                Thread.currentThread().interrupt();
+                return;
+            } catch (Exception requestFailure) {
+                status = -1; // Connection refused / reset, timeout...
+            }
+            long latency = System.nanoTime() - start;
+
+            recorders.get(operation).recordValue(Math.min(latency, MAX_LATENCY_NANOS));
+            statusCounts.get(operation).record(status);
+
+            if (operation == Operation.SIGNUP && status == 201) {
+                awaitingVerification.add(email); // Committed, the verification code can be read now
+            }
+        }
+    }
+
+    private HttpRequest request(Operation operation, String email, SeededUser user) throws Exception {
+        return switch (operation) {
+            case SIGNUP -> post("/authentication/signup", Map.of(
+                    "username", email.substring(0, email.indexOf('@')), "email", email, "password", password));
+            case VERIFY -> post("/authentication/verify", Map.of(
+                    "email", email, "verificationCode", server.verificationCode(email)));
+            case LOGIN -> post("/authentication/login", Map.of("email", user.email(), "password", password));
+            case ME -> HttpRequest.newBuilder(URI.create(server.baseUrl() + "/users/me"))
+                    .header("Authorization", "Bearer " + user.token())
+                    .GET()
+                    .build();
+        };
+    }
+
+    private HttpRequest post(String path, Map<String, String> body) throws Exception {
+        return HttpRequest.newBuilder(URI.create(server.baseUrl() + path))
+                .header("Content-Type", "application/json")
+                .POST(HttpRequest.BodyPublishers.ofString(objectMapper.writeValueAsString(body)))
+                .build();
+    }
+}
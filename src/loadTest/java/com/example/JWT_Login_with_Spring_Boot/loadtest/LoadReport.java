@@ -0,0 +1,73 @@
+package com.example.JWT_Login_with_Spring_Boot.loadtest;
+
+import java.io.IOException;
+import java.io.PrintStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.Locale;
+import java.util.Map;
+
+import org.HdrHistogram.Histogram;
+
+
+/**
+ * Results of one load-test run: per operation, the latency histogram (nanoseconds) and the response counts
+ */
+record LoadReport(Mix mix, int clients, Duration elapsed, Map<Operation, OperationResult> operations) {
+
+    private static final double NANOS_PER_MILLI = 1_000_000.0;
+
+    record OperationResult(Histogram latencies, StatusCounts.Snapshot statuses) {
+
+        double throughput(Duration elapsed) {
+            return latencies.getTotalCount() / (elapsed.toNanos() / 1_000_000_000.0);
+        }
+
+        double percentileMillis(double percentile) {
+            return latencies.getValueAtPercentile(percentile) / NANOS_PER_MILLI;
+        }
+    }
+
+
+    // One line per operation that was sent at least once
+    void print(String title, PrintStream out) {
+        out.printf("%n%s: %d clients, mix %s, %.1fs measured%n", title, clients, mix, elapsed.toMillis() / 1000.0);
+        out.printf("%-9s %9s %9s %9s %9s %9s %9s %9s %8s%n",
+                "endpoint", "requests", "req/s", "p50 ms", "p99 ms", "p999 ms", "max ms", "rejected", "failed");
+        operations.forEach((operation, result) -> {
+            if (result.latencies().getTotalCount() == 0) {
+                return;
+            }
+            out.printf("%-9s %9d %9.0f %9.2f %9.2f %9.2f %9.2f %9d %8d%n",
+                    operation.label(),
+                    result.latencies().getTotalCount(),
+                    result.throughput(elapsed),
+                    result.percentileMillis(50),
+                    result.percentileMillis(99),
+                    result.percentileMillis(99.9),
+                    result.latencies().getMaxValue() / NANOS_PER_MILLI,
+                    result.statuses().rejected(),
+                    result.statuses().failed());
+        });
+    }
+
+    // Full percentile distributions (HdrHistogram ".hgrm" format, in milliseconds), one file per operation
+    void writeHistograms(Path directory, String name) throws IOException {
+        Files.createDirectories(directory);
+        for (Map.Entry<Operation, OperationResult> operation : operations.entrySet()) {
+            Histogram latencies = operation.getValue().latencies();
+            if (latencies.getTotalCount() == 0) {
+                continue;
+            }
+            Path file = directory.resolve(name + "-" + operation.getKey().name().toLowerCase(Locale.ROOT) + ".hgrm");
+            try (PrintStream out = new PrintStream(Files.newOutputStream(file))) {
+                latencies.outputPercentileDistribution(out, NANOS_PER_MILLI);
+            }
+        }
+    }
+
+    long requests(Operation operation) {
+        return operations.get(operation).latencies().getTotalCount();
+    }
+}
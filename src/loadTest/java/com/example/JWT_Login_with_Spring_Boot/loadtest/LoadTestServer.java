@@ -0,0 +1,121 @@
+package com.example.JWT_Login_with_Spring_Boot.loadtest;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.security.crypto.password.PasswordEncoder;
+
+import com.example.JWT_Login_with_Spring_Boot.JwtLoginWithSpringBootApplication;
+import com.example.JWT_Login_with_Spring_Boot.model.User;
+import com.example.JWT_Login_with_Spring_Boot.repository.UserRepository;
+import com.example.JWT_Login_with_Spring_Boot.service.JwtService;
+import com.example.JWT_Login_with_Spring_Boot.support.EmbeddedInfrastructure;
+import com.icegreen.greenmail.configuration.GreenMailConfiguration;
+import com.icegreen.greenmail.util.GreenMail;
+import com.icegreen.greenmail.util.ServerSetupTest;
+
+
+/**
+ * The whole application on a random local port, with its external services replaced by local stand-ins
+ * (embedded PostgreSQL & GreenMail SMTP server), so load tests run offline on a single machine.
+ *
+ * - Each server starts with empty users / email outbox tables (the embedded database is shared by the JVM)
+ * - seedUsers() creates verified users directly in the database, with tokens for them
+ */
+final class LoadTestServer implements AutoCloseable {
+
+    private final GreenMail greenMail;
+    private final ConfigurableApplicationContext context;
+    private final String baseUrl;
+
+    private LoadTestServer(GreenMail greenMail, ConfigurableApplicationContext context) {
+        this.greenMail = greenMail;
+        this.context = context;
+        this.baseUrl = "http://localhost:" + context.getEnvironment().getProperty("local.server.port");
+    }
+
+    // A verified user, with a valid access token
+    record SeededUser(String email, String token) {
+    }
+
+
+    /**
+     * Start the application with the given profiles (e.g. "virtual") and extra properties ("name=value")
+     */
+    static LoadTestServer start(List<String> profiles, List<String> properties) {
+        GreenMail greenMail = new GreenMail(ServerSetupTest.SMTP).withConfiguration(GreenMailConfiguration.aConfig()
+                .withUser(EmbeddedInfrastructure.SMTP_USERNAME, EmbeddedInfrastructure.SMTP_PASSWORD));
+        greenMail.start();
+
+        List<String> arguments = new ArrayList<>();
+        EmbeddedInfrastructure.register((name, value) -> arguments.add("--" + name + "=" + value.get()));
+        arguments.add("--server.port=0");
+        arguments.add("--management.server.port=0");
+        arguments.add("--security.rate-limit.enabled=false"); // Every simulated client comes from the same address
+        properties.forEach(property -> arguments.add("--" + property));
+
+        try {
+            ConfigurableApplicationContext context = new SpringApplicationBuilder(JwtLoginWithSpringBootApplication.class)
+                    .profiles(profiles.toArray(String[]::new))
+                    .run(arguments.toArray(String[]::new));
+            LoadTestServer server = new LoadTestServer(greenMail, context);
+            server.clearDatabase();
+            return server;
+        } catch (RuntimeException startupFailure) {
+            greenMail.stop();
+            throw startupFailure;
+        }
+    }
+
+    String baseUrl() {
+        return baseUrl;
+    }
+
+    /**
+     * Create verified users sharing one password (hashed once, hashing it for every user would only
+     * slow the setup down), and issue a token for each of them
+     */
+    List<SeededUser> seedUsers(int count, String password) {
+        String passwordHash = context.getBean(PasswordEncoder.class).encode(password);
+        List<User> users = new ArrayList<>();
+        for (int i = 0; i < count; i++) {
+            User user = new User("seeded-user-" + i, "seeded-user-" + i + "@example.com", passwordHash);
+            user.setEnabled(true);
+            users.add(user);
+        }
+
+        JwtService jwtService = context.getBean(JwtService.class);
+        return context.getBean(UserRepository.class).saveAll(users).stream()
+                .map(user -> new SeededUser(user.getEmail(), jwtService.generateToken(user)))
+                .toList();
+    }
+
+    // The code that was emailed to the user (read from the database, like a user reading the email)
+    String verificationCode(String email) {
+        return context.getBean(JdbcTemplate.class).queryForObject(
+                "SELECT verification_code FROM users WHERE email = ?", String.class, email);
+    }
+
+    int receivedEmails() {
+        return greenMail.getReceivedMessages().length;
+    }
+
+    @Override
+    public void close() {
+        try {
+            context.close();
+        } finally {
+            greenMail.stop();
+        }
+    }
+
+    // Plain DELETEs: repository deleteAll() would load every row of the previous runs first
+    private void clearDatabase() {
+        JdbcTemplate jdbcTemplate = context.getBean(JdbcTemplate.class);
+        jdbcTemplate.update("DELETE FROM email_outbox");
+        jdbcTemplate.update("DELETE FROM users");
+    }
+}
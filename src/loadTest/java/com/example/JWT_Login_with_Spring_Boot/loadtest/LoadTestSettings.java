@@ -0,0 +1,64 @@
+package com.example.JWT_Login_with_Spring_Boot.loadtest;
+
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.List;
+
+
+/**
+ * Load-test settings, passed as system properties (./gradlew loadTest -Dloadtest.clients=500 ...)
+ *
+ * - loadtest.clients           concurrent clients (200)
+ * - loadtest.users             seeded, verified users for login & /users/me (100)
+ * - loadtest.mix               operation mix (signup:5,verify:5,login:10,me:80)
+ * - loadtest.warmup-seconds    warmup, results dropped (10)
+ * - loadtest.duration-seconds  measured time (30)
+ * - loadtest.profiles          Spring profiles of the application, comma-separated (none)
+ * - loadtest.properties        extra application properties, "name=value" separated by ";" (none)
+ * - loadtest.report-dir        where the HDR histograms are written (build/reports/loadtest)
+ */
+record LoadTestSettings(
+        int clients,
+        int users,
+        Mix mix,
+        Duration warmup,
+        Duration duration,
+        List<String> profiles,
+        List<String> properties,
+        Path reportDirectory) {
+
+    static final String PASSWORD = "load-test-password";
+
+    static LoadTestSettings fromSystemProperties() {
+        return new LoadTestSettings(
+                Integer.getInteger("loadtest.clients", 200),
+                Integer.getInteger("loadtest.users", 100),
+                Mix.parse(System.getProperty("loadtest.mix", "signup:5,verify:5,login:10,me:80")),
+                Duration.ofSeconds(Long.getLong("loadtest.warmup-seconds", 10)),
+                Duration.ofSeconds(Long.getLong("loadtest.duration-seconds", 30)),
+                split(System.getProperty("loadtest.profiles", ""), ","),
+                split(System.getProperty("loadtest.properties", ""), ";"),
+                Path.of(System.getProperty("loadtest.report-dir", "build/reports/loadtest")));
+    }
+
+    LoadTestSettings withMix(Mix mix) {
+        return new LoadTestSettings(clients, users, mix, warmup, duration, profiles, properties, reportDirectory);
+    }
+
+    LoadTestSettings withProfiles(List<String> profiles) {
+        return new LoadTestSettings(clients, users, mix, warmup, duration, profiles, properties, reportDirectory);
+    }
+
+    // Start the application, seed the users and run the mix
+    LoadReport run() throws InterruptedException {
+        try (LoadTestServer server = LoadTestServer.start(profiles, properties)) {
+            LoadDriver driver = new LoadDriver(server, server.seedUsers(users, PASSWORD), PASSWORD);
+            return driver.run(mix, clients, warmup, duration);
+        }
+    }
+
+    private static List<String> split(String value, String separator) {
+        return Arrays.stream(value.split(separator)).map(String::trim).filter(item -> !item.isEmpty()).toList();
+    }
+}
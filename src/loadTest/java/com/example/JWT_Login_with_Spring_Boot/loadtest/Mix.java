@@ -0,0 +1,54 @@
+package com.example.JWT_Login_with_Spring_Boot.loadtest;
+
+import java.util.EnumMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.random.RandomGenerator;
+
+
+/**
+ * Weighted mix of operations, written as "operation:weight" pairs, e.g. "signup:5,verify:5,login:20,me:70"
+ * (weights are relative, they do not need to add up to 100)
+ */
+record Mix(Map<Operation, Integer> weights, int totalWeight) {
+
+    static Mix parse(String mix) {
+        Map<Operation, Integer> weights = new EnumMap<>(Operation.class);
+        for (String entry : mix.split(",")) {
+            String[] operationAndWeight = entry.trim().split(":");
+            if (operationAndWeight.length != 2) {
+                throw new IllegalArgumentException("Expected \"operation:weight\", got \"" + entry + "\"");
+            }
+            Operation operation = Operation.valueOf(operationAndWeight[0].trim().toUpperCase(Locale.ROOT));
+            int weight = Integer.parseInt(operationAndWeight[1].trim());
+            if (weight > 0) {
+                weights.merge(operation, weight, Integer::sum);
+            }
+        }
+        int totalWeight = weights.values().stream().mapToInt(Integer::intValue).sum();
+        if (totalWeight == 0) {
+            throw new IllegalArgumentException("Empty operation mix: " + mix);
+        }
+        return new Mix(weights, totalWeight);
+    }
+
+    Operation pick(RandomGenerator random) {
+        int ticket = random.nextInt(totalWeight);
+        for (Map.Entry<Operation, Integer> weight : weights.entrySet()) {
+            ticket -= weight.getValue();
+            if (ticket < 0) {
+                return weight.getKey();
+            }
+        }
+        throw new IllegalStateException("Unreachable");
+    }
+
+    @Override
+    public String toString() {
+        StringBuilder description = new StringBuilder();
+        weights.forEach((operation, weight) -> description
+                .append(description.isEmpty() ? "" : ",")
+                .append(operation.name().toLowerCase(Locale.ROOT)).append(':').append(weight));
+        return description.toString();
+    }
+}
@@ -0,0 +1,21 @@
+package com.example.JWT_Login_with_Spring_Boot.loadtest;
+
+/**
+ * Endpoints driven by the load tests
+ */
+enum Operation {
+    SIGNUP("signup"),     // POST /authentication/signup (new user every time)
+    VERIFY("verify"),     // POST /authentication/verify (a user created by SIGNUP)
+    LOGIN("login"),       // POST /authentication/login (a seeded user)
+    ME("users/me");       // GET /users/me (token of a seeded user)
+
+    private final String label;
+
+    Operation(String label) {
+        this.label = label;
+    }
+
+    String label() {
+        return label;
+    }
+}
@@ -0,0 +1,38 @@
+package com.example.JWT_Login_with_Spring_Boot.loadtest;
+
+import java.util.concurrent.atomic.LongAdder;
+
+
+/**
+ * Response counts of one operation: successful (2xx), rejected by load shedding / rate limiting (503, 429),
+ * and everything else (other statuses, connection failures)
+ */
+final class StatusCounts {
+
+    record Snapshot(long successful, long rejected, long failed) {
+    }
+
+    private final LongAdder successful = new LongAdder();
+    private final LongAdder rejected = new LongAdder();
+    private final LongAdder failed = new LongAdder();
+
+    void record(int status) {
+        if (status >= 200 && status < 300) {
+            successful.increment();
+        } else if (status == 503 || status == 429) {
+            rejected.increment();
+        } else {
+            failed.increment();
+        }
+    }
+
+    void reset() {
+        successful.reset();
+        rejected.reset();
+        failed.reset();
+    }
+
+    Snapshot snapshot() {
+        return new Snapshot(successful.sum(), rejected.sum(), failed.sum());
+    }
+}
@@ -0,0 +1,39 @@
+package com.example.JWT_Login_with_Spring_Boot.loadtest;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadMXBean;
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+
+
+/**
+ * Platform-thread mode vs virtual-thread mode ("virtual" profile) under the same mixed load:
+ * logins (BCrypt + user lookup) and /users/me (JWT filter + cached user lookup).
+ *
+ * Runs the whole application once per mode, and prints throughput, latency percentiles and the peak
+ * JVM thread count of each mode (HDR histograms are written too). Default mix: login:10,me:90,
+ * other settings as in LoadTestSettings.
+ */
+class ThreadModeComparison {
+
+    @Test
+    void platformThreadsVersusVirtualThreads() throws Exception {
+        LoadTestSettings settings = LoadTestSettings.fromSystemProperties()
+                .withMix(Mix.parse(System.getProperty("loadtest.mix", "login:10,me:90")));
+
+        for (String mode : List.of("platform", "virtual")) {
+            LoadTestSettings modeSettings = settings.withProfiles(mode.equals("virtual") ? List.of("virtual") : List.of());
+
+            ThreadMXBean threads = ManagementFactory.getThreadMXBean();
+            threads.resetPeakThreadCount();
+            LoadReport report = modeSettings.run();
+
+            report.print("Thread mode: " + mode + " (peak JVM threads: " + threads.getPeakThreadCount() + ")", System.out);
+            report.writeHistograms(settings.reportDirectory(), "thread-mode-" + mode);
+            assertThat(report.requests(Operation.ME)).isPositive();
+        }
+    }
+}
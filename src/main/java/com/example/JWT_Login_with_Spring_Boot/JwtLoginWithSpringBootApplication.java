@@ -2,8 +2,10 @@ package com.example.JWT_Login_with_Spring_Boot;
 
 import org.springframework.boot.SpringApplication;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
+import org.springframework.scheduling.annotation.EnableScheduling;
 
 @SpringBootApplication
+@EnableScheduling // Background jobs (e.g. EmailOutboxRelay)
 public class JwtLoginWithSpringBootApplication {
 
 	public static void main(String[] args) {
@@ -1,16 +1,30 @@
 package com.example.JWT_Login_with_Spring_Boot.config;
 
+import java.time.Duration;
+import java.util.Base64;
+import java.util.HexFormat;
+import java.util.Map;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
-import org.springframework.security.authentication.AuthenticationManager;
-import org.springframework.security.authentication.AuthenticationProvider;
-import org.springframework.security.authentication.dao.DaoAuthenticationProvider;
-import org.springframework.security.config.annotation.authentication.configuration.AuthenticationConfiguration;
-import org.springframework.security.core.userdetails.UserDetailsService;
-import org.springframework.security.core.userdetails.UsernameNotFoundException;
+import org.springframework.core.env.Environment;
+import org.springframework.core.env.PropertyResolver;
+import org.springframework.security.crypto.argon2.Argon2PasswordEncoder;
 import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.security.crypto.password.DelegatingPasswordEncoder;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.security.crypto.password.Pbkdf2PasswordEncoder;
+import org.springframework.security.crypto.password.Pbkdf2PasswordEncoder.SecretKeyFactoryAlgorithm;
 
 import com.example.JWT_Login_with_Spring_Boot.repository.UserRepository;
+import com.example.JWT_Login_with_Spring_Boot.service.BoundedPasswordEncoder;
+import com.example.JWT_Login_with_Spring_Boot.service.CachedUserDetailsService;
+import com.example.JWT_Login_with_Spring_Boot.service.PasswordHashingExecutor;
+
+import io.micrometer.core.instrument.MeterRegistry;
 
 
 
@@ -21,17 +35,36 @@ import com.example.JWT_Login_with_Spring_Boot.repository.UserRepository;
  * Spring Security configuration for authentication and password encryption. (Configuration layer)
  * 
  * Provides:
- * 1. Database-based user authentication via UserDetailsService
- * 2. BCrypt password encoding for secure storage
- * 3. Authentication manager setup for security workflows
+ * 1. Cached user lookups (UserDetailsService) for the JWT filter
+ * 2. Password encoding for secure storage (BCrypt, Argon2, or PBKDF2, on a dedicated, bounded thread pool)
+ *
+ * No AuthenticationManager / AuthenticationProvider is defined: passwords are only checked by
+ * AuthenticationService.authenticate() (login), so there is a single credential-check path.
  */
 public class ApplicationConfiguration {
 
     // Injects UserRepository for database access
     private final UserRepository userRepository;
-
-    public ApplicationConfiguration(UserRepository userRepository) {
+    // Runs password hashing off the request threads
+    private final PasswordHashingExecutor passwordHashingExecutor;
+    // Lookup & password check timers
+    private final MeterRegistry meterRegistry;
+
+    // User lookup cache settings (application.properties)
+    @Value("${security.user-cache.ttl:60s}")
+    private Duration userCacheTtl;
+    @Value("${security.user-cache.negative-ttl:10s}")
+    private Duration userCacheNegativeTtl;
+    @Value("${security.user-cache.maximum-size:10000}")
+    private long userCacheMaximumSize;
+
+    public ApplicationConfiguration(
+            UserRepository userRepository,
+            PasswordHashingExecutor passwordHashingExecutor,
+            MeterRegistry meterRegistry) {
         this.userRepository = userRepository;
+        this.passwordHashingExecutor = passwordHashingExecutor;
+        this.meterRegistry = meterRegistry;
     }
     
 
@@ -39,41 +72,176 @@ public class ApplicationConfiguration {
     //        a new object to be managed by the Spring 
     //        IoC(Inversion of Control: a framework for implementing automated dependency injection) container
     @Bean
-    UserDetailsService userDetailsService(){
-        // Fetches user by email for authentication
-        // using Lambda expression: username(I/P), -> ***(method body)
-        return username -> userRepository.findByEmail(username)
-                .orElseThrow(() -> new UsernameNotFoundException("User not found"));
+    CachedUserDetailsService userDetailsService(){
+        // Fetches user by email for authentication, caching the result so that
+        // authenticated requests do not query the database every time
+        return new CachedUserDetailsService(
+                userRepository, userCacheTtl, userCacheNegativeTtl, userCacheMaximumSize, meterRegistry);
     }
 
 
     @Bean
-    // - provide BCrypt (the encryption method) password encoder for passwords hashing before storing them in db
-    //   and also compares hashed passwords when users log in.
-    BCryptPasswordEncoder passwordEncoder(){
-        return new BCryptPasswordEncoder();
+    // - provide the password encoder for passwords hashing before storing them in db
+    //   and also compares hashed passwords when users log in (see delegatingPasswordEncoder())
+    // - hashing runs on the bounded PasswordHashingExecutor, so a login burst cannot starve other requests
+    PasswordEncoder passwordEncoder(Environment environment){
+        return new BoundedPasswordEncoder(
+                delegatingPasswordEncoder(environment), passwordHashingExecutor, meterRegistry);
     }
 
-    @Bean
-    public AuthenticationManager authenticationManager(AuthenticationConfiguration config) throws Exception{
-        // Retrieve the default AuthenticationManager for Authentication handling
-        // AuthenticationManager: the interface that is responsible for processing authentication requests
-        return config.getAuthenticationManager();
+
+    /**
+     * Password encoders & hashing parameters (security.password.* in application.properties), shared with the
+     * reactive variant: both applications read and upgrade the same hashes in the same "users" table,
+     * so they must be built in one place
+     * - DelegatingPasswordEncoder: hashes are stored with an "{id}" prefix (e.g. "{bcrypt}$2a$10$..."),
+     *   new hashes use "security.password.encoder", old hashes keep working with their own algorithm,
+     *   and hashes without prefix (stored before this change) are checked as BCrypt
+     * - upgradeEncoding() tells if a hash should be re-created with the current algorithm / parameters
+     *   (done on login): any difference from the configured parameters counts, lower or higher
+     * - PBKDF2 hashes do not record their iteration count, so "security.password.pbkdf2.iterations" must not be
+     *   changed once hashes exist (they would stop matching); switch "security.password.encoder" instead
+     */
+    public static DelegatingPasswordEncoder delegatingPasswordEncoder(PropertyResolver properties){
+        Map<String, PasswordEncoder> encoders = Map.of(
+                "bcrypt", new TargetStrengthBCryptPasswordEncoder(
+                        intProperty(properties, "security.password.bcrypt.strength", 10)),
+                "argon2", new TargetParametersArgon2PasswordEncoder(
+                        intProperty(properties, "security.password.argon2.salt-length", 16),
+                        intProperty(properties, "security.password.argon2.hash-length", 32),
+                        intProperty(properties, "security.password.argon2.parallelism", 1),
+                        intProperty(properties, "security.password.argon2.memory", 16384), // In KiB
+                        intProperty(properties, "security.password.argon2.iterations", 2)),
+                "pbkdf2", new TargetSaltLengthPbkdf2PasswordEncoder(
+                        intProperty(properties, "security.password.pbkdf2.salt-length", 16),
+                        intProperty(properties, "security.password.pbkdf2.iterations", 310000)));
+
+        // Algorithm used for new hashes: bcrypt, argon2, or pbkdf2
+        String passwordEncoderId = properties.getProperty("security.password.encoder", "bcrypt");
+        DelegatingPasswordEncoder delegatingPasswordEncoder = new DelegatingPasswordEncoder(passwordEncoderId, encoders);
+        delegatingPasswordEncoder.setDefaultPasswordEncoderForMatches(new BCryptPasswordEncoder()); // Hashes without "{id}"
+        return delegatingPasswordEncoder;
     }
 
-    @Bean
-    AuthenticationProvider authenticationProvider(){
-        /**
-         * - DaoAuthenticationProvider: responsible for verifying user credentials
-         * - DaoAuthenticationProvider is an AuthenticationProvider implementation that
-         *   uses a UserDetailsService and passwordEncoder to authenticate a username and password
-         */
-        DaoAuthenticationProvider DaoAuthProvider = new DaoAuthenticationProvider();
-
-        DaoAuthProvider.setUserDetailsService(userDetailsService()); // uses the custom UserDetailsService method
-        DaoAuthProvider.setPasswordEncoder(passwordEncoder()); // uses the BCrypt for password encoding / hashing
-
-        return DaoAuthProvider;
+
+    private static int intProperty(PropertyResolver properties, String name, int defaultValue){
+        return properties.getProperty(name, Integer.class, defaultValue);
     }
 
+
+
+    /**
+     * BCryptPasswordEncoder that asks for a rehash whenever the stored cost differs from the configured one
+     * (the default only does it when the stored cost is lower), so the cost can be tuned both ways
+     */
+    static final class TargetStrengthBCryptPasswordEncoder extends BCryptPasswordEncoder {
+
+        // "$2a$10$" + 53 characters of salt & hash (same shape BCryptPasswordEncoder accepts)
+        private static final Pattern BCRYPT_HASH = Pattern.compile("\\A\\$2[aby]?\\$(\\d\\d)\\$[./0-9A-Za-z]{53}\\z");
+
+        private final int strength;
+
+        TargetStrengthBCryptPasswordEncoder(int strength) {
+            super(strength);
+            this.strength = strength;
+        }
+
+        @Override
+        public boolean upgradeEncoding(String encodedPassword) {
+            if (encodedPassword == null) {
+                return false;
+            }
+            Matcher matcher = BCRYPT_HASH.matcher(encodedPassword);
+            // Not a BCrypt hash: matches() rejects it anyway, there is nothing to upgrade
+            return matcher.matches() && Integer.parseInt(matcher.group(1)) != strength;
+        }
+    }
+
+    /**
+     * Argon2PasswordEncoder that asks for a rehash whenever the stored parameters differ from the configured ones
+     * (the default only does it when the stored memory / iterations are lower)
+     * - Hash format: "$argon2id$v=19$m=16384,t=2,p=1$<salt>$<hash>" (salt & hash in unpadded Base64)
+     */
+    static final class TargetParametersArgon2PasswordEncoder extends Argon2PasswordEncoder {
+
+        private final int saltLength;
+        private final int hashLength;
+        private final int parallelism;
+        private final int memory;
+        private final int iterations;
+
+        TargetParametersArgon2PasswordEncoder(int saltLength, int hashLength, int parallelism, int memory, int iterations) {
+            super(saltLength, hashLength, parallelism, memory, iterations);
+            this.saltLength = saltLength;
+            this.hashLength = hashLength;
+            this.parallelism = parallelism;
+            this.memory = memory;
+            this.iterations = iterations;
+        }
+
+        @Override
+        public boolean upgradeEncoding(String encodedPassword) {
+            if (encodedPassword == null) {
+                return false;
+            }
+            String[] parts = encodedPassword.split("\\$");
+            if (parts.length != 6 || !parts[0].isEmpty()) {
+                return false; // Not an Argon2 hash, matches() rejects it anyway
+            }
+            try {
+                int storedMemory = -1;
+                int storedIterations = -1;
+                int storedParallelism = -1;
+                for (String parameter : parts[3].split(",")) {
+                    int value = Integer.parseInt(parameter.substring(2));
+                    switch (parameter.substring(0, 2)) {
+                        case "m=" -> storedMemory = value;
+                        case "t=" -> storedIterations = value;
+                        case "p=" -> storedParallelism = value;
+                        default -> {
+                            return false;
+                        }
+                    }
+                }
+                return !"argon2id".equals(parts[1])
+                        || storedMemory != memory
+                        || storedIterations != iterations
+                        || storedParallelism != parallelism
+                        || Base64.getDecoder().decode(parts[4]).length != saltLength
+                        || Base64.getDecoder().decode(parts[5]).length != hashLength;
+            } catch (IllegalArgumentException | IndexOutOfBoundsException malformedHash) {
+                return false; // NumberFormatException is an IllegalArgumentException
+            }
+        }
+    }
+
+    /**
+     * Pbkdf2PasswordEncoder (HMAC-SHA256) that asks for a rehash when the stored salt length differs from the
+     * configured one (the default never does)
+     * - Hash format: hex of salt + 32-byte hash; the iteration count is not stored, so it cannot be checked
+     */
+    static final class TargetSaltLengthPbkdf2PasswordEncoder extends Pbkdf2PasswordEncoder {
+
+        private static final int HASH_BYTES = 32; // SHA-256
+
+        private final int saltLength;
+
+        TargetSaltLengthPbkdf2PasswordEncoder(int saltLength, int iterations) {
+            super("", saltLength, iterations, SecretKeyFactoryAlgorithm.PBKDF2WithHmacSHA256);
+            this.saltLength = saltLength;
+        }
+
+        @Override
+        public boolean upgradeEncoding(String encodedPassword) {
+            if (encodedPassword == null) {
+                return false;
+            }
+            try {
+                int storedBytes = HexFormat.of().parseHex(encodedPassword).length;
+                return storedBytes > HASH_BYTES && storedBytes - HASH_BYTES != saltLength;
+            } catch (IllegalArgumentException notHex) {
+                return false; // Not a PBKDF2 hash, matches() rejects it anyway
+            }
+        }
+    }
 }
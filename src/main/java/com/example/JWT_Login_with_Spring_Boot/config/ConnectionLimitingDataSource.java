@@ -0,0 +1,111 @@
+package com.example.JWT_Login_with_Spring_Boot.config;
+
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.SQLTransientConnectionException;
+import java.time.Duration;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import javax.sql.DataSource;
+
+import org.springframework.jdbc.datasource.DelegatingDataSource;
+
+
+/**
+ * DataSource that lets at most "maxConcurrency" threads hold a connection at the same time.
+ *
+ * - Used in virtual-thread mode, where every request gets its own (cheap) thread: without a limit,
+ *   thousands of threads would all wait inside the connection pool at once
+ * - Threads wait in a fair (FIFO) Semaphore, which parks virtual threads without pinning their carrier
+ * - A thread that waits longer than "maxWait" gets an SQLTransientConnectionException (same as a pool timeout)
+ * - The permit is released when the connection is closed (returned to the pool)
+ */
+public class ConnectionLimitingDataSource extends DelegatingDataSource {
+
+    private final Semaphore permits;
+    private final long maxWaitNanos;
+
+    public ConnectionLimitingDataSource(DataSource targetDataSource, int maxConcurrency, Duration maxWait) {
+        super(targetDataSource);
+        this.permits = new Semaphore(maxConcurrency, true);
+        this.maxWaitNanos = maxWait.toNanos();
+    }
+
+
+    @Override
+    public Connection getConnection() throws SQLException {
+        acquirePermit();
+        try {
+            return permitReleasingConnection(super.getConnection());
+        } catch (SQLException | RuntimeException exception) {
+            permits.release();
+            throw exception;
+        }
+    }
+
+    @Override
+    public Connection getConnection(String username, String password) throws SQLException {
+        acquirePermit();
+        try {
+            return permitReleasingConnection(super.getConnection(username, password));
+        } catch (SQLException | RuntimeException exception) {
+            permits.release();
+            throw exception;
+        }
+    }
+
+    // Number of threads currently waiting for a connection
+    public int waitingThreads() {
+        return permits.getQueueLength();
+    }
+
+
+
+    // 🔹 Private Helper Methods (Internal logic)
+
+    private void acquirePermit() throws SQLException {
+        try {
+            if (!permits.tryAcquire(maxWaitNanos, TimeUnit.NANOSECONDS)) {
+                throw new SQLTransientConnectionException(
+                        "Connection is not available, request timed out after " + Duration.ofNanos(maxWaitNanos).toMillis() + "ms");
+            }
+        } catch (InterruptedException interruptedException) {
+            Thread.currentThread().interrupt();
+            throw new SQLTransientConnectionException("Interrupted while waiting for a connection", interruptedException);
+        }
+    }
+
+    // Wrap the connection so that close() also gives the permit back (only once, even if close() is called twice)
+    private Connection permitReleasingConnection(Connection connection) {
+        AtomicBoolean released = new AtomicBoolean();
+
+        return (Connection) Proxy.newProxyInstance(
+                Connection.class.getClassLoader(),
+                new Class<?>[] {Connection.class},
+                (proxy, method, args) -> switch (method.getName()) {
+                    case "equals" -> proxy == args[0];
+                    case "hashCode" -> System.identityHashCode(proxy);
+                    case "close" -> {
+                        try {
+                            connection.close();
+                        } finally {
+                            if (released.compareAndSet(false, true)) {
+                                permits.release();
+                            }
+                        }
+                        yield null;
+                    }
+                    default -> {
+                        try {
+                            yield method.invoke(connection, args);
+                        } catch (InvocationTargetException invocationTargetException) {
+                            throw invocationTargetException.getTargetException();
+                        }
+                    }
+                });
+    }
+}
@@ -1,11 +1,11 @@
 package com.example.JWT_Login_with_Spring_Boot.config;
 
+import java.time.Duration;
 import java.util.Properties;
 
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
-import org.springframework.mail.javamail.JavaMailSender;
 import org.springframework.mail.javamail.JavaMailSenderImpl;
 
 
@@ -15,20 +15,34 @@ import org.springframework.mail.javamail.JavaMailSenderImpl;
 @Configuration
 public class EmailConfiguration {
 
-    // Injecting email username and password from application.properties file
+    // Injecting email server, username and password from application.properties file
+    @Value("${spring.mail.host}")
+    private String emailHost;
+    @Value("${spring.mail.port}")
+    private int emailPort;
     @Value("${spring.mail.username}")
     private String emailUsername;
     @Value("${spring.mail.password}")
     private String emailPassword;
+    @Value("${email.debug:false}")
+    private boolean emailDebug;
+    // SMTP socket timeouts, so a hung server cannot block the sending threads forever
+    @Value("${email.smtp.connection-timeout:10s}")
+    private Duration connectionTimeout;
+    @Value("${email.smtp.read-timeout:30s}")
+    private Duration readTimeout;
+    @Value("${email.smtp.write-timeout:30s}")
+    private Duration writeTimeout;
 
 
     @Bean
-    public JavaMailSender javaMailSender(){
+    // Return type is JavaMailSenderImpl, so EmailDispatcher can reuse its Session & server settings
+    public JavaMailSenderImpl javaMailSender(){
         
         // Configure email server details & authentication credentials
         JavaMailSenderImpl javaMailSenderImpl = new JavaMailSenderImpl();
-        javaMailSenderImpl.setHost("smtp.gmail.com"); // Set the Host to Gmail SMTP server
-        javaMailSenderImpl.setPort(587); // Set the Port to standard port for SMTP with TLS encryption
+        javaMailSenderImpl.setHost(emailHost); // Set the Host (Gmail SMTP server by default)
+        javaMailSenderImpl.setPort(emailPort); // Set the Port (587: standard port for SMTP with TLS encryption)
         javaMailSenderImpl.setUsername(emailUsername);
         javaMailSenderImpl.setPassword(emailPassword);
 
@@ -39,8 +53,12 @@ public class EmailConfiguration {
         properties.put("mail.smtp.auth", "true"); // Enable SMTP authentication (require username & password)
         // Enable STARTTLS to upgrade insecure connection to secure connection with TLS encryption
         properties.put("mail.smtp.starttls.enable", "true");
-        // Enable debug mode to log detailed info about email-sending process
-        properties.put("mail.debug", "true");
+        // Debug mode logs the whole SMTP conversation, so it is disabled unless explicitly enabled (email.debug)
+        properties.put("mail.debug", String.valueOf(emailDebug));
+        // Timeouts in milliseconds (JavaMail waits forever by default)
+        properties.put("mail.smtp.connectiontimeout", String.valueOf(connectionTimeout.toMillis()));
+        properties.put("mail.smtp.timeout", String.valueOf(readTimeout.toMillis()));
+        properties.put("mail.smtp.writetimeout", String.valueOf(writeTimeout.toMillis()));
 
         return javaMailSenderImpl;
     }
@@ -1,6 +1,7 @@
 package com.example.JWT_Login_with_Spring_Boot.config;
 
 import java.io.IOException;
+import java.util.concurrent.TimeUnit;
 
 import org.springframework.lang.NonNull;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
@@ -13,8 +14,15 @@ import org.springframework.stereotype.Component;
 import org.springframework.web.filter.OncePerRequestFilter;
 import org.springframework.web.servlet.HandlerExceptionResolver;
 
+import com.example.JWT_Login_with_Spring_Boot.jfr.AuthenticationRequestEvent;
+import com.example.JWT_Login_with_Spring_Boot.model.VerifiedToken;
 import com.example.JWT_Login_with_Spring_Boot.service.JwtService;
+import com.example.JWT_Login_with_Spring_Boot.service.TokenDenylist;
+import com.example.JWT_Login_with_Spring_Boot.service.TokenEpochRegistry;
+import com.example.JWT_Login_with_Spring_Boot.service.VerifiedTokenCache;
 
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
 import jakarta.servlet.FilterChain;
 import jakarta.servlet.ServletException;
 import jakarta.servlet.http.HttpServletRequest;
@@ -35,16 +43,36 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
 
     private final HandlerExceptionResolver handlerExceptionResolver; // Handles exceptions during authentication
     private final JwtService jwtService; // Extracting and validating JWT token
-    private final UserDetailsService userDetailsService; // Load user details from database
+    private final UserDetailsService userDetailsService; // Load user details from database (not used in stateless mode)
+    private final VerifiedTokenCache verifiedTokenCache; // Reuse tokens that were already verified
+    private final TokenDenylist tokenDenylist; // Revoked tokens (logout), checked in memory
+    private final TokenEpochRegistry tokenEpochRegistry; // Recent token epoch changes (password change), checked in memory
+
+    // Time spent in this filter (not in the rest of the chain), by outcome
+    private final Timer authenticatedTimer; // Valid token, user authenticated
+    private final Timer anonymousTimer; // No "Bearer" token
+    private final Timer rejectedTimer; // Valid token, but revoked, stale, or not for a known user
+    private final Timer failedTimer; // Invalid token, or lookup failure
 
     // Constructor
     public JwtAuthenticationFilter(
             HandlerExceptionResolver handlerExceptionResolver,
             JwtService jwtService,
-            UserDetailsService userDetailsService) {
+            UserDetailsService userDetailsService,
+            VerifiedTokenCache verifiedTokenCache,
+            TokenDenylist tokenDenylist,
+            TokenEpochRegistry tokenEpochRegistry,
+            MeterRegistry meterRegistry) {
         this.handlerExceptionResolver = handlerExceptionResolver;
         this.jwtService = jwtService;
         this.userDetailsService = userDetailsService;
+        this.verifiedTokenCache = verifiedTokenCache;
+        this.tokenDenylist = tokenDenylist;
+        this.tokenEpochRegistry = tokenEpochRegistry;
+        this.authenticatedTimer = filterTimer(meterRegistry, "authenticated");
+        this.anonymousTimer = filterTimer(meterRegistry, "anonymous");
+        this.rejectedTimer = filterTimer(meterRegistry, "rejected");
+        this.failedTimer = filterTimer(meterRegistry, "failed");
     }
 
 
@@ -57,30 +85,52 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
             @NonNull FilterChain filterChain // Allow passing the request to the next filter
     ) throws ServletException, IOException {
         
+        final long start = System.nanoTime();
+        // JFR event of this request, the stage events (token verification, user lookup) are nested in it
+        final AuthenticationRequestEvent event = new AuthenticationRequestEvent();
+        event.begin();
+
         // Retrieve the "Authorization" header from the request
         final String authHeader = request.getHeader("Authorization");
 
         // Check if the header is missing or does not start with prefix "Bearer"
         // If header / prefix is missing, allow the request to proceed without authentication
-        if (authHeader == null || !authHeader.startsWith("Bearer")) {
+        if (authHeader == null || !authHeader.startsWith("Bearer ")) {
+            anonymousTimer.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+            commit(event, request, "anonymous", false);
             filterChain.doFilter(request, response);
             return;
         }
 
+        Timer outcome = rejectedTimer;
+        boolean timed = false;
+        final boolean[] tokenCached = {true}; // Set to false by the verifier (only called on a cache miss)
         try {
             // Extracting the JWT token
-            final String jwt = authHeader.substring(7); // Remove the prefix "Bearer" (skip the first 7 characters)
-            final String userEmail = jwtService.extractUsername(jwt);
+            final String jwt = authHeader.substring(7); // Remove the prefix "Bearer " (skip the first 7 characters)
+
+            // Look the token up in the cache first, parse & verify it only on a cache miss
+            final VerifiedToken verifiedToken = verifiedTokenCache.get(jwt, token -> {
+                tokenCached[0] = false;
+                return jwtService.verifyToken(token);
+            });
+            final String userEmail = verifiedToken.subject();
 
             // Retrieve the current authentication status from "SecurityContextHolder"
             Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
 
-            if (userEmail != null && authentication == null) {
-                // Load the user details (email, hashed password, authorities) from the database
-                UserDetails userDetails = this.userDetailsService.loadUserByUsername(userEmail);
-
-                // Check if the JWT token is valid (not expired and matches the correct user)
-                if (jwtService.isTokenValid(jwt, userDetails)) {
+            // Revoked & stale tokens (checked on every request, the cache only skips the signature check) stay unauthenticated
+            if (userEmail != null && authentication == null
+                    && !tokenDenylist.isRevoked(verifiedToken)
+                    && !tokenEpochRegistry.isStale(verifiedToken)) {
+                // Stateless mode: build the user from the token claims (no database access)
+                // Otherwise: load the user details (email, hashed password, authorities) from the database
+                UserDetails userDetails = jwtService.isStateless()
+                        ? jwtService.toPrincipal(verifiedToken)
+                        : this.userDetailsService.loadUserByUsername(userEmail);
+
+                // Check if the JWT token is valid (not expired and matches the correct user), no re-parsing needed
+                if (userDetails != null && jwtService.isTokenValid(verifiedToken, userDetails)) {
                     // Create an authentication object fot the user
                     UsernamePasswordAuthenticationToken authToken = new UsernamePasswordAuthenticationToken(
                             userDetails, // username & roles
@@ -91,18 +141,56 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
                     authToken.setDetails(new WebAuthenticationDetailsSource().buildDetails(request));
 
                     // Store authentication in SecurityContext (marking the user as authenticated)
-                    SecurityContextHolder.getContext().setAuthentication(authentication);
+                    SecurityContextHolder.getContext().setAuthentication(authToken);
+                    outcome = authenticatedTimer;
                 }
             }
+            outcome.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+            commit(event, request, outcome == authenticatedTimer ? "authenticated" : "rejected", tokenCached[0]);
+            timed = true;
 
             // Passing the request forward (continue with the request processing)
             filterChain.doFilter(request, response);
 
         } catch (Exception exception) {
+            if (!timed) {
+                failedTimer.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+                commit(event, request, "failed", tokenCached[0]);
+            }
             handlerExceptionResolver.resolveException(request, response, null, exception);
         }
     }
 
+    /**
+     * Also authenticate the ASYNC dispatch that completes an async response (e.g. /users/stream):
+     * the security context is not stored between dispatches (stateless), and Spring Security authorizes
+     * every dispatch, so without the token the dispatch would be rejected. The token check is cached.
+     */
+    @Override
+    protected boolean shouldNotFilterAsyncDispatch() {
+        return false;
+    }
+
+    // Record the JFR event, only if a recording has it enabled (and the threshold is reached)
+    private void commit(AuthenticationRequestEvent event, HttpServletRequest request, String outcome, boolean tokenCached) {
+        event.end();
+        if (event.shouldCommit()) {
+            event.method = request.getMethod();
+            event.path = request.getRequestURI();
+            event.outcome = outcome;
+            event.tokenCached = tokenCached;
+            event.stateless = jwtService.isStateless();
+            event.commit();
+        }
+    }
+
+    private static Timer filterTimer(MeterRegistry meterRegistry, String outcome) {
+        return Timer.builder("auth.filter")
+                .description("JWT authentication filter (excluding the rest of the filter chain)")
+                .tag("outcome", outcome)
+                .register(meterRegistry);
+    }
+
     
     
 }
@@ -0,0 +1,93 @@
+package com.example.JWT_Login_with_Spring_Boot.config;
+
+import java.util.function.Supplier;
+import java.util.function.ToLongFunction;
+
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import com.example.JWT_Login_with_Spring_Boot.service.CachedUserDetailsService;
+import com.example.JWT_Login_with_Spring_Boot.service.TokenDenylist;
+import com.example.JWT_Login_with_Spring_Boot.service.TokenEpochRegistry;
+import com.example.JWT_Login_with_Spring_Boot.service.VerifiedTokenCache;
+import com.github.benmanes.caffeine.cache.stats.CacheStats;
+
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+
+
+/**
+ * Exposes the statistics of the in-memory caches as metrics (scraped from /actuator/prometheus).
+ *
+ * - auth.cache.gets{cache, result=hit|miss}, auth.cache.evictions{cache}, auth.cache.size{cache}
+ * - cache=token: verified JWT cache (VerifiedTokenCache), cache=user: user lookup cache (CachedUserDetailsService)
+ * - auth.revocation.entries, auth.revocation.max.entries & auth.revocation.bloom.bytes: size & limit of the
+ *   revoked-token index (TokenDenylist)
+ * - auth.revocation.epochs: users with a recent token epoch change (TokenEpochRegistry)
+ * - The values are read from the Caffeine stats when the registry is scraped, nothing is counted twice
+ *
+ * Latency timers & outcome counters are registered by the services themselves (e.g. auth.token.verify,
+ * auth.filter, auth.user.lookup, auth.password.match, auth.login, email.dispatcher.send).
+ */
+@Configuration
+public class MetricsConfiguration {
+
+    @Bean
+    public MeterBinder authenticationCacheMetrics(
+            VerifiedTokenCache verifiedTokenCache,
+            CachedUserDetailsService userDetailsService) {
+        return registry -> {
+            bindCache(registry, "token", verifiedTokenCache::stats);
+            bindCache(registry, "user", userDetailsService::stats);
+            Gauge.builder("auth.cache.size", verifiedTokenCache, VerifiedTokenCache::size)
+                    .tag("cache", "token")
+                    .description("Number of verified tokens in the cache")
+                    .register(registry);
+        };
+    }
+
+    @Bean
+    public MeterBinder tokenRevocationMetrics(TokenDenylist tokenDenylist, TokenEpochRegistry tokenEpochRegistry) {
+        return registry -> {
+            Gauge.builder("auth.revocation.entries", tokenDenylist, TokenDenylist::size)
+                    .description("Revoked tokens kept in memory (until they expire)")
+                    .register(registry);
+            Gauge.builder("auth.revocation.max.entries", tokenDenylist, TokenDenylist::maxEntries)
+                    .description("Limit of revoked tokens kept in memory, logouts get 503 once it is reached")
+                    .register(registry);
+            Gauge.builder("auth.revocation.bloom.bytes", tokenDenylist, TokenDenylist::bloomFilterBytes)
+                    .description("Memory used by the Bloom filter of the revoked tokens")
+                    .register(registry);
+            Gauge.builder("auth.revocation.epochs", tokenEpochRegistry, TokenEpochRegistry::size)
+                    .description("Users whose token epoch changed within one token lifetime")
+                    .register(registry);
+        };
+    }
+
+
+
+    // 🔹 Private Helper Methods (Internal logic)
+
+    private static void bindCache(MeterRegistry registry, String cacheName, Supplier<CacheStats> stats) {
+        counter(registry, "auth.cache.gets", cacheName, "hit", stats, CacheStats::hitCount);
+        counter(registry, "auth.cache.gets", cacheName, "miss", stats, CacheStats::missCount);
+        FunctionCounter.builder("auth.cache.evictions", stats, supplier -> supplier.get().evictionCount())
+                .tag("cache", cacheName)
+                .register(registry);
+    }
+
+    private static void counter(
+            MeterRegistry registry,
+            String name,
+            String cacheName,
+            String result,
+            Supplier<CacheStats> stats,
+            ToLongFunction<CacheStats> value) {
+        FunctionCounter.builder(name, stats, supplier -> value.applyAsLong(supplier.get()))
+                .tag("cache", cacheName)
+                .tag("result", result)
+                .register(registry);
+    }
+}
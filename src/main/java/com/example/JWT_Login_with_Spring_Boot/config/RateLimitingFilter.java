@@ -0,0 +1,264 @@
+package com.example.JWT_Login_with_Spring_Boot.config;
+
+import java.io.BufferedReader;
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.UncheckedIOException;
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.lang.NonNull;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.util.UrlPathHelper;
+
+import com.example.JWT_Login_with_Spring_Boot.service.RateLimiter;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ReadListener;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.ServletInputStream;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletRequestWrapper;
+import jakarta.servlet.http.HttpServletResponse;
+
+
+/**
+ * Rate limits the unauthenticated endpoints that cost the most (password hashing, emails, verification codes),
+ * with token buckets per client IP and per email (RateLimiter).
+ *
+ * - /authentication/login (BCrypt), /verify (6-digit codes, brute-force target), /resend (SMTP send)
+ * - Limits are set per endpoint as "<capacity>/<period>" (security.rate-limit.*)
+ * - The IP bucket is checked first, before the body is read; the email comes from the JSON body
+ *   (login, verify) or the "email" parameter (resend), and is compared case-insensitively
+ * - Rejected requests get "429 Too Many Requests" with a "Retry-After" header (seconds)
+ * - Endpoints are matched on the decoded path within the application (no context path), like the controllers are,
+ *   so "/authentication/%6Cogin" or a "server.servlet.context-path" does not bypass the limits
+ * - Other requests only pay one map lookup on the path; allowed requests one CAS per bucket
+ * - Runs before JwtAuthenticationFilter (SecurityConfiguration)
+ * - Metrics: auth.rate_limit.rejected{endpoint, key} and auth.rate_limit.keys{endpoint, key}
+ */
+@Component
+public class RateLimitingFilter extends OncePerRequestFilter {
+
+    private static final int MAX_BODY_BYTES = 16 * 1024; // Login / verify bodies are a few hundred bytes
+
+    // Limits of one endpoint, and where its email is read from
+    private record EndpointLimits(
+            RateLimiter perIp,
+            RateLimiter perEmail,
+            boolean emailInBody,
+            Counter ipRejected,
+            Counter emailRejected) {
+    }
+
+    private final boolean enabled;
+    private final ObjectMapper objectMapper;
+    private final Map<String, EndpointLimits> endpoints; // By path within the application, POST only
+
+    public RateLimitingFilter(
+            ObjectMapper objectMapper,
+            MeterRegistry meterRegistry,
+            @Value("${security.rate-limit.enabled:true}") boolean enabled,
+            @Value("${security.rate-limit.max-keys:100000}") long maximumKeys,
+            @Value("${security.rate-limit.login.per-ip:20/1m}") String loginPerIp,
+            @Value("${security.rate-limit.login.per-email:5/1m}") String loginPerEmail,
+            @Value("${security.rate-limit.verify.per-ip:20/1m}") String verifyPerIp,
+            @Value("${security.rate-limit.verify.per-email:5/15m}") String verifyPerEmail,
+            @Value("${security.rate-limit.resend.per-ip:5/1m}") String resendPerIp,
+            @Value("${security.rate-limit.resend.per-email:3/15m}") String resendPerEmail) {
+        this.enabled = enabled;
+        this.objectMapper = objectMapper;
+        this.endpoints = Map.of(
+                "/authentication/login",
+                endpointLimits(meterRegistry, "login", loginPerIp, loginPerEmail, maximumKeys, true),
+                "/authentication/verify",
+                endpointLimits(meterRegistry, "verify", verifyPerIp, verifyPerEmail, maximumKeys, true),
+                "/authentication/resend",
+                endpointLimits(meterRegistry, "resend", resendPerIp, resendPerEmail, maximumKeys, false));
+    }
+
+
+
+    // 🔹 Main filtering logic
+    @Override
+    protected void doFilterInternal(
+            @NonNull HttpServletRequest request,
+            @NonNull HttpServletResponse response,
+            @NonNull FilterChain filterChain) throws ServletException, IOException {
+
+        EndpointLimits limits = enabled && "POST".equals(request.getMethod())
+                ? endpoints.get(UrlPathHelper.defaultInstance.getPathWithinApplication(request))
+                : null;
+        if (limits == null) {
+            filterChain.doFilter(request, response); // Not a rate-limited endpoint
+            return;
+        }
+
+        long wait = limits.perIp().tryAcquire(request.getRemoteAddr());
+        if (wait > 0) {
+            limits.ipRejected().increment();
+            reject(response, wait);
+            return;
+        }
+
+        HttpServletRequest forwarded = request;
+        String email;
+        if (limits.emailInBody()) {
+            byte[] body = request.getInputStream().readNBytes(MAX_BODY_BYTES + 1);
+            if (body.length > MAX_BODY_BYTES) {
+                response.sendError(HttpStatus.PAYLOAD_TOO_LARGE.value());
+                return;
+            }
+            forwarded = new CachedBodyRequest(request, body); // The controller reads the body again
+            email = emailFromBody(body);
+        } else {
+            email = request.getParameter("email");
+        }
+
+        if (email != null && !email.isBlank()) {
+            wait = limits.perEmail().tryAcquire(email.trim().toLowerCase(Locale.ROOT));
+            if (wait > 0) {
+                limits.emailRejected().increment();
+                reject(response, wait);
+                return;
+            }
+        }
+
+        filterChain.doFilter(forwarded, response);
+    }
+
+
+
+    // 🔹 Private Helper Methods (Internal logic)
+
+    // "429 Too Many Requests", Retry-After rounded up to whole seconds
+    private static void reject(HttpServletResponse response, long waitNanos) throws IOException {
+        long retryAfterSeconds = Math.max(1, (waitNanos + TimeUnit.SECONDS.toNanos(1) - 1) / TimeUnit.SECONDS.toNanos(1));
+        response.setStatus(HttpStatus.TOO_MANY_REQUESTS.value());
+        response.setHeader(HttpHeaders.RETRY_AFTER, String.valueOf(retryAfterSeconds));
+        response.setContentType("text/plain;charset=UTF-8");
+        response.getWriter().write("Too many requests, please try again later");
+    }
+
+    // The "email" field of a JSON body, null if the body is not a JSON object (the controller reports it)
+    private String emailFromBody(byte[] body) {
+        try {
+            JsonNode email = objectMapper.readTree(body).path("email");
+            return email.isTextual() ? email.asText() : null;
+        } catch (IOException malformedJson) {
+            return null;
+        }
+    }
+
+    private static EndpointLimits endpointLimits(
+            MeterRegistry meterRegistry,
+            String endpoint,
+            String perIp,
+            String perEmail,
+            long maximumKeys,
+            boolean emailInBody) {
+        RateLimiter ipLimiter = RateLimiter.of(perIp, maximumKeys);
+        RateLimiter emailLimiter = RateLimiter.of(perEmail, maximumKeys);
+        Gauge.builder("auth.rate_limit.keys", ipLimiter, RateLimiter::size)
+                .description("Rate-limit buckets in memory")
+                .tags("endpoint", endpoint, "key", "ip")
+                .register(meterRegistry);
+        Gauge.builder("auth.rate_limit.keys", emailLimiter, RateLimiter::size)
+                .description("Rate-limit buckets in memory")
+                .tags("endpoint", endpoint, "key", "email")
+                .register(meterRegistry);
+        return new EndpointLimits(
+                ipLimiter,
+                emailLimiter,
+                emailInBody,
+                rejectedCounter(meterRegistry, endpoint, "ip"),
+                rejectedCounter(meterRegistry, endpoint, "email"));
+    }
+
+    private static Counter rejectedCounter(MeterRegistry meterRegistry, String endpoint, String key) {
+        return Counter.builder("auth.rate_limit.rejected")
+                .description("Requests rejected by the rate limiter")
+                .tags("endpoint", endpoint, "key", key)
+                .register(meterRegistry);
+    }
+
+
+    // Request whose body was already read by this filter, replayed from memory for the rest of the chain
+    private static final class CachedBodyRequest extends HttpServletRequestWrapper {
+
+        private final byte[] body;
+
+        private CachedBodyRequest(HttpServletRequest request, byte[] body) {
+            super(request);
+            this.body = body;
+        }
+
+        @Override
+        public ServletInputStream getInputStream() {
+            ByteArrayInputStream input = new ByteArrayInputStream(body);
+            return new ServletInputStream() {
+                @Override
+                public int read() {
+                    return input.read();
+                }
+
+                @Override
+                public int read(byte[] buffer, int offset, int length) {
+                    return input.read(buffer, offset, length);
+                }
+
+                @Override
+                public boolean isFinished() {
+                    return input.available() == 0;
+                }
+
+                @Override
+                public boolean isReady() {
+                    return true;
+                }
+
+                // The whole body is already in memory: report it available and read at once
+                @Override
+                public void setReadListener(ReadListener readListener) {
+                    try {
+                        readListener.onDataAvailable();
+                        readListener.onAllDataRead();
+                    } catch (IOException readFailed) {
+                        throw new UncheckedIOException(readFailed);
+                    }
+                }
+            };
+        }
+
+        @Override
+        public BufferedReader getReader() {
+            Charset charset = getCharacterEncoding() != null
+                    ? Charset.forName(getCharacterEncoding())
+                    : StandardCharsets.UTF_8;
+            return new BufferedReader(new InputStreamReader(getInputStream(), charset));
+        }
+
+        @Override
+        public int getContentLength() {
+            return body.length;
+        }
+
+        @Override
+        public long getContentLengthLong() {
+            return body.length;
+        }
+    }
+}
@@ -2,9 +2,9 @@ package com.example.JWT_Login_with_Spring_Boot.config;
 
 import java.util.List;
 
+import org.springframework.boot.actuate.autoconfigure.security.servlet.EndpointRequest;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
-import org.springframework.security.authentication.AuthenticationProvider;
 import org.springframework.security.config.annotation.web.builders.HttpSecurity;
 import org.springframework.security.config.annotation.web.configuration.EnableWebSecurity;
 import org.springframework.security.config.http.SessionCreationPolicy;
@@ -19,20 +19,22 @@ import org.springframework.web.cors.UrlBasedCorsConfigurationSource;
 
 /**
  * Configuration class for Spring Security, setting up authentication, authorization, session management, and CORS.
+ * - Requests are authenticated by their JWT only (JwtAuthenticationFilter); passwords are checked by the login
+ *   endpoint (AuthenticationService.authenticate()), there is no form login / HTTP basic / AuthenticationProvider
  */
 
 @Configuration
 @EnableWebSecurity // enable Spring Security features (to secure HTTP requests and handle authentication/authorization)
 public class SecurityConfiguration {
 
-    private final AuthenticationProvider authenticationProvider;
     private final JwtAuthenticationFilter jwtAuthenticationFilter;
+    private final RateLimitingFilter rateLimitingFilter;
 
     public SecurityConfiguration(
-            AuthenticationProvider authenticationProvider,
-            JwtAuthenticationFilter jwtAuthenticationFilter) {
-        this.authenticationProvider = authenticationProvider;
+            JwtAuthenticationFilter jwtAuthenticationFilter,
+            RateLimitingFilter rateLimitingFilter) {
         this.jwtAuthenticationFilter = jwtAuthenticationFilter;
+        this.rateLimitingFilter = rateLimitingFilter;
     }
 
 
@@ -47,12 +49,15 @@ public class SecurityConfiguration {
             .authorizeHttpRequests(
                     authorize -> authorize
                             .requestMatchers("/authentication/**").permitAll() // Allow unauthenticated access to "/auth/**" endpoints
+                            // Health checks & Prometheus scrapes (management port), other actuator endpoints need a token
+                            .requestMatchers(EndpointRequest.to("health", "prometheus")).permitAll()
                             .anyRequest().authenticated()) // Require authentication for all other endpoints
             // Use stateless session(no server-side session)
             .sessionManagement(session -> session.sessionCreationPolicy(SessionCreationPolicy.STATELESS))
-            .authenticationProvider(authenticationProvider) // Custom AuthenticationProvider (injected via constructor)
             // Adds JWT filter before the default filter, so JWT tokens are checked first
-            .addFilterBefore(jwtAuthenticationFilter, UsernamePasswordAuthenticationFilter.class);
+            .addFilterBefore(jwtAuthenticationFilter, UsernamePasswordAuthenticationFilter.class)
+            // Rate limits (login, verify, resend) are checked before any token or password work
+            .addFilterBefore(rateLimitingFilter, JwtAuthenticationFilter.class);
 
             return http.build();
     }
@@ -0,0 +1,57 @@
+package com.example.JWT_Login_with_Spring_Boot.config;
+
+import java.time.Duration;
+
+import javax.sql.DataSource;
+
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnThreading;
+import org.springframework.boot.autoconfigure.thread.Threading;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import com.zaxxer.hikari.HikariDataSource;
+
+
+/**
+ * Settings used only in virtual-thread mode (spring.threads.virtual.enabled=true, see the "virtual" profile).
+ *
+ * Spring Boot already runs Tomcat requests, async requests (e.g. /users/stream) and @Scheduled tasks
+ * on virtual threads in this mode. This class bounds what those threads can do at the same time:
+ * - Database: at most as many threads as the Hikari pool has connections (ConnectionLimitingDataSource)
+ * - Password hashing (CPU-bound) and SMTP sends keep running on their own bounded platform-thread pools
+ *   (PasswordHashingExecutor, EmailDispatcher), so they cannot grow with the number of requests
+ */
+@Configuration
+@ConditionalOnThreading(Threading.VIRTUAL)
+public class VirtualThreadConfiguration {
+
+    /**
+     * Wrap the DataSource so virtual threads queue for a connection in a fair Semaphore
+     * - "static": BeanPostProcessors are created before the other beans
+     * - The limit is the Hikari "maximum-pool-size", the wait is the Hikari "connection-timeout"
+     */
+    @Bean
+    static BeanPostProcessor connectionLimitingDataSourcePostProcessor(
+            @Value("${spring.datasource.hikari.maximum-pool-size:10}") int maximumPoolSize,
+            @Value("${spring.datasource.hikari.connection-timeout:30000}") long connectionTimeoutMillis) {
+        return new BeanPostProcessor() {
+            @Override
+            public Object postProcessAfterInitialization(Object bean, String beanName) {
+                if (!(bean instanceof DataSource dataSource) || bean instanceof ConnectionLimitingDataSource) {
+                    return bean;
+                }
+                if (bean instanceof HikariDataSource hikariDataSource) {
+                    // Use the pool's own (bound) settings, they win over the property defaults
+                    return new ConnectionLimitingDataSource(
+                            dataSource,
+                            hikariDataSource.getMaximumPoolSize(),
+                            Duration.ofMillis(hikariDataSource.getConnectionTimeout()));
+                }
+                return new ConnectionLimitingDataSource(
+                        dataSource, maximumPoolSize, Duration.ofMillis(connectionTimeoutMillis));
+            }
+        };
+    }
+}
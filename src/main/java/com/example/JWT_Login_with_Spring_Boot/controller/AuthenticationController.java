@@ -1,21 +1,37 @@
 package com.example.JWT_Login_with_Spring_Boot.controller;
 
 
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.ExceptionHandler;
+import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestHeader;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
 
 import com.example.JWT_Login_with_Spring_Boot.dto.LoginUserDto;
+import com.example.JWT_Login_with_Spring_Boot.dto.RefreshTokenDto;
 import com.example.JWT_Login_with_Spring_Boot.dto.RegisterUserDto;
 import com.example.JWT_Login_with_Spring_Boot.dto.VerifyUserDto;
+import com.example.JWT_Login_with_Spring_Boot.exception.InvalidRefreshTokenException;
 import com.example.JWT_Login_with_Spring_Boot.model.User;
+import com.example.JWT_Login_with_Spring_Boot.model.VerifiedToken;
 import com.example.JWT_Login_with_Spring_Boot.responses.LoginResponse;
 import com.example.JWT_Login_with_Spring_Boot.service.AuthenticationService;
+import com.example.JWT_Login_with_Spring_Boot.service.JwtKeyRing;
 import com.example.JWT_Login_with_Spring_Boot.service.JwtService;
+import com.example.JWT_Login_with_Spring_Boot.service.RefreshTokenService;
+import com.example.JWT_Login_with_Spring_Boot.service.RefreshTokenService.IssuedRefreshToken;
+import com.example.JWT_Login_with_Spring_Boot.service.TokenRevocationService;
+
+import io.jsonwebtoken.JwtException;
 
 
 /**
@@ -30,12 +46,26 @@ import com.example.JWT_Login_with_Spring_Boot.service.JwtService;
 @RestController
 public class AuthenticationController {
 
+    // Media type of a JWK Set document (RFC 7517)
+    private static final MediaType JWK_SET_JSON = MediaType.parseMediaType("application/jwk-set+json");
+
     private final JwtService jwtService;
     private final AuthenticationService authenticationService;
-
-    public AuthenticationController(JwtService jwtService, AuthenticationService authenticationService) {
+    private final JwtKeyRing jwtKeyRing;
+    private final RefreshTokenService refreshTokenService;
+    private final TokenRevocationService tokenRevocationService;
+
+    public AuthenticationController(
+            JwtService jwtService,
+            AuthenticationService authenticationService,
+            JwtKeyRing jwtKeyRing,
+            RefreshTokenService refreshTokenService,
+            TokenRevocationService tokenRevocationService) {
         this.jwtService = jwtService;
         this.authenticationService = authenticationService;
+        this.jwtKeyRing = jwtKeyRing;
+        this.refreshTokenService = refreshTokenService;
+        this.tokenRevocationService = tokenRevocationService;
     }
 
     /**
@@ -46,7 +76,20 @@ public class AuthenticationController {
     @PostMapping("/signup")
     public ResponseEntity<?> register(@RequestBody RegisterUserDto registerUserDto){
         
-        User registeringUser = authenticationService.signup(registerUserDto);
+        User registeringUser;
+        try {
+            registeringUser = authenticationService.signup(registerUserDto);
+        } catch (DataIntegrityViolationException dataIntegrityViolationException) {
+            /**
+             * A unique constraint rejected the insert (username, or email compared case-insensitively,
+             * uk_users_email_lower): another signup with the same email / username was saved at the same time,
+             * so find out which one is used now
+             */
+            registeringUser = authenticationService.findConflict(registerUserDto);
+            if (registeringUser == null) {
+                return ResponseEntity.status(HttpStatus.CONFLICT).body("User is already existed!");
+            }
+        }
 
         /**
          * Check for ID if null or not 
@@ -77,13 +120,22 @@ public class AuthenticationController {
     public ResponseEntity<LoginResponse> authentication(@RequestBody LoginUserDto loginUserDto){
         User authenticatedUser = authenticationService.authenticate(loginUserDto);
 
-        // Generate a JWT token for authenticated user
-        String jwtToken = jwtService.generateToken(authenticatedUser);
+        // Start a new refresh token family for this login
+        IssuedRefreshToken refreshToken = refreshTokenService.issue(authenticatedUser);
 
-        // Create a LoginResponse with the token and expiration time
-        LoginResponse loginResponse = new LoginResponse(jwtToken, jwtService.getExpirationTime());
+        return ResponseEntity.ok(loginResponse(authenticatedUser, refreshToken));
+    }
 
-        return ResponseEntity.ok(loginResponse);
+    /**
+     * Handles access token renewal with a refresh token (no password check)
+     * Mapped to POST("/authentication/refresh")
+     * - The refresh token is rotated: the response carries a new one, the old one must not be used again
+     */
+    @PostMapping("/refresh")
+    public ResponseEntity<LoginResponse> refresh(@RequestBody RefreshTokenDto refreshTokenDto){
+        RefreshTokenService.Rotation rotation = refreshTokenService.rotate(refreshTokenDto.getRefreshToken());
+
+        return ResponseEntity.ok(loginResponse(rotation.user(), rotation.refreshToken()));
     }
 
     /**
@@ -116,5 +168,74 @@ public class AuthenticationController {
             return ResponseEntity.badRequest().body(exception.getMessage());
         }
     }
-    
+
+
+    /**
+     * Handles logout: revokes the access token ("Authorization: Bearer ...") until it expires
+     * Mapped to POST("/authentication/logout")
+     * - The refresh token (optional body) is revoked too, with every token rotated from it
+     */
+    @PostMapping("/logout")
+    public ResponseEntity<String> logout(
+            @RequestHeader(value = HttpHeaders.AUTHORIZATION, required = false) String authHeader,
+            @RequestBody(required = false) RefreshTokenDto refreshTokenDto){
+        if (authHeader == null || !authHeader.startsWith("Bearer ")) {
+            return ResponseEntity.badRequest().body("Missing access token");
+        }
+
+        VerifiedToken verifiedToken;
+        try {
+            verifiedToken = jwtService.verifyToken(authHeader.substring(7));
+        } catch (JwtException | IllegalArgumentException invalidToken) {
+            return ResponseEntity.status(HttpStatus.UNAUTHORIZED).body("Invalid access token");
+        }
+
+        try {
+            tokenRevocationService.revoke(verifiedToken);
+        } catch (IllegalArgumentException notRevocable) {
+            return ResponseEntity.badRequest().body(notRevocable.getMessage());
+        }
+        if (refreshTokenDto != null) {
+            refreshTokenService.revoke(refreshTokenDto.getRefreshToken());
+        }
+        return ResponseEntity.ok("Logged out successfully");
+    }
+
+
+    /**
+     * Public keys that verify our tokens (JWK Set), so other services can verify tokens without calling us
+     * Mapped to GET("/authentication/jwks")
+     * - Clients may cache it for security.jwt.jwks.max-age, then revalidate with the ETag ("304 Not Modified")
+     * - Empty with HS256 (the shared secret is never published)
+     */
+    @GetMapping("/jwks")
+    public ResponseEntity<String> jwks(){
+        JwtKeyRing.PublishedKeys publishedKeys = jwtKeyRing.publishedKeys();
+
+        // Spring answers "304 Not Modified" by itself when the If-None-Match header matches the ETag
+        return ResponseEntity.ok()
+                .contentType(JWK_SET_JSON)
+                .cacheControl(CacheControl.maxAge(publishedKeys.maxAge()).cachePublic())
+                .eTag(publishedKeys.etag())
+                .body(publishedKeys.json());
+    }
+
+
+    /**
+     * Handles unknown, expired, revoked or reused refresh tokens
+     * Returns "401 Unauthorized", the client has to log in again
+     */
+    @ExceptionHandler(InvalidRefreshTokenException.class)
+    public ResponseEntity<String> invalidRefreshToken(InvalidRefreshTokenException exception){
+        return ResponseEntity.status(HttpStatus.UNAUTHORIZED).body(exception.getMessage());
+    }
+
+
+
+    // Generate a JWT token for the user, and put it in a LoginResponse with its expiration time & the refresh token
+    private LoginResponse loginResponse(User user, IssuedRefreshToken refreshToken){
+        String jwtToken = jwtService.generateToken(user);
+        return new LoginResponse(
+                jwtToken, jwtService.getExpirationTime(), refreshToken.token(), refreshToken.expiresIn());
+    }
 }
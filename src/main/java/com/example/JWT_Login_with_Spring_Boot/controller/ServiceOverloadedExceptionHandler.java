@@ -0,0 +1,27 @@
+package com.example.JWT_Login_with_Spring_Boot.controller;
+
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.ExceptionHandler;
+import org.springframework.web.bind.annotation.RestControllerAdvice;
+
+import com.example.JWT_Login_with_Spring_Boot.exception.ServiceOverloadedException;
+
+
+/**
+ * Handles requests rejected because the server is busy (password hashing queue full, token denylist full),
+ * for every controller and for the filters that forward their exceptions to the handler resolver
+ * (JwtAuthenticationFilter)
+ * Returns "503 Service Unavailable" quickly with a "Retry-After" header, instead of piling up requests
+ */
+@RestControllerAdvice
+public class ServiceOverloadedExceptionHandler {
+
+    @ExceptionHandler(ServiceOverloadedException.class)
+    public ResponseEntity<String> serviceOverloaded(ServiceOverloadedException exception){
+        return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+                .header(HttpHeaders.RETRY_AFTER, String.valueOf(exception.getRetryAfterSeconds()))
+                .body(exception.getMessage());
+    }
+}
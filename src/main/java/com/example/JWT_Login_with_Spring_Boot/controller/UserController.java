@@ -2,14 +2,27 @@ package com.example.JWT_Login_with_Spring_Boot.controller;
 
 import java.util.List;
 
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
+import org.springframework.security.authentication.BadCredentialsException;
 import org.springframework.security.core.Authentication;
 import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
+import com.example.JWT_Login_with_Spring_Boot.dto.ChangePasswordDto;
+import com.example.JWT_Login_with_Spring_Boot.exception.ServiceOverloadedException;
+import com.example.JWT_Login_with_Spring_Boot.model.TokenPrincipal;
 import com.example.JWT_Login_with_Spring_Boot.model.User;
+import com.example.JWT_Login_with_Spring_Boot.responses.UserResponse;
+import com.example.JWT_Login_with_Spring_Boot.service.AuthenticationService;
 import com.example.JWT_Login_with_Spring_Boot.service.UserService;
 
 
@@ -22,10 +35,15 @@ import com.example.JWT_Login_with_Spring_Boot.service.UserService;
  */
 public class UserController {
 
+    private static final int MAX_PAGE_SIZE = 1000;
+    private static final int MAX_STREAM_PAGE_SIZE = 10000;
+
     private final UserService userService;
+    private final AuthenticationService authenticationService;
 
-    public UserController(UserService userService) {
+    public UserController(UserService userService, AuthenticationService authenticationService) {
         this.userService = userService;
+        this.authenticationService = authenticationService;
     }
     
     /**
@@ -33,7 +51,7 @@ public class UserController {
      * Mapped to GET("/users/me")
      */
     @GetMapping("/me")
-    public ResponseEntity<User> authenticatedUser(){
+    public ResponseEntity<UserResponse> authenticatedUser(){
         /**
          * - SecurityContextHolder: is part of Spring Security, it stores the
          * information / details for the current user
@@ -44,22 +62,85 @@ public class UserController {
 
         /**
          * - Principal: authenticated user
-         *  - getPrincipal(): is typically the authenticated user's details, represented here as User
+         *  - getPrincipal(): is typically the authenticated user's details, represented here as
+         *    User (loaded from database) or TokenPrincipal (built from the token in stateless mode)
+         *  - only the exposed fields are returned (UserResponse), the principal is already in memory (no query)
          */ 
-        User currentUser = (User) authentication.getPrincipal();
+        UserResponse currentUser = switch (authentication.getPrincipal()) {
+            case User user -> UserResponse.of(user);
+            case TokenPrincipal tokenPrincipal -> UserResponse.of(tokenPrincipal);
+            default -> throw new IllegalStateException("Unsupported principal type");
+        };
 
         return ResponseEntity.ok(currentUser);
     }
 
     /**
-     * Retrieve a list of all users
-     * Mapped to GET("/users/") -> is the same class-level endpoint ("/users")
+     * Change the password of the current authenticated user
+     * Mapped to POST("/users/me/password")
+     * - Every token of the user is invalidated (token epoch), including the one used for this request,
+     *   so the client has to log in again with the new password
+     */
+    @PostMapping("/me/password")
+    public ResponseEntity<String> changePassword(@RequestBody ChangePasswordDto changePasswordDto){
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        String email = switch (authentication.getPrincipal()) {
+            case User user -> user.getEmail();
+            case TokenPrincipal tokenPrincipal -> tokenPrincipal.email();
+            default -> throw new IllegalStateException("Unsupported principal type");
+        };
+
+        try {
+            authenticationService.changePassword(email, changePasswordDto);
+            return ResponseEntity.ok("Password changed, please log in again");
+        } catch (BadCredentialsException badCredentials) {
+            return ResponseEntity.status(HttpStatus.UNAUTHORIZED).body("Current password is incorrect");
+        } catch (ServiceOverloadedException serviceOverloadedException) {
+            throw serviceOverloadedException; // Answered with "503 Service Unavailable" (ServiceOverloadedExceptionHandler)
+        } catch (RuntimeException exception) {
+            return ResponseEntity.badRequest().body(exception.getMessage());
+        }
+    }
+
+    /**
+     * Retrieve a page of users (keyset pagination on the id)
+     * Mapped to GET("/users/?limit=100&after=123") -> is the same class-level endpoint ("/users")
+     * - limit: page size (max 1000)
+     * - after: last id of the previous page (omit for the first page)
+     * - the "Link" header (rel="next") holds the URL of the next page, it is missing on the last page
      */
     @GetMapping("/")
-    public ResponseEntity<List<User>> allUsers(){
-        // use UserService.java allUsers() method instead of rewriting the logic again
-        List<User> users = userService.allUsers();
+    public ResponseEntity<List<UserResponse>> allUsers(
+            @RequestParam(defaultValue = "100") int limit,
+            @RequestParam(required = false) Long after){
+        int pageSize = Math.clamp(limit, 1, MAX_PAGE_SIZE);
+
+        // use UserService.java usersPage() method instead of rewriting the logic again
+        List<UserResponse> users = userService.usersPage(after, pageSize);
+
+        if (users.size() < pageSize) {
+            return ResponseEntity.ok(users); // Last page
+        }
+        Long lastId = users.get(users.size() - 1).id();
+        return ResponseEntity.ok()
+                .header(HttpHeaders.LINK, "</users/?limit=" + pageSize + "&after=" + lastId + ">; rel=\"next\"")
+                .body(users);
+    }
+
+    /**
+     * Stream all users as one JSON array, written while the rows are read from the database
+     * Mapped to GET("/users/stream?fetchSize=500")
+     * - fetchSize: number of rows read from the database per query (max 10000)
+     * - memory use stays flat no matter how many users there are, and no database connection is held
+     *   while the client reads (one short query per page)
+     * - written on an async thread; the ASYNC dispatch that completes the response is authenticated again
+     *   by JwtAuthenticationFilter
+     */
+    @GetMapping(value = "/stream", produces = MediaType.APPLICATION_JSON_VALUE)
+    public ResponseEntity<StreamingResponseBody> streamUsers(@RequestParam(defaultValue = "500") int fetchSize){
+        int pageSize = Math.clamp(fetchSize, 1, MAX_STREAM_PAGE_SIZE);
 
-        return ResponseEntity.ok(users);
+        StreamingResponseBody body = outputStream -> userService.streamUsers(outputStream, pageSize);
+        return ResponseEntity.ok().contentType(MediaType.APPLICATION_JSON).body(body);
     }
 }
@@ -0,0 +1,15 @@
+package com.example.JWT_Login_with_Spring_Boot.dto;
+
+import lombok.Getter;
+import lombok.Setter;
+
+
+/**
+ * DTO (Data Transfer Object) class to collect the current and the new password of the authenticated user
+ */
+@Getter // Automatically generate getter method for all fields at compile time
+@Setter // Automatically generate getter method for all fields at compile time
+public class ChangePasswordDto {
+    private String currentPassword;
+    private String newPassword;
+}
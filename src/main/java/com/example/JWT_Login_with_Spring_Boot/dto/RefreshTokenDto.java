@@ -0,0 +1,14 @@
+package com.example.JWT_Login_with_Spring_Boot.dto;
+
+import lombok.Getter;
+import lombok.Setter;
+
+
+/**
+ * DTO (Data Transfer Object) class to collect the refresh token sent to renew the access token
+ */
+@Getter // Automatically generate getter method for all fields at compile time
+@Setter // Automatically generate getter method for all fields at compile time
+public class RefreshTokenDto {
+    private String refreshToken;
+}
@@ -0,0 +1,13 @@
+package com.example.JWT_Login_with_Spring_Boot.exception;
+
+
+/**
+ * Thrown when a refresh token is unknown, expired, revoked or already used.
+ * Controllers answer it with "401 Unauthorized" (the client must log in again).
+ */
+public class InvalidRefreshTokenException extends RuntimeException {
+
+    public InvalidRefreshTokenException(String message) {
+        super(message);
+    }
+}
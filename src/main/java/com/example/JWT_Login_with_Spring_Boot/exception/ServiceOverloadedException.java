@@ -0,0 +1,21 @@
+package com.example.JWT_Login_with_Spring_Boot.exception;
+
+
+/**
+ * Thrown when a request is rejected because the server is too busy to process it right now
+ * (e.g. the password hashing queue is full). ServiceOverloadedExceptionHandler answers it with
+ * "503 Service Unavailable" and a "Retry-After" header.
+ */
+public class ServiceOverloadedException extends RuntimeException {
+
+    private final long retryAfterSeconds;
+
+    public ServiceOverloadedException(String message, long retryAfterSeconds) {
+        super(message);
+        this.retryAfterSeconds = retryAfterSeconds;
+    }
+
+    public long getRetryAfterSeconds() {
+        return retryAfterSeconds;
+    }
+}
@@ -0,0 +1,93 @@
+package com.example.JWT_Login_with_Spring_Boot.jfr;
+
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.Reader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.text.ParseException;
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.Map;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.stereotype.Component;
+import org.springframework.util.unit.DataSize;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import jdk.jfr.Configuration;
+import jdk.jfr.Recording;
+
+
+/**
+ * Continuous in-memory JFR recording of the authentication events (jfr.auth-tracing.enabled=true).
+ *
+ * - Settings: the JDK "default" profile plus jfr/auth-tracing.jfc (application events & thresholds)
+ * - Keeps the last "maxAge" / "maxSize" of events, dump it with: jcmd <pid> JFR.dump name=auth-tracing
+ * - Written to "destination" when the application stops
+ */
+@Component
+@ConditionalOnProperty(name = "jfr.auth-tracing.enabled", havingValue = "true")
+public class AuthTracingRecording {
+
+    private static final Logger log = LoggerFactory.getLogger(AuthTracingRecording.class);
+
+    public static final String RECORDING_NAME = "auth-tracing";
+    private static final String SETTINGS = "jfr/auth-tracing.jfc";
+
+    private final Duration maxAge;
+    private final DataSize maxSize;
+    private final Path destination;
+    private Recording recording;
+
+    public AuthTracingRecording(
+            @Value("${jfr.auth-tracing.max-age:30m}") Duration maxAge,
+            @Value("${jfr.auth-tracing.max-size:250MB}") DataSize maxSize,
+            @Value("${jfr.auth-tracing.destination:auth-tracing.jfr}") Path destination) {
+        this.maxAge = maxAge;
+        this.maxSize = maxSize;
+        this.destination = destination;
+    }
+
+
+    // 🔹 Lifecycle (called by Spring)
+
+    @PostConstruct
+    void start() throws IOException, ParseException {
+        Map<String, String> settings = new HashMap<>(Configuration.getConfiguration("default").getSettings());
+        settings.putAll(loadSettings().getSettings()); // Application settings override the JDK defaults
+
+        recording = new Recording(settings);
+        recording.setName(RECORDING_NAME);
+        recording.setMaxAge(maxAge);
+        recording.setMaxSize(maxSize.toBytes());
+        recording.setToDisk(true); // Needed for maxAge / maxSize, the JVM keeps only the last chunks
+        recording.setDestination(destination);
+        recording.start();
+        log.info("JFR recording '{}' started (max age {}, max size {})", RECORDING_NAME, maxAge, maxSize);
+    }
+
+    @PreDestroy
+    void stop() {
+        if (recording != null) {
+            recording.stop(); // Also writes the recording to "destination"
+            recording.close();
+        }
+    }
+
+
+
+    // 🔹 Private Helper Methods (Internal logic)
+
+    private static Configuration loadSettings() throws IOException, ParseException {
+        try (Reader reader = new InputStreamReader(
+                new ClassPathResource(SETTINGS).getInputStream(), StandardCharsets.UTF_8)) {
+            return Configuration.create(reader);
+        }
+    }
+}
@@ -0,0 +1,39 @@
+package com.example.JWT_Login_with_Spring_Boot.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+
+/**
+ * JFR event of one request going through JwtAuthenticationFilter (the filter's own time, not the rest of the chain)
+ * - The stage events of the same request (TokenVerification, UserLookup) are recorded on the same thread,
+ *   inside this event's time range
+ */
+@Name("com.example.auth.AuthenticationRequest")
+@Label("Authentication Request")
+@Category({"Authentication"})
+@Description("JWT authentication of one HTTP request")
+@StackTrace(false)
+public class AuthenticationRequestEvent extends jdk.jfr.Event {
+
+    @Label("Method")
+    public String method;
+
+    @Label("Path")
+    public String path;
+
+    @Label("Outcome")
+    @Description("authenticated, anonymous, rejected or failed")
+    public String outcome;
+
+    @Label("Token Cached")
+    @Description("The token was found in the verified-token cache (no signature check)")
+    public boolean tokenCached;
+
+    @Label("Stateless")
+    @Description("The user was built from the token claims instead of being looked up")
+    public boolean stateless;
+}
@@ -0,0 +1,27 @@
+package com.example.JWT_Login_with_Spring_Boot.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+
+/**
+ * JFR event of an email written to the outbox (EmailService), the SMTP send happens later in the background
+ * - The recipient is not recorded (recordings are shared with whoever investigates the incident)
+ */
+@Name("com.example.auth.EmailEnqueue")
+@Label("Email Enqueue")
+@Category({"Authentication", "Email"})
+@Description("Email written to the outbox")
+@StackTrace(false)
+public class EmailEnqueueEvent extends jdk.jfr.Event {
+
+    @Label("Subject")
+    public String subject;
+
+    @Label("Outcome")
+    @Description("stored or failed")
+    public String outcome;
+}
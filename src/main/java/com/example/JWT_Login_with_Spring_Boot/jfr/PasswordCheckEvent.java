@@ -0,0 +1,28 @@
+package com.example.JWT_Login_with_Spring_Boot.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+
+/**
+ * JFR event of a login password check (AuthenticationService.authenticate)
+ * - Includes the wait for a slot in the password hashing pool
+ */
+@Name("com.example.auth.PasswordCheck")
+@Label("Password Check")
+@Category({"Authentication"})
+@Description("Password hash comparison during login")
+@StackTrace(false)
+public class PasswordCheckEvent extends jdk.jfr.Event {
+
+    @Label("Outcome")
+    @Description("matched, mismatched or overloaded (hashing pool full)")
+    public String outcome;
+
+    @Label("Rehashed")
+    @Description("The stored hash was upgraded to the current encoder after the check")
+    public boolean rehashed;
+}
@@ -0,0 +1,23 @@
+package com.example.JWT_Login_with_Spring_Boot.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+
+/**
+ * JFR event of a JWT parse & signature check (JwtService.verifyToken), only on a verified-token cache miss
+ */
+@Name("com.example.auth.TokenVerification")
+@Label("Token Verification")
+@Category({"Authentication"})
+@Description("JWT parsing & signature verification")
+@StackTrace(false)
+public class TokenVerificationEvent extends jdk.jfr.Event {
+
+    @Label("Outcome")
+    @Description("valid, expired, bad_signature, malformed or invalid")
+    public String outcome;
+}
@@ -0,0 +1,26 @@
+package com.example.JWT_Login_with_Spring_Boot.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+
+/**
+ * JFR event of a user lookup by email (CachedUserDetailsService), from the cache or from the database
+ */
+@Name("com.example.auth.UserLookup")
+@Label("User Lookup")
+@Category({"Authentication"})
+@Description("User lookup by email (UserDetailsService)")
+@StackTrace(false)
+public class UserLookupEvent extends jdk.jfr.Event {
+
+    @Label("Cache Hit")
+    @Description("Served from the user cache (or by waiting for another thread's query)")
+    public boolean cacheHit;
+
+    @Label("Found")
+    public boolean found;
+}
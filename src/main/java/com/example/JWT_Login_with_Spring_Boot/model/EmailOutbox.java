@@ -0,0 +1,82 @@
+package com.example.JWT_Login_with_Spring_Boot.model;
+
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.EnumType;
+import jakarta.persistence.Enumerated;
+import jakarta.persistence.GeneratedValue;
+import jakarta.persistence.GenerationType;
+import jakarta.persistence.Id;
+import jakarta.persistence.Table;
+import lombok.Getter;
+import lombok.Setter;
+
+
+/**
+ * An email waiting to be sent (transactional outbox).
+ *
+ * - Written in the same database transaction as the change that needs the email (e.g. the new user),
+ *   so either both are saved or none
+ * - EmailOutboxRelay reads pending rows and sends them, recording every attempt
+ */
+@Entity
+@Table(name = "email_outbox")
+@Getter
+@Setter
+public class EmailOutbox {
+
+    public enum Status {
+        PENDING,    // Waiting to be sent (or waiting for the next retry)
+        PROCESSING, // Claimed by a relay, being sent (until "lockedUntil")
+        SENT,       // Sent successfully
+        DEAD        // Failed too many times, will not be retried (dead letter)
+    }
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.AUTO)
+    private Long id;
+    @Column(nullable = false)
+    private String recipient;
+    @Column(nullable = false)
+    private String subject;
+    @Column(nullable = false, columnDefinition = "text")
+    private String body; // HTML body
+    @Column(name = "text_body", columnDefinition = "text")
+    private String textBody; // Plain-text alternative (optional)
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false, length = 16)
+    private Status status;
+    @Column(nullable = false)
+    private int attempts;
+    @Column(name = "next_attempt_at", nullable = false)
+    private LocalDateTime nextAttemptAt;
+    @Column(name = "locked_until")
+    private LocalDateTime lockedUntil;
+    @Column(name = "claim_token")
+    private UUID claimToken; // New value on every claim, identifies the relay allowed to record the result
+    @Column(name = "last_error", length = 1000)
+    private String lastError;
+    @Column(name = "created_at", nullable = false)
+    private LocalDateTime createdAt;
+    @Column(name = "sent_at")
+    private LocalDateTime sentAt;
+
+
+    // Default constructor
+    public EmailOutbox() {
+    }
+
+    // Constructor for a new pending email, ready to be sent right away
+    public EmailOutbox(String recipient, String subject, String body, String textBody) {
+        this.recipient = recipient;
+        this.subject = subject;
+        this.body = body;
+        this.textBody = textBody;
+        this.status = Status.PENDING;
+        this.createdAt = LocalDateTime.now();
+        this.nextAttemptAt = this.createdAt;
+    }
+}
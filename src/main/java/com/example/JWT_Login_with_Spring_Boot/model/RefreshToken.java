@@ -0,0 +1,65 @@
+package com.example.JWT_Login_with_Spring_Boot.model;
+
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.GeneratedValue;
+import jakarta.persistence.GenerationType;
+import jakarta.persistence.Id;
+import jakarta.persistence.Table;
+import lombok.Getter;
+import lombok.Setter;
+
+
+/**
+ * A refresh token, stored as the SHA-256 hash of the opaque token given to the client (never the token itself).
+ *
+ * - Every refresh "uses" the token and issues a new one in the same family (rotation)
+ * - A used (or revoked) token that is presented again is a reuse: the whole family is revoked
+ * - Rows are kept until they expire (reuse detection needs the used ones), then purged in batches
+ */
+@Entity
+@Table(name = "refresh_tokens")
+@Getter
+@Setter
+public class RefreshToken {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.AUTO)
+    private Long id;
+    @Column(name = "token_hash", nullable = false, unique = true, length = 64)
+    private String tokenHash;
+    @Column(name = "family_id", nullable = false)
+    private UUID familyId;
+    @Column(name = "user_id", nullable = false)
+    private Long userId;
+    @Column(name = "created_at", nullable = false)
+    private LocalDateTime createdAt;
+    @Column(name = "expires_at", nullable = false)
+    private LocalDateTime expiresAt;
+    @Column(name = "used_at")
+    private LocalDateTime usedAt;
+    @Column(name = "revoked_at")
+    private LocalDateTime revokedAt;
+
+
+    // Default constructor
+    public RefreshToken() {
+    }
+
+    // Constructor for a new (unused) token of the given family
+    public RefreshToken(String tokenHash, UUID familyId, Long userId, LocalDateTime createdAt, LocalDateTime expiresAt) {
+        this.tokenHash = tokenHash;
+        this.familyId = familyId;
+        this.userId = userId;
+        this.createdAt = createdAt;
+        this.expiresAt = expiresAt;
+    }
+
+    // Used or revoked tokens must never be accepted again
+    public boolean isSpent() {
+        return usedAt != null || revokedAt != null;
+    }
+}
@@ -0,0 +1,10 @@
+package com.example.JWT_Login_with_Spring_Boot.model;
+
+
+/**
+ * Email content produced by EmailTemplateService
+ * - textBody: plain-text alternative (null if the template has no ".txt" body)
+ * - htmlBody: HTML alternative (null if the template has no ".html" body)
+ */
+public record RenderedEmail(String subject, String textBody, String htmlBody) {
+}
@@ -0,0 +1,43 @@
+package com.example.JWT_Login_with_Spring_Boot.model;
+
+import java.time.LocalDateTime;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.Id;
+import jakarta.persistence.Table;
+import lombok.Getter;
+import lombok.Setter;
+
+
+/**
+ * An access token revoked before its expiration (e.g. logout), identified by its "jti" claim.
+ *
+ * - Persisted so the in-memory TokenDenylist can be rebuilt at startup and shared between nodes
+ * - Only useful until "expiresAt" (after that the token is rejected anyway), then purged
+ */
+@Entity
+@Table(name = "revoked_tokens")
+@Getter
+@Setter
+public class RevokedToken {
+
+    @Id
+    @Column(length = 64)
+    private String jti;
+    @Column(name = "expires_at", nullable = false)
+    private LocalDateTime expiresAt;
+    @Column(name = "revoked_at", nullable = false)
+    private LocalDateTime revokedAt;
+
+
+    // Default constructor
+    public RevokedToken() {
+    }
+
+    public RevokedToken(String jti, LocalDateTime expiresAt, LocalDateTime revokedAt) {
+        this.jti = jti;
+        this.expiresAt = expiresAt;
+        this.revokedAt = revokedAt;
+    }
+}
@@ -0,0 +1,45 @@
+package com.example.JWT_Login_with_Spring_Boot.model;
+
+import java.util.Collection;
+
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.security.core.userdetails.UserDetails;
+
+import com.fasterxml.jackson.annotation.JsonIgnore;
+
+
+/**
+ * Lightweight authenticated user built directly from the claims of a verified JWT token.
+ *
+ * - Used in stateless mode (security.jwt.stateless=true), where JwtAuthenticationFilter
+ *   does not load the user from the database
+ * - Holds only what the token carries (no password, no verification code)
+ */
+public record TokenPrincipal(
+        Long id,
+        String email,
+        String username,
+        boolean enabled,
+        Collection<? extends GrantedAuthority> authorities) implements UserDetails {
+
+    @Override
+    public Collection<? extends GrantedAuthority> getAuthorities() {
+        return authorities;
+    }
+
+    @Override
+    @JsonIgnore // There is no password inside a token
+    public String getPassword() {
+        return null;
+    }
+
+    @Override
+    public String getUsername() {
+        return username;
+    }
+
+    @Override
+    public boolean isEnabled() {
+        return enabled;
+    }
+}
@@ -44,6 +44,12 @@ public class User implements UserDetails{
 
     private boolean enabled;
 
+    // Version of the user's tokens ("epoch" claim): bumped to invalidate every token issued before
+    @Column(name = "token_epoch", nullable = false)
+    private int tokenEpoch;
+    @Column(name = "token_epoch_changed_at")
+    private LocalDateTime tokenEpochChangedAt;
+
     
     // Default constructor
     public User() {
@@ -0,0 +1,30 @@
+package com.example.JWT_Login_with_Spring_Boot.model;
+
+import java.util.Date;
+
+import io.jsonwebtoken.Claims;
+
+
+/**
+ * Immutable result of parsing and verifying a JWT token exactly once.
+ *
+ * - Created by JwtService.verifyToken() after the signature and expiration were checked
+ * - Holds everything the request pipeline needs, so the token never has to be parsed again
+ * - "record": Java class whose fields are final and set once through the constructor
+ */
+public record VerifiedToken(
+        String subject,   // Username / email the token was issued for
+        Date expiration,  // When the token stops being valid ("exp" claim)
+        Date issuedAt,    // When the token was issued ("iat" claim)
+        Claims claims) {  // All claims inside the token (jjwt returns an immutable Claims object)
+
+    // Unique id of the token ("jti" claim), used to revoke it, null for tokens issued without one
+    public String tokenId() {
+        return claims.getId();
+    }
+
+    // Check if the token is expired at the given time (in milliseconds)
+    public boolean isExpired(long nowMillis) {
+        return expiration != null && expiration.getTime() <= nowMillis;
+    }
+}
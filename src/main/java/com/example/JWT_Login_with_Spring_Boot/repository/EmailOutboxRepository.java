@@ -0,0 +1,63 @@
+package com.example.JWT_Login_with_Spring_Boot.repository;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.CrudRepository;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import com.example.JWT_Login_with_Spring_Boot.model.EmailOutbox;
+
+
+/**
+ * Repository interface for the email outbox (emails waiting to be sent)
+ */
+@Repository
+public interface EmailOutboxRepository extends CrudRepository<EmailOutbox, Long> {
+
+    /**
+     * Lock a batch of emails that are ready to be sent (must run inside a transaction)
+     * - Pending emails whose next attempt is due, and emails whose relay lease ran out (e.g. the node crashed)
+     *   with attempts left (the others are dead-lettered, see lockAbandonedBatch())
+     * - "FOR UPDATE SKIP LOCKED": rows already locked by another node are skipped instead of waited for,
+     *   so several application nodes can drain the outbox at the same time without sending an email twice
+     */
+    @Query(value = """
+            SELECT * FROM email_outbox
+            WHERE (status = 'PENDING' AND next_attempt_at <= :now)
+               OR (status = 'PROCESSING' AND locked_until < :now AND attempts < :maxAttempts)
+            ORDER BY id
+            LIMIT :batchSize
+            FOR UPDATE SKIP LOCKED
+            """, nativeQuery = true)
+    List<EmailOutbox> lockReadyBatch(
+            @Param("now") LocalDateTime now, @Param("maxAttempts") int maxAttempts, @Param("batchSize") int batchSize);
+
+    /**
+     * Lock a batch of emails whose lease ran out on their last attempt (must run inside a transaction)
+     * - e.g. an email whose send keeps crashing the node: it must be dead-lettered, not claimed forever
+     */
+    @Query(value = """
+            SELECT * FROM email_outbox
+            WHERE status = 'PROCESSING' AND locked_until < :now AND attempts >= :maxAttempts
+            ORDER BY id
+            LIMIT :batchSize
+            FOR UPDATE SKIP LOCKED
+            """, nativeQuery = true)
+    List<EmailOutbox> lockAbandonedBatch(
+            @Param("now") LocalDateTime now, @Param("maxAttempts") int maxAttempts, @Param("batchSize") int batchSize);
+
+    // Delete (in batches) emails that were sent before the given time
+    @Modifying
+    @Query(value = """
+            DELETE FROM email_outbox
+            WHERE id IN (
+                SELECT id FROM email_outbox
+                WHERE status = 'SENT' AND sent_at < :sentBefore
+                LIMIT :batchSize)
+            """, nativeQuery = true)
+    int deleteSentBefore(@Param("sentBefore") LocalDateTime sentBefore, @Param("batchSize") int batchSize);
+}
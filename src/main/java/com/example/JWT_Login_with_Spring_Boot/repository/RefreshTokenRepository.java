@@ -0,0 +1,54 @@
+package com.example.JWT_Login_with_Spring_Boot.repository;
+
+import java.time.LocalDateTime;
+import java.util.Optional;
+import java.util.UUID;
+
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.CrudRepository;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import com.example.JWT_Login_with_Spring_Boot.model.RefreshToken;
+
+import jakarta.persistence.LockModeType;
+
+
+/**
+ * Repository interface for refresh tokens (looked up by the hash of the token)
+ */
+@Repository
+public interface RefreshTokenRepository extends CrudRepository<RefreshToken, Long> {
+
+    /**
+     * Find and lock the token row (must run inside a transaction)
+     * - "FOR UPDATE": two concurrent refreshes with the same token are serialized, so the second one
+     *   sees the token as used (reuse) instead of both rotating it
+     */
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("select r from RefreshToken r where r.tokenHash = :tokenHash")
+    Optional<RefreshToken> findByTokenHashForUpdate(@Param("tokenHash") String tokenHash);
+
+    // Revoke every token of a family (reuse detected), returns the number of revoked tokens
+    @Modifying
+    @Query("update RefreshToken r set r.revokedAt = :now where r.familyId = :familyId and r.revokedAt is null")
+    int revokeFamily(@Param("familyId") UUID familyId, @Param("now") LocalDateTime now);
+
+    // Revoke every token of a user (password change), returns the number of revoked tokens
+    @Modifying
+    @Query("update RefreshToken r set r.revokedAt = :now where r.userId = :userId and r.revokedAt is null")
+    int revokeAllForUser(@Param("userId") Long userId, @Param("now") LocalDateTime now);
+
+    // Delete (in batches) tokens that expired before the given time
+    @Modifying
+    @Query(value = """
+            DELETE FROM refresh_tokens
+            WHERE id IN (
+                SELECT id FROM refresh_tokens
+                WHERE expires_at < :expiredBefore
+                LIMIT :batchSize)
+            """, nativeQuery = true)
+    int deleteExpiredBefore(@Param("expiredBefore") LocalDateTime expiredBefore, @Param("batchSize") int batchSize);
+}
@@ -0,0 +1,37 @@
+package com.example.JWT_Login_with_Spring_Boot.repository;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.CrudRepository;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import com.example.JWT_Login_with_Spring_Boot.model.RevokedToken;
+
+
+/**
+ * Repository interface for revoked access tokens (by "jti")
+ */
+@Repository
+public interface RevokedTokenRepository extends CrudRepository<RevokedToken, String> {
+
+    // Revocations that still matter (token not expired yet), loaded at startup
+    List<RevokedToken> findByExpiresAtAfter(LocalDateTime now);
+
+    // Revocations made since the last sync (possibly by another node), for tokens that are not expired yet
+    List<RevokedToken> findByRevokedAtAfterAndExpiresAtAfter(LocalDateTime revokedAfter, LocalDateTime now);
+
+    // Delete (in batches) revocations of tokens that expired before the given time
+    @Modifying
+    @Query(value = """
+            DELETE FROM revoked_tokens
+            WHERE jti IN (
+                SELECT jti FROM revoked_tokens
+                WHERE expires_at < :expiredBefore
+                LIMIT :batchSize)
+            """, nativeQuery = true)
+    int deleteExpiredBefore(@Param("expiredBefore") LocalDateTime expiredBefore, @Param("batchSize") int batchSize);
+}
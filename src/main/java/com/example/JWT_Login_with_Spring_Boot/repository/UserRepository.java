@@ -1,8 +1,14 @@
 package com.example.JWT_Login_with_Spring_Boot.repository;
 
+import java.time.LocalDateTime;
+import java.util.List;
 import java.util.Optional;
 
+import org.springframework.data.domain.Limit;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.CrudRepository;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import com.example.JWT_Login_with_Spring_Boot.model.User;
@@ -27,8 +33,55 @@ public interface UserRepository extends CrudRepository<User, Long> {
     /**
      * Optional<T>: is a safe way to handle potentially null results. If no user is found with the
      * given email(or anything else), it will return an empty Optional rather than null.
+     * - Emails are compared case-insensitively, using the lower(email) index
     */
-    Optional<User> findByEmail(String email);
+    @Query("select u from User u where lower(u.email) = lower(:email)")
+    Optional<User> findByEmail(@Param("email") String email);
     Optional<User> findByUsername(String username);
-    Optional<User> findByVerificationCode(String verificationCode);
+
+    // Only unverified accounts have a verification code (matches the partial index on unverified accounts)
+    @Query("select u from User u where u.verificationCode = :verificationCode and u.enabled = false")
+    Optional<User> findByVerificationCode(@Param("verificationCode") String verificationCode);
+
+    /**
+     * Keyset pagination: the next "limit" users after the given id, in id order
+     * - type: the result class, e.g. a record projection (only its fields are selected, no entity is loaded)
+     */
+    <T> List<T> findByIdGreaterThanOrderByIdAsc(Long id, Limit limit, Class<T> type);
+
+    /**
+     * Users (at most 2) that already use this email or this username, in one query
+     * - Returns a projection with only the email & username columns (no entity is loaded)
+     */
+    @Query("select u.email as email, u.username as username from User u"
+            + " where lower(u.email) = lower(:email) or u.username = :username")
+    List<UserIdentity> findIdentitiesByEmailOrUsername(@Param("email") String email, @Param("username") String username);
+
+    /**
+     * Replace the password hash only if it is still the given one (must run inside a transaction)
+     * - Only the password column is written: a password change or token epoch bump committed in the meantime
+     *   is kept (the hash differs, so nothing is updated). Returns the number of updated rows (0 or 1)
+     */
+    @Modifying
+    @Query("update User u set u.password = :newHash where u.id = :id and u.password = :oldHash")
+    int updatePasswordIfUnchanged(
+            @Param("id") Long id, @Param("oldHash") String oldHash, @Param("newHash") String newHash);
+
+    // Users whose token epoch changed after the given time (TokenEpochRegistry load & sync), without loading entities
+    @Query("select u.email as email, u.tokenEpoch as tokenEpoch, u.tokenEpochChangedAt as changedAt from User u"
+            + " where u.tokenEpochChangedAt > :changedAfter")
+    List<TokenEpochChange> findTokenEpochChangesAfter(@Param("changedAfter") LocalDateTime changedAfter);
+
+    // Read-only projection: the email & username of a user
+    interface UserIdentity {
+        String getEmail();
+        String getUsername();
+    }
+
+    // Read-only projection: the token epoch of a user & when it changed
+    interface TokenEpochChange {
+        String getEmail();
+        int getTokenEpoch();
+        LocalDateTime getChangedAt();
+    }
 }
@@ -1,17 +1,23 @@
 package com.example.JWT_Login_with_Spring_Boot.responses;
 
+import com.fasterxml.jackson.annotation.JsonInclude;
+
 import lombok.Getter;
 import lombok.Setter;
 
 /**
  * simple container to represent the data sent back (response) to a client after a successful login
+ * - refreshToken: used once at POST /authentication/refresh to get a new access token (and a new refresh token)
  */
 @Getter
 @Setter
+@JsonInclude(JsonInclude.Include.NON_NULL) // No refresh fields when no refresh token is issued
 public class LoginResponse {
     
     private String token;
     private Long expiresIn; // indicates the duration until the token expires, typically in seconds or milliseconds
+    private String refreshToken;
+    private Long refreshExpiresIn; // Refresh token lifetime (milliseconds, like expiresIn)
 
 
     public LoginResponse(String token, Long expiresIn) {
@@ -19,5 +25,11 @@ public class LoginResponse {
         this.expiresIn = expiresIn;
     }
 
+    public LoginResponse(String token, Long expiresIn, String refreshToken, Long refreshExpiresIn) {
+        this(token, expiresIn);
+        this.refreshToken = refreshToken;
+        this.refreshExpiresIn = refreshExpiresIn;
+    }
+
     
 }
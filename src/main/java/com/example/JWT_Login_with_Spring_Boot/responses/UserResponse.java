@@ -0,0 +1,23 @@
+package com.example.JWT_Login_with_Spring_Boot.responses;
+
+import com.example.JWT_Login_with_Spring_Boot.model.TokenPrincipal;
+import com.example.JWT_Login_with_Spring_Boot.model.User;
+
+
+/**
+ * Read-only view of a user, with only the fields the API exposes
+ * (no password hash, no verification code, no Spring Security flags)
+ *
+ * - Also used as a query projection: the database returns only these columns, and no entity is loaded
+ */
+public record UserResponse(Long id, String username, String email, boolean enabled) {
+
+    public static UserResponse of(User user) {
+        return new UserResponse(user.getId(), user.getUsername(), user.getEmail(), user.isEnabled());
+    }
+
+    public static UserResponse of(TokenPrincipal tokenPrincipal) {
+        return new UserResponse(
+                tokenPrincipal.id(), tokenPrincipal.username(), tokenPrincipal.email(), tokenPrincipal.enabled());
+    }
+}
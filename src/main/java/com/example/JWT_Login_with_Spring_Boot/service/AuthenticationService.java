@@ -1,114 +1,220 @@
 package com.example.JWT_Login_with_Spring_Boot.service;
 
 import java.time.LocalDateTime;
+import java.util.Map;
 import java.util.Optional;
 import java.util.Random;
 
-import org.springframework.security.authentication.AuthenticationManager;
-import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.context.i18n.LocaleContextHolder;
+import org.springframework.security.authentication.BadCredentialsException;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
 
+import com.example.JWT_Login_with_Spring_Boot.dto.ChangePasswordDto;
 import com.example.JWT_Login_with_Spring_Boot.dto.LoginUserDto;
 import com.example.JWT_Login_with_Spring_Boot.dto.RegisterUserDto;
 import com.example.JWT_Login_with_Spring_Boot.dto.VerifyUserDto;
+import com.example.JWT_Login_with_Spring_Boot.exception.ServiceOverloadedException;
+import com.example.JWT_Login_with_Spring_Boot.model.RenderedEmail;
+import com.example.JWT_Login_with_Spring_Boot.jfr.PasswordCheckEvent;
 import com.example.JWT_Login_with_Spring_Boot.model.User;
 import com.example.JWT_Login_with_Spring_Boot.repository.UserRepository;
+import com.example.JWT_Login_with_Spring_Boot.repository.UserRepository.UserIdentity;
 
-import jakarta.mail.MessagingException;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
 
 
 
 /**
  * Service class responsible for handling user authentication, registration, and verification processes
+ *
+ * - Passwords are hashed (and checked) before any transaction is opened: hashing can take seconds under load,
+ *   and a transaction would hold a pooled database connection all that time
  */
 @Service
 public class AuthenticationService {
 
     private final UserRepository userRepository; // For interacting with database
     private final PasswordEncoder passwordEncoder; // For securely hashing passwords\
-    private final AuthenticationManager authenticationManager; // For authenticating users with Spring Security
     private final EmailService emailService; // Custom service for sending emails
+    private final EmailTemplateService emailTemplateService; // Precompiled email templates
+    private final CachedUserDetailsService userDetailsService; // Cached user lookups, invalidated on every save
+    private final TokenRevocationService tokenRevocationService; // Invalidates every token of a user (token epoch)
+    private final TransactionTemplate transactionTemplate; // Short transactions, opened after the password hashing
+
+    // Login outcomes (auth.login) & verification outcomes (auth.verification)
+    private final Counter loginSucceeded;
+    private final Counter loginUserNotFound;
+    private final Counter loginNotVerified;
+    private final Counter loginBadCredentials;
+    private final Counter loginOverloaded;
+    private final Counter verificationSucceeded;
+    private final Counter verificationUserNotFound;
+    private final Counter verificationExpired;
+    private final Counter verificationInvalidCode;
     
     public AuthenticationService(
             UserRepository userRepository, 
             PasswordEncoder passwordEncoder,
-            AuthenticationManager authenticationManager, 
-            EmailService emailService) {
+            EmailService emailService,
+            EmailTemplateService emailTemplateService,
+            CachedUserDetailsService userDetailsService,
+            TokenRevocationService tokenRevocationService,
+            TransactionTemplate transactionTemplate,
+            MeterRegistry meterRegistry) {
         this.userRepository = userRepository;
         this.passwordEncoder = passwordEncoder;
-        this.authenticationManager = authenticationManager;
         this.emailService = emailService;
+        this.emailTemplateService = emailTemplateService;
+        this.userDetailsService = userDetailsService;
+        this.tokenRevocationService = tokenRevocationService;
+        this.transactionTemplate = transactionTemplate;
+
+        this.loginSucceeded = outcomeCounter(meterRegistry, "auth.login", "success");
+        this.loginUserNotFound = outcomeCounter(meterRegistry, "auth.login", "user_not_found");
+        this.loginNotVerified = outcomeCounter(meterRegistry, "auth.login", "not_verified");
+        this.loginBadCredentials = outcomeCounter(meterRegistry, "auth.login", "bad_credentials");
+        this.loginOverloaded = outcomeCounter(meterRegistry, "auth.login", "overloaded");
+        this.verificationSucceeded = outcomeCounter(meterRegistry, "auth.verification", "success");
+        this.verificationUserNotFound = outcomeCounter(meterRegistry, "auth.verification", "user_not_found");
+        this.verificationExpired = outcomeCounter(meterRegistry, "auth.verification", "expired");
+        this.verificationInvalidCode = outcomeCounter(meterRegistry, "auth.verification", "invalid_code");
     }
     
 
     /**
-     * Check for existence and Register a new user, generates a verification code, sends a verification email, 
-     * and save the user to the database
+     * Check for existence and Register a new user, generates a verification code, save the user to the database,
+     * and sends a verification email (written to the email outbox in the same transaction as the user)
+     * - The password is hashed first, outside the transaction; the transaction only checks for conflicts,
+     *   inserts the user and writes the outbox row
      */
     public User signup(RegisterUserDto registerUserDto){
 
-        Optional<User> existingByEmail = userRepository.findByEmail(registerUserDto.getEmail());
-        Optional<User> existingByUsername = userRepository.findByUsername(registerUserDto.getUsername());
-
-        // Check for the conflict, either the Email or Username is already exist (or both)
-        if (existingByEmail.isPresent() || existingByUsername.isPresent()) {
+        // Cheap check first, so a signup with a used email / username does not pay for the hashing
+        User existUser = findConflict(registerUserDto);
+        if (existUser != null) {
+            // return User type object with the exist user's details
+            return existUser;
+        }
 
-            User existUser = new User();
+        String passwordHash = passwordEncoder.encode(registerUserDto.getPassword());
 
-            // Check if the Email is exist, and set it if so
-            if (existingByEmail.isPresent()) {
-                existUser.setEmail(registerUserDto.getEmail());
+        return transactionTemplate.execute(status -> {
+            // Check again: another signup may have been saved while hashing (the unique constraints catch the rest)
+            User conflict = findConflict(registerUserDto);
+            if (conflict != null) {
+                return conflict;
             }
 
-            // Check if the Username is exist, and set it so
-            if (existingByUsername.isPresent()) {
-                existUser.setUsername(registerUserDto.getUsername());
-            }
+            // If no conflict, create and save a new user
+            User user = new User(registerUserDto.getUsername(), registerUserDto.getEmail(), passwordHash);
+            user.setVerificationCode(generateVerificationCode());
 
-            // return User type object with the exist user's details
-            return existUser;
+            // Set the verification code to expire in 15 minutes
+            user.setVerificationCodeExpireAt(LocalDateTime.now().plusMinutes(15));
+            user.setEnabled(false); // Disable the account until verification is done
+
+            User savedUser = saveUser(user);
+            sendVerificationEmail(savedUser);
+
+            return savedUser;
+        });
+    }
+
+
+    /**
+     * Check (with a single query, without loading whole users) if the email and/or the username are already used
+     * - Returns a User with only the conflicting fields set (email and/or username), or null if there is no conflict
+     * - Also used after a failed insert (unique constraint violation), when another signup won the race
+     */
+    @Transactional(readOnly = true)
+    public User findConflict(RegisterUserDto registerUserDto){
+        boolean emailUsed = false;
+        boolean usernameUsed = false;
+
+        for (UserIdentity identity : userRepository.findIdentitiesByEmailOrUsername(
+                registerUserDto.getEmail(), registerUserDto.getUsername())) {
+            emailUsed |= identity.getEmail().equalsIgnoreCase(registerUserDto.getEmail());
+            usernameUsed |= identity.getUsername().equals(registerUserDto.getUsername());
         }
 
-        // If no conflict, create and save a new user
-        User user = new User(
-                registerUserDto.getUsername(),
-                registerUserDto.getEmail(), 
-                passwordEncoder.encode(registerUserDto.getPassword()));
+        if (!emailUsed && !usernameUsed) {
+            return null;
+        }
 
-         
-        user.setVerificationCode(generateVerificationCode());
+        User existUser = new User();
 
-        // Set the verification code to expire in 15 minutes
-        user.setVerificationCodeExpireAt(LocalDateTime.now().plusMinutes(15));
-        user.setEnabled(false); // Disable the account until verification is done
-        sendVerificationEmail(user);
+        // Check if the Email is exist, and set it if so
+        if (emailUsed) {
+            existUser.setEmail(registerUserDto.getEmail());
+        }
 
-        return userRepository.save(user);
+        // Check if the Username is exist, and set it so
+        if (usernameUsed) {
+            existUser.setUsername(registerUserDto.getUsername());
+        }
+        return existUser;
     }
 
 
-    // Authenticate users by checking the credentials and account status
+    /**
+     * Authenticate users by checking the credentials and account status
+     * - The user is loaded once, and the same instance is used for the enabled check, the password check,
+     *   and (by the caller) the token generation
+     * - This is the only place where passwords are checked (there is no AuthenticationManager)
+     */
     public User authenticate(LoginUserDto loginUserDto){
 
         // retrieve the user from db if exist (search using userRepository), or else throw an exception
-        User user = userRepository.findByEmail(loginUserDto.getEmail())
-                .orElseThrow(() -> new RuntimeException("User not found"));
+        User user = userRepository.findByEmail(loginUserDto.getEmail()).orElse(null);
+        if (user == null) {
+            loginUserNotFound.increment();
+            throw new RuntimeException("User not found");
+        }
 
         // Check if the user is enabled or not
         if (!user.isEnabled()) {
+            loginNotVerified.increment();
             throw new RuntimeException("Account is not verified, please verify your account");
         }
 
-        // Check the user's credentials (authenticate) using authenticationManager
-        authenticationManager.authenticate(
-                new UsernamePasswordAuthenticationToken(loginUserDto.getEmail(), loginUserDto.getPassword()));
+        // Check the user's credentials against the stored hash (BadCredentialsException, as Spring Security does)
+        // (recorded as a PasswordCheck JFR event, including the hash upgrade)
+        PasswordCheckEvent event = new PasswordCheckEvent();
+        event.begin();
+        try {
+            boolean passwordMatches;
+            try {
+                passwordMatches = passwordEncoder.matches(loginUserDto.getPassword(), user.getPassword());
+            } catch (ServiceOverloadedException serviceOverloadedException) {
+                loginOverloaded.increment();
+                event.outcome = "overloaded";
+                throw serviceOverloadedException;
+            }
+            if (!passwordMatches) {
+                loginBadCredentials.increment();
+                event.outcome = "mismatched";
+                throw new BadCredentialsException("Bad credentials");
+            }
+
+            event.outcome = "matched";
+            event.rehashed = rehashPasswordIfNeeded(user, loginUserDto.getPassword());
+        } finally {
+            event.commit(); // No-op unless a recording has the event enabled
+        }
 
+        loginSucceeded.increment();
         return user;
     }
 
 
     // Verify user's account using verification code
+    @Transactional
     public void verifyUser(VerifyUserDto verifyUserDto){
         // User Optional<T> to retrieve the user if exist, and return empty if not
         Optional<User> optionalUser = userRepository.findByEmail(verifyUserDto.getEmail());
@@ -119,6 +225,7 @@ public class AuthenticationService {
 
             // Check if verification code is expired or not
             if (user.getVerificationCodeExpireAt().isBefore(LocalDateTime.now())) {
+                verificationExpired.increment();
                 throw new RuntimeException("Verification code is expired!");
             }
 
@@ -127,18 +234,22 @@ public class AuthenticationService {
                 user.setEnabled(true);
                 user.setVerificationCode(null);
                 user.setVerificationCodeExpireAt(null);
-                userRepository.save(user);
+                saveUser(user);
+                verificationSucceeded.increment();
             } else {
+                verificationInvalidCode.increment();
                 throw new RuntimeException("Invalid verification Code");
             }
             
         } else {
+            verificationUserNotFound.increment();
             throw new RuntimeException("User not found");
         }
     }
 
 
     // Resend a new verification code if the account is not verified yet
+    @Transactional
     public void resendVerificationCode(String email){
 
         Optional<User> optionalUser = userRepository.findByEmail(email);
@@ -156,6 +267,7 @@ public class AuthenticationService {
             
             // Set the new verification code expiration time after 1 hour
             user.setVerificationCodeExpireAt(LocalDateTime.now().plusHours(1));
+            saveUser(user); // Persist the new code, otherwise verifyUser() would still compare against the old one
 
             sendVerificationEmail(user);
         } else {
@@ -164,31 +276,99 @@ public class AuthenticationService {
     }
 
 
-    // Send a verification email to the user with the verification code
-    private void sendVerificationEmail(User user){
+    /**
+     * Change the password of a user, after checking the current one
+     * - Every token issued so far (access & refresh) is invalidated, the user has to log in again on every device
+     * - The current password is checked and the new one hashed before the transaction opens
+     */
+    public void changePassword(String email, ChangePasswordDto changePasswordDto){
+        User user = userRepository.findByEmail(email).orElseThrow(() -> new RuntimeException("User not found"));
+
+        if (changePasswordDto.getNewPassword() == null || changePasswordDto.getNewPassword().isBlank()) {
+            throw new RuntimeException("New password is required");
+        }
+        if (changePasswordDto.getCurrentPassword() == null
+                || !passwordEncoder.matches(changePasswordDto.getCurrentPassword(), user.getPassword())) {
+            throw new BadCredentialsException("Bad credentials");
+        }
+        String passwordHash = passwordEncoder.encode(changePasswordDto.getNewPassword());
+
+        transactionTemplate.executeWithoutResult(status -> {
+            // Fresh copy inside the transaction (the one above was read without it)
+            User current = userRepository.findByEmail(email).orElseThrow(() -> new RuntimeException("User not found"));
+            current.setPassword(passwordHash);
+            tokenRevocationService.revokeAll(current); // Bumps the token epoch, saved with the new password
+            saveUser(current);
+        });
+    }
 
-        String subject = "Account verification";
-        String verificationCode = "Verification code " + user.getVerificationCode();
-        String htmlMessage = "<html>"
-                + "<body style=\"font-family: Arial, sans-serif;\">"
-                + "<div style=\"background-color: #f5f5f5; padding: 20px;\">"
-                + "<h2 style=\"color: #333;\">Welcome to our app!</h2>"
-                + "<p style=\"font-size: 16px;\">Please enter the verification code below to continue:</p>"
-                + "<div style=\"background-color: #fff; padding: 20px; border-radius: 5px; box-shadow: 0 0 10px rgba(0,0,0,0.1);\">"
-                + "<h3 style=\"color: #333;\">Verification Code:</h3>"
-                + "<p style=\"font-size: 18px; font-weight: bold; color: #007bff;\">" + verificationCode + "</p>"
-                + "</div>"
-                + "</div>"
-                + "</body>"
-                + "</html>";
 
+    /**
+     * Re-create the stored hash with the current algorithm / cost if it was made with other settings
+     * (only possible here, right after a successful login, because the raw password is needed)
+     * - Only the password column is updated, and only if it still holds the hash that was checked: the user
+     *   was loaded outside any transaction, so saving the whole entity could undo a password change
+     *   (and its token epoch bump) committed since
+     */
+    private boolean rehashPasswordIfNeeded(User user, String rawPassword){
+        String oldHash = user.getPassword();
+        if (!passwordEncoder.upgradeEncoding(oldHash)) {
+            return false;
+        }
+        String newHash;
         try {
-            emailService.sendVerificationEmail(user.getEmail(), subject, htmlMessage);
-        } catch (MessagingException messagingException) {
-            // This outputs the exception type, message, and stack trace to help diagnose why the email failed to send
-            // TODO: Replace with proper loggig (e.g., SLF4J) in production environments
-            messagingException.printStackTrace();
+            newHash = passwordEncoder.encode(rawPassword);
+        } catch (ServiceOverloadedException serviceOverloadedException) {
+            // Server is busy: keep the old hash, it will be upgraded on a later login
+            return false;
         }
+
+        Integer updated = transactionTemplate.execute(
+                status -> userRepository.updatePasswordIfUnchanged(user.getId(), oldHash, newHash));
+        if (updated == null || updated == 0) {
+            return false; // Password changed in the meantime, the new one stays
+        }
+        user.setPassword(newHash);
+        userDetailsService.invalidate(user.getEmail());
+        return true;
+    }
+
+
+    // Save the user and drop its cached lookup, so the change is visible to the next request immediately
+    private User saveUser(User user){
+        User savedUser = userRepository.save(user);
+        String email = savedUser.getEmail();
+        userDetailsService.invalidate(email);
+
+        // Drop it again once committed, in case another request cached the old row in the meantime
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    userDetailsService.invalidate(email);
+                }
+            });
+        }
+        return savedUser;
+    }
+
+
+    // Send a verification email to the user with the verification code
+    private void sendVerificationEmail(User user){
+
+        // Precompiled template (mail-templates/verification), in the language of the current request (Accept-Language)
+        RenderedEmail email = emailTemplateService.render(
+                "verification",
+                LocaleContextHolder.getLocale(),
+                Map.of("verificationCode", user.getVerificationCode()));
+
+        // Stored in the email outbox (same transaction as the user), and sent in the background
+        emailService.sendVerificationEmail(user.getEmail(), email);
+    }
+
+
+    private static Counter outcomeCounter(MeterRegistry meterRegistry, String name, String outcome){
+        return Counter.builder(name).tag("outcome", outcome).register(meterRegistry);
     }
 
 
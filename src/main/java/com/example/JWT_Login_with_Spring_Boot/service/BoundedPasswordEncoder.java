@@ -0,0 +1,77 @@
+package com.example.JWT_Login_with_Spring_Boot.service;
+
+import java.util.concurrent.TimeUnit;
+
+import org.springframework.security.crypto.password.PasswordEncoder;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+
+
+/**
+ * PasswordEncoder that runs the (expensive) encode & matches calls of another encoder
+ * on the PasswordHashingExecutor instead of the calling request thread.
+ *
+ * - Timed as seen by the caller, waiting in the executor queue included:
+ *   auth.password.match (outcome: matched, mismatched, rejected) and auth.password.encode
+ *
+ * Created as the "passwordEncoder" bean in ApplicationConfiguration, used by AuthenticationService
+ * (signup, login, password change).
+ */
+public class BoundedPasswordEncoder implements PasswordEncoder {
+
+    private final PasswordEncoder delegate;
+    private final PasswordHashingExecutor passwordHashingExecutor;
+
+    private final Timer matchedTimer;
+    private final Timer mismatchedTimer;
+    private final Timer rejectedTimer; // Executor busy (ServiceOverloadedException)
+    private final Timer encodeTimer;
+
+    public BoundedPasswordEncoder(
+            PasswordEncoder delegate, PasswordHashingExecutor passwordHashingExecutor, MeterRegistry meterRegistry) {
+        this.delegate = delegate;
+        this.passwordHashingExecutor = passwordHashingExecutor;
+        this.matchedTimer = matchTimer(meterRegistry, "matched");
+        this.mismatchedTimer = matchTimer(meterRegistry, "mismatched");
+        this.rejectedTimer = matchTimer(meterRegistry, "rejected");
+        this.encodeTimer = Timer.builder("auth.password.encode")
+                .description("Password hashing (signup, re-hash on login)")
+                .register(meterRegistry);
+    }
+
+    @Override
+    public String encode(CharSequence rawPassword) {
+        long start = System.nanoTime();
+        try {
+            return passwordHashingExecutor.execute(() -> delegate.encode(rawPassword));
+        } finally {
+            encodeTimer.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+        }
+    }
+
+    @Override
+    public boolean matches(CharSequence rawPassword, String encodedPassword) {
+        long start = System.nanoTime();
+        Timer outcome = rejectedTimer; // Unless the check completes (ServiceOverloadedException)
+        try {
+            boolean matches = passwordHashingExecutor.execute(() -> delegate.matches(rawPassword, encodedPassword));
+            outcome = matches ? matchedTimer : mismatchedTimer;
+            return matches;
+        } finally {
+            outcome.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+        }
+    }
+
+    @Override // Cheap check (reads the hash parameters only), no need for the executor
+    public boolean upgradeEncoding(String encodedPassword) {
+        return delegate.upgradeEncoding(encodedPassword);
+    }
+
+    private static Timer matchTimer(MeterRegistry meterRegistry, String outcome) {
+        return Timer.builder("auth.password.match")
+                .description("Password check against the stored hash")
+                .tag("outcome", outcome)
+                .register(meterRegistry);
+    }
+}
@@ -0,0 +1,213 @@
+package com.example.JWT_Login_with_Spring_Boot.service;
+
+import java.time.Duration;
+import java.util.Locale;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.TimeUnit;
+
+import org.springframework.security.core.userdetails.UserDetailsService;
+import org.springframework.security.core.userdetails.UsernameNotFoundException;
+
+import com.example.JWT_Login_with_Spring_Boot.jfr.UserLookupEvent;
+import com.example.JWT_Login_with_Spring_Boot.model.User;
+import com.example.JWT_Login_with_Spring_Boot.repository.UserRepository;
+import com.github.benmanes.caffeine.cache.AsyncCache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
+import com.github.benmanes.caffeine.cache.Ticker;
+import com.github.benmanes.caffeine.cache.stats.CacheStats;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+
+
+/**
+ * UserDetailsService that caches the user lookup by email, so an authenticated request
+ * does not need a SELECT on the users table every time.
+ *
+ * - Found users are kept for "ttl", unknown emails (negative results) for the shorter "negativeTtl"
+ * - The cache holds an immutable snapshot of the user (CachedUser), never the JPA entity: every lookup
+ *   returns a new, detached User built from it, so a caller changing its User cannot affect other requests
+ * - The cache is bounded to "maximumSize" entries
+ * - Every code path that saves a user must call invalidate(email), so changes (e.g. enabling
+ *   an account) take effect immediately
+ * - The database is queried by the calling thread outside of any cache lock (the cache only holds a
+ *   future while loading), so virtual threads do not pin their carrier thread during the query, and
+ *   concurrent lookups of the same email wait for that single query
+ * - Lookups are timed (auth.user.lookup), tagged with the cache result (hit / miss),
+ *   and recorded as UserLookup JFR events
+ *
+ * Created as the "userDetailsService" bean in ApplicationConfiguration.
+ */
+public class CachedUserDetailsService implements UserDetailsService {
+
+    private final UserRepository userRepository;
+    private final AsyncCache<String, Optional<CachedUser>> cache;
+    private final Timer hitTimer;
+    private final Timer missTimer;
+
+    public CachedUserDetailsService(
+            UserRepository userRepository,
+            Duration ttl,
+            Duration negativeTtl,
+            long maximumSize,
+            MeterRegistry meterRegistry) {
+        this(userRepository, ttl, negativeTtl, maximumSize, meterRegistry, Ticker.systemTicker());
+    }
+
+    // Ticker: time source of the expirations (tests use a fake one)
+    CachedUserDetailsService(
+            UserRepository userRepository,
+            Duration ttl,
+            Duration negativeTtl,
+            long maximumSize,
+            MeterRegistry meterRegistry,
+            Ticker ticker) {
+        this.userRepository = userRepository;
+        this.hitTimer = lookupTimer(meterRegistry, "hit");
+        this.missTimer = lookupTimer(meterRegistry, "miss");
+        this.cache = Caffeine.newBuilder()
+                .maximumSize(maximumSize)
+                .expireAfter(new LookupExpiry(ttl.toNanos(), negativeTtl.toNanos()))
+                .ticker(ticker)
+                .recordStats()
+                .buildAsync();
+    }
+
+
+    // Fetches user by email for authentication (from the cache, or from the database on a cache miss)
+    @Override
+    public User loadUserByUsername(String email) throws UsernameNotFoundException {
+        UserLookupEvent event = new UserLookupEvent();
+        event.begin();
+        long start = System.nanoTime();
+        String key = cacheKey(email);
+        CompletableFuture<Optional<CachedUser>> lookup = new CompletableFuture<>();
+        CompletableFuture<Optional<CachedUser>> cached = cache.get(key, (missingKey, executor) -> lookup);
+
+        if (cached == lookup) {
+            // Cache miss: this thread runs the query, other threads asking for the same email wait for it
+            try {
+                lookup.complete(userRepository.findByEmail(key).map(CachedUser::of));
+            } catch (RuntimeException exception) {
+                lookup.completeExceptionally(exception); // Failed lookups are removed from the cache
+                throw exception;
+            }
+        }
+
+        Optional<CachedUser> user = Optional.empty();
+        try {
+            user = join(cached);
+            return user.map(CachedUser::toUser).orElseThrow(() -> new UsernameNotFoundException("User not found"));
+        } finally {
+            (cached == lookup ? missTimer : hitTimer).record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+            event.end();
+            if (event.shouldCommit()) {
+                event.cacheHit = cached != lookup;
+                event.found = user.isPresent();
+                event.commit();
+            }
+        }
+    }
+
+    // Remove the cached lookup for this email (must be called after the user is saved)
+    public void invalidate(String email) {
+        if (email != null) {
+            cache.synchronous().invalidate(cacheKey(email));
+        }
+    }
+
+    public void invalidateAll() {
+        cache.synchronous().invalidateAll();
+    }
+
+    // Hit, miss, and eviction counters of the cache
+    public CacheStats stats() {
+        return cache.synchronous().stats();
+    }
+
+
+
+    private static Timer lookupTimer(MeterRegistry meterRegistry, String cacheResult) {
+        return Timer.builder("auth.user.lookup")
+                .description("User lookup by email (UserDetailsService)")
+                .tag("cache", cacheResult)
+                .register(meterRegistry);
+    }
+
+    // Emails are looked up case-insensitively, so they are cached case-insensitively too
+    private static String cacheKey(String email) {
+        return email.toLowerCase(Locale.ROOT);
+    }
+
+    // Wait for a lookup started by another thread (parks the thread, no monitor is held)
+    private static Optional<CachedUser> join(CompletableFuture<Optional<CachedUser>> lookup) {
+        try {
+            return lookup.join();
+        } catch (CompletionException completionException) {
+            if (completionException.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            throw completionException;
+        }
+    }
+
+
+    /**
+     * What is cached for a user: the fields needed to authenticate a request and to describe the user
+     * (User has no stored authorities, getAuthorities() is always empty)
+     */
+    private record CachedUser(
+            Long id,
+            String username,
+            String email,
+            String password,
+            boolean enabled,
+            int tokenEpoch) {
+
+        private static CachedUser of(User user) {
+            return new CachedUser(
+                    user.getId(), user.getUsername(), user.getEmail(), user.getPassword(),
+                    user.isEnabled(), user.getTokenEpoch());
+        }
+
+        // A new detached User for each lookup
+        private User toUser() {
+            User user = new User(username, email, password);
+            user.setId(id);
+            user.setEnabled(enabled);
+            user.setTokenEpoch(tokenEpoch);
+            return user;
+        }
+    }
+
+
+    // Found users live for "ttl", missing users (Optional.empty()) for "negativeTtl"
+    private static final class LookupExpiry implements Expiry<String, Optional<CachedUser>> {
+
+        private final long ttlNanos;
+        private final long negativeTtlNanos;
+
+        private LookupExpiry(long ttlNanos, long negativeTtlNanos) {
+            this.ttlNanos = ttlNanos;
+            this.negativeTtlNanos = negativeTtlNanos;
+        }
+
+        @Override
+        public long expireAfterCreate(String key, Optional<CachedUser> value, long currentTime) {
+            return value.isPresent() ? ttlNanos : negativeTtlNanos;
+        }
+
+        @Override
+        public long expireAfterUpdate(String key, Optional<CachedUser> value, long currentTime, long currentDuration) {
+            return expireAfterCreate(key, value, currentTime);
+        }
+
+        @Override
+        public long expireAfterRead(String key, Optional<CachedUser> value, long currentTime, long currentDuration) {
+            return currentDuration; // Reading does not extend the lifetime
+        }
+    }
+}
@@ -0,0 +1,344 @@
+package com.example.JWT_Login_with_Spring_Boot.service;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.mail.javamail.JavaMailSenderImpl;
+import org.springframework.mail.javamail.MimeMessageHelper;
+import org.springframework.stereotype.Service;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import jakarta.mail.MessagingException;
+import jakarta.mail.SendFailedException;
+import jakarta.mail.Transport;
+import jakarta.mail.internet.MimeBodyPart;
+import jakarta.mail.internet.MimeMessage;
+import jakarta.mail.internet.MimeMultipart;
+
+
+/**
+ * Sends emails in the background, so HTTP requests (e.g. signup) never wait for the SMTP server.
+ *
+ * - Emails are put in a bounded in-memory queue and sent by a fixed number of worker threads
+ * - Each worker keeps its own SMTP connection (Transport) open and reuses it for many messages,
+ *   instead of doing connect + STARTTLS + AUTH for every email
+ * - Every email is tried once: the result goes to its listener, and retries are left to the caller
+ *   (EmailOutboxRelay), so an email never stays here longer than the caller expects
+ * - An email still in the queue after its "expiresAt" is not sent, its listener gets an ExpiredException
+ * - After an SMTP failure, isAccepting() returns false for a backoff period (exponential, from
+ *   "pauseAfterFailure" up to "maxPause"), so callers stop feeding a server that is down
+ * - An email that cannot be built (e.g. invalid address, missing body) is reported to its listener,
+ *   and the worker goes on with the next one: a worker thread never dies because of one email
+ * - On shutdown, the queue is drained before the workers stop
+ * - Metrics: queue depth, send latency, and rejected / failed / expired emails
+ */
+@Service
+public class EmailDispatcher {
+
+    private static final Logger log = LoggerFactory.getLogger(EmailDispatcher.class);
+
+    /**
+     * Called once an email is sent (failure == null), or when sending it failed or it expired
+     */
+    @FunctionalInterface
+    public interface EmailListener {
+        void onComplete(EmailJob job, Exception failure);
+    }
+
+    /**
+     * An email waiting in the queue
+     * - plainText: optional plain-text alternative of the HTML body
+     * - expiresAt: optional, the email is dropped (not sent) if a worker only picks it up after this time
+     * - listener: optional callback, notified with the result
+     */
+    public record EmailJob(
+            String to, String subject, String htmlText, String plainText, Instant expiresAt, EmailListener listener) {
+
+        public EmailJob(String to, String subject, String htmlText) {
+            this(to, subject, htmlText, null, null, null);
+        }
+    }
+
+    // Failure reported for an email that waited in the queue past its "expiresAt" (it was not sent)
+    public static class ExpiredException extends Exception {
+        public ExpiredException(String message) {
+            super(message);
+        }
+    }
+
+    private final JavaMailSenderImpl javaMailSender; // Provides the mail Session & SMTP server settings
+    private final BlockingQueue<EmailJob> queue;
+    private final int workerCount;
+    private final int batchSize;
+    private final Duration pauseAfterFailure;
+    private final Duration maxPause;
+    private final Duration idleTimeout;
+    private final Duration shutdownTimeout;
+
+    private final List<Thread> workers = new ArrayList<>();
+    private volatile boolean running;
+    // SMTP health: consecutive failures, and until when (System.nanoTime()) callers should not send more
+    private volatile int consecutiveFailures;
+    private volatile long pausedUntilNanos = System.nanoTime();
+
+    // Metrics
+    private final Timer sendTimer;
+    private final Timer failedSendTimer;
+    private final Counter rejectedCounter;
+    private final Counter failedCounter;
+    private final Counter expiredCounter;
+
+    public EmailDispatcher(
+            JavaMailSenderImpl javaMailSender,
+            MeterRegistry meterRegistry,
+            @Value("${email.dispatcher.queue-capacity:1000}") int queueCapacity,
+            @Value("${email.dispatcher.workers:2}") int workerCount,
+            @Value("${email.dispatcher.batch-size:20}") int batchSize,
+            @Value("${email.dispatcher.pause-after-failure:1s}") Duration pauseAfterFailure,
+            @Value("${email.dispatcher.max-pause:60s}") Duration maxPause,
+            @Value("${email.dispatcher.idle-timeout:30s}") Duration idleTimeout,
+            @Value("${email.dispatcher.shutdown-timeout:30s}") Duration shutdownTimeout) {
+        this.javaMailSender = javaMailSender;
+        this.queue = new ArrayBlockingQueue<>(queueCapacity);
+        this.workerCount = workerCount;
+        this.batchSize = batchSize;
+        this.pauseAfterFailure = pauseAfterFailure;
+        this.maxPause = maxPause;
+        this.idleTimeout = idleTimeout;
+        this.shutdownTimeout = shutdownTimeout;
+
+        meterRegistry.gauge("email.dispatcher.queue.depth", queue, BlockingQueue::size);
+        this.sendTimer = Timer.builder("email.dispatcher.send")
+                .tag("outcome", "success")
+                .publishPercentileHistogram()
+                .register(meterRegistry);
+        this.failedSendTimer = Timer.builder("email.dispatcher.send")
+                .tag("outcome", "failure")
+                .register(meterRegistry);
+        this.rejectedCounter = meterRegistry.counter("email.dispatcher.rejected"); // queue was full
+        this.failedCounter = meterRegistry.counter("email.dispatcher.failed"); // send failed
+        this.expiredCounter = meterRegistry.counter("email.dispatcher.expired"); // waited too long in the queue
+    }
+
+
+    // 🔹 Public API (Methods used by other classes)
+
+    /**
+     * Put an email in the queue without waiting for it to be sent
+     * - Returns false if the queue is full or the dispatcher is shutting down
+     */
+    public boolean enqueue(EmailJob job) {
+        if (!running || !queue.offer(job)) {
+            rejectedCounter.increment();
+            return false;
+        }
+        return true;
+    }
+
+    // Number of emails currently waiting in the queue
+    public int queueDepth() {
+        return queue.size();
+    }
+
+    // Number of emails that can still be queued right now
+    public int remainingCapacity() {
+        return queue.remainingCapacity();
+    }
+
+    // False while shutting down, or for a while after an SMTP failure (the server is probably down)
+    public boolean isAccepting() {
+        return running && System.nanoTime() - pausedUntilNanos >= 0;
+    }
+
+
+
+    // 🔹 Lifecycle (called by Spring)
+
+    @PostConstruct
+    void start() {
+        running = true;
+        for (int i = 0; i < workerCount; i++) {
+            Thread worker = Thread.ofPlatform().name("email-dispatcher-" + i).unstarted(this::runWorker);
+            workers.add(worker);
+            worker.start();
+        }
+    }
+
+    @PreDestroy
+    void shutdown() throws InterruptedException {
+        running = false;
+
+        long deadline = System.nanoTime() + shutdownTimeout.toNanos();
+        for (Thread worker : workers) {
+            long remainingMillis = TimeUnit.NANOSECONDS.toMillis(deadline - System.nanoTime());
+            worker.join(Math.max(1, remainingMillis));
+            worker.interrupt(); // No-op if the worker already finished
+        }
+
+        if (!queue.isEmpty()) {
+            log.warn("Email dispatcher stopped with {} unsent email(s) in the queue", queue.size());
+        }
+    }
+
+
+
+    // 🔹 Private Helper Methods (Internal logic)
+
+    // Worker loop: take a batch of emails and send them all over the same SMTP connection
+    private void runWorker() {
+        Transport transport = null;
+        List<EmailJob> batch = new ArrayList<>(batchSize);
+
+        try {
+            while (running || !queue.isEmpty()) {
+                // Wait shortly while shutting down, so the worker exits as soon as the queue is empty
+                long waitMillis = running ? idleTimeout.toMillis() : 100;
+                EmailJob first = queue.poll(waitMillis, TimeUnit.MILLISECONDS);
+
+                if (first == null) {
+                    // Nothing to send for a while: release the SMTP connection
+                    transport = closeQuietly(transport);
+                    continue;
+                }
+
+                batch.add(first);
+                queue.drainTo(batch, batchSize - 1);
+
+                for (EmailJob job : batch) {
+                    transport = send(transport, job);
+                }
+                batch.clear();
+            }
+        } catch (InterruptedException interruptedException) {
+            Thread.currentThread().interrupt();
+        } finally {
+            closeQuietly(transport);
+        }
+    }
+
+    // Send one email, (re)connecting if needed, and return the transport to reuse for the next one
+    private Transport send(Transport transport, EmailJob job) {
+        if (job.expiresAt() != null && Instant.now().isAfter(job.expiresAt())) {
+            expiredCounter.increment();
+            notifyListener(job, new ExpiredException("Email to " + job.to() + " expired in the queue"));
+            return transport;
+        }
+
+        long start = System.nanoTime();
+        try {
+            if (transport == null || !transport.isConnected()) {
+                transport = connect();
+            }
+
+            MimeMessage mimeMessage = createMessage(job);
+            transport.sendMessage(mimeMessage, mimeMessage.getAllRecipients());
+            sendTimer.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+            consecutiveFailures = 0;
+            notifyListener(job, null);
+            return transport;
+
+        } catch (MessagingException messagingException) {
+            failedSendTimer.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+            failedCounter.increment();
+            if (!(messagingException instanceof SendFailedException)) {
+                pause(); // Connection / server failure, not just a rejected recipient
+            }
+            log.warn("Sending email to {} failed: {}", job.to(), messagingException.getMessage());
+            notifyListener(job, messagingException);
+            return closeQuietly(transport); // The connection may be broken, reconnect for the next email
+        } catch (RuntimeException unexpected) {
+            // Not an SMTP failure (e.g. null body, invalid argument)
+            failedSendTimer.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+            failedCounter.increment();
+            log.error("Could not send email to {}", job.to(), unexpected);
+            notifyListener(job, unexpected);
+            return closeQuietly(transport); // State of the connection is unknown
+        }
+    }
+
+    // Open a new SMTP connection using the settings of the JavaMailSender (host, port, credentials)
+    private Transport connect() throws MessagingException {
+        Transport transport = javaMailSender.getSession().getTransport(javaMailSender.getProtocol());
+        transport.connect(
+                javaMailSender.getHost(),
+                javaMailSender.getPort(),
+                javaMailSender.getUsername(),
+                javaMailSender.getPassword());
+        return transport;
+    }
+
+    private MimeMessage createMessage(EmailJob job) throws MessagingException {
+        // Create a new MimeMessage which represents an email message
+        MimeMessage mimeMessage = javaMailSender.createMimeMessage();
+
+        // Use MimeMessageHelper to simplify setting up MimeMessage
+        // (mimeMessage, false): no multipart wrapper, there are no attachments
+        MimeMessageHelper mimeMessageHelper = new MimeMessageHelper(mimeMessage, false, "UTF-8");
+
+        mimeMessageHelper.setTo(job.to()); // Set the recipient's email address
+        mimeMessageHelper.setSubject(job.subject()); // Set the email's subject
+
+        if (job.plainText() == null) {
+            mimeMessageHelper.setText(job.htmlText(), true); // Set the email's body with HTML content (true -> HTML text)
+        } else {
+            // Plain-text & HTML alternatives of the same content (multipart/alternative, the client shows the best one)
+            MimeBodyPart textPart = new MimeBodyPart();
+            textPart.setText(job.plainText(), "UTF-8");
+            MimeBodyPart htmlPart = new MimeBodyPart();
+            htmlPart.setContent(job.htmlText(), "text/html; charset=UTF-8");
+
+            MimeMultipart alternatives = new MimeMultipart("alternative");
+            alternatives.addBodyPart(textPart); // Least preferred first
+            alternatives.addBodyPart(htmlPart);
+            mimeMessage.setContent(alternatives);
+        }
+
+        // Transport.sendMessage() does not do it automatically (unlike Transport.send())
+        mimeMessage.saveChanges();
+        return mimeMessage;
+    }
+
+    // Stop accepting emails for a while (exponential backoff over the consecutive failures)
+    private void pause() {
+        int failures = ++consecutiveFailures; // Only a hint for the backoff, a lost update does not matter
+        long pauseMillis = Math.min(
+                maxPause.toMillis(),
+                pauseAfterFailure.toMillis() * (1L << Math.min(failures - 1, 20)));
+        pausedUntilNanos = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(pauseMillis);
+    }
+
+    // A failing listener must never stop the worker thread
+    private static void notifyListener(EmailJob job, Exception failure) {
+        if (job.listener() == null) {
+            return;
+        }
+        try {
+            job.listener().onComplete(job, failure);
+        } catch (RuntimeException listenerException) {
+            log.error("Email listener failed for email to {}", job.to(), listenerException);
+        }
+    }
+
+    private static Transport closeQuietly(Transport transport) {
+        if (transport != null) {
+            try {
+                transport.close();
+            } catch (MessagingException ignored) {
+                // The connection is being discarded anyway
+            }
+        }
+        return null;
+    }
+}
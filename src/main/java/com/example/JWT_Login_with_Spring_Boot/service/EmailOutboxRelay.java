@@ -0,0 +1,220 @@
+package com.example.JWT_Login_with_Spring_Boot.service;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Objects;
+import java.util.UUID;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.example.JWT_Login_with_Spring_Boot.model.EmailOutbox;
+import com.example.JWT_Login_with_Spring_Boot.repository.EmailOutboxRepository;
+import com.example.JWT_Login_with_Spring_Boot.service.EmailDispatcher.EmailJob;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+
+
+/**
+ * Polls the email outbox and hands ready emails to EmailDispatcher.
+ *
+ * 1. Claim: in a short transaction, lock a batch with "FOR UPDATE SKIP LOCKED", mark the rows PROCESSING
+ *    with a lease ("lockedUntil") and a new claim token, and count the attempt. Other nodes skip these rows.
+ * 2. Send: the emails are sent by EmailDispatcher (reused SMTP connections, one try each), outside the transaction
+ * 3. Record: SENT on success; on failure the row goes back to PENDING with a backoff,
+ *    or to DEAD (dead letter) after "maxAttempts"
+ *
+ * If a node crashes after claiming, the lease runs out and another node claims the rows again (or dead-letters
+ * them if that was their last attempt, so an email that crashes the node is not retried forever). To make sure
+ * an email is not sent by two nodes:
+ * - An email must leave the dispatcher queue before half of the lease, otherwise it is not sent and the row
+ *   is released; the other half covers the SMTP send itself (bounded by the SMTP timeouts)
+ * - The result is only recorded if the row still holds this claim's token (a late result is ignored)
+ * - Nothing is claimed while the dispatcher is paused after an SMTP failure, and never more than its free
+ *   queue space
+ */
+@Service
+@ConditionalOnProperty(name = "email.outbox.relay.enabled", havingValue = "true", matchIfMissing = true)
+public class EmailOutboxRelay {
+
+    private static final Logger log = LoggerFactory.getLogger(EmailOutboxRelay.class);
+
+    private final EmailOutboxRepository emailOutboxRepository;
+    private final EmailDispatcher emailDispatcher;
+    private final TransactionTemplate transactionTemplate;
+    private final int batchSize;
+    private final int maxAttempts;
+    private final Duration lease;
+    private final Duration retryBackoff;
+    private final Duration retention;
+
+    private final Counter sentCounter;
+    private final Counter failedCounter;
+    private final Counter deadCounter;
+
+    public EmailOutboxRelay(
+            EmailOutboxRepository emailOutboxRepository,
+            EmailDispatcher emailDispatcher,
+            TransactionTemplate transactionTemplate,
+            MeterRegistry meterRegistry,
+            @Value("${email.outbox.batch-size:50}") int batchSize,
+            @Value("${email.outbox.max-attempts:5}") int maxAttempts,
+            @Value("${email.outbox.lease:5m}") Duration lease,
+            @Value("${email.outbox.retry-backoff:1m}") Duration retryBackoff,
+            @Value("${email.outbox.retention:7d}") Duration retention) {
+        this.emailOutboxRepository = emailOutboxRepository;
+        this.emailDispatcher = emailDispatcher;
+        this.transactionTemplate = transactionTemplate;
+        this.batchSize = batchSize;
+        this.maxAttempts = maxAttempts;
+        this.lease = lease;
+        this.retryBackoff = retryBackoff;
+        this.retention = retention;
+
+        this.sentCounter = meterRegistry.counter("email.outbox.sent");
+        this.failedCounter = meterRegistry.counter("email.outbox.failed");
+        this.deadCounter = meterRegistry.counter("email.outbox.dead");
+    }
+
+
+    /**
+     * Claim a batch of ready emails and hand them to the dispatcher
+     * - Returns the number of claimed emails
+     */
+    @Scheduled(fixedDelayString = "${email.outbox.poll-interval:1s}")
+    public int relay() {
+        int limit = Math.min(batchSize, emailDispatcher.remainingCapacity());
+        if (limit <= 0 || !emailDispatcher.isAccepting()) {
+            return 0; // Dispatcher queue full or SMTP server failing: leave the rows to the next poll (or node)
+        }
+
+        Instant expiresAt = Instant.now().plus(lease.dividedBy(2));
+        List<EmailOutbox> claimed = transactionTemplate.execute(status -> claimBatch(limit));
+
+        for (EmailOutbox email : claimed) {
+            Long id = email.getId();
+            UUID claimToken = email.getClaimToken();
+            EmailJob job = new EmailJob(
+                    email.getRecipient(), email.getSubject(), email.getBody(), email.getTextBody(), expiresAt,
+                    (sentJob, failure) -> recordResult(id, claimToken, failure));
+
+            if (!emailDispatcher.enqueue(job)) {
+                // Dispatcher queue filled up meanwhile: release the row without counting the attempt
+                release(id, claimToken);
+            }
+        }
+        return claimed.size();
+    }
+
+    // Delete sent emails older than the retention period (in batches, to keep transactions short)
+    @Scheduled(fixedDelayString = "${email.outbox.purge-interval:1h}")
+    public void purgeSent() {
+        LocalDateTime sentBefore = LocalDateTime.now().minus(retention);
+        Integer deleted;
+        do {
+            deleted = transactionTemplate.execute(
+                    status -> emailOutboxRepository.deleteSentBefore(sentBefore, batchSize));
+        } while (deleted != null && deleted == batchSize);
+    }
+
+    /**
+     * Called by the dispatcher with the result of an email
+     * - Ignored if the row was claimed again since (this claim's lease ran out), so a late result never
+     *   overwrites the current claim
+     * - An email that expired in the dispatcher queue was not sent: the row is released
+     */
+    void recordResult(Long id, UUID claimToken, Exception failure) {
+        if (failure instanceof EmailDispatcher.ExpiredException) {
+            release(id, claimToken);
+            return;
+        }
+
+        transactionTemplate.executeWithoutResult(status -> emailOutboxRepository.findById(id).ifPresent(email -> {
+            if (!isClaimedBy(email, claimToken)) {
+                log.warn("Ignoring result of email {}: its claim is no longer held by this relay", id);
+                return;
+            }
+            email.setLockedUntil(null);
+            email.setClaimToken(null);
+
+            if (failure == null) {
+                email.setStatus(EmailOutbox.Status.SENT);
+                email.setSentAt(LocalDateTime.now());
+                email.setLastError(null);
+                sentCounter.increment();
+                return;
+            }
+
+            failedCounter.increment();
+            email.setLastError(truncate(failure.toString(), 1000));
+
+            if (email.getAttempts() >= maxAttempts) {
+                email.setStatus(EmailOutbox.Status.DEAD);
+                deadCounter.increment();
+                log.error("Email {} moved to dead letter after {} attempt(s)", id, email.getAttempts());
+            } else {
+                email.setStatus(EmailOutbox.Status.PENDING);
+                email.setNextAttemptAt(LocalDateTime.now().plus(retryBackoff.multipliedBy(email.getAttempts())));
+            }
+        }));
+    }
+
+
+
+    // 🔹 Private Helper Methods (Internal logic)
+
+    // Lock ready rows (skipping rows locked by other nodes) and lease them to this node
+    private List<EmailOutbox> claimBatch(int limit) {
+        LocalDateTime now = LocalDateTime.now();
+        deadLetterAbandoned(now);
+        List<EmailOutbox> batch = emailOutboxRepository.lockReadyBatch(now, maxAttempts, limit);
+
+        for (EmailOutbox email : batch) {
+            email.setStatus(EmailOutbox.Status.PROCESSING);
+            email.setLockedUntil(now.plus(lease));
+            email.setClaimToken(UUID.randomUUID());
+            email.setAttempts(email.getAttempts() + 1);
+        }
+        return batch; // Changes are flushed when the transaction commits
+    }
+
+    // Dead-letter the rows whose lease ran out on their last attempt (no result was ever recorded for them)
+    private void deadLetterAbandoned(LocalDateTime now) {
+        for (EmailOutbox email : emailOutboxRepository.lockAbandonedBatch(now, maxAttempts, batchSize)) {
+            email.setStatus(EmailOutbox.Status.DEAD);
+            email.setLockedUntil(null);
+            email.setClaimToken(null);
+            email.setLastError("Lease ran out on the last attempt (the node stopped or crashed while sending)");
+            deadCounter.increment();
+            log.error("Email {} moved to dead letter after {} attempt(s): lease ran out", email.getId(), email.getAttempts());
+        }
+    }
+
+    // Give a claimed row back (not sent, attempt not counted), if the claim is still ours
+    private void release(Long id, UUID claimToken) {
+        transactionTemplate.executeWithoutResult(status -> emailOutboxRepository.findById(id).ifPresent(email -> {
+            if (isClaimedBy(email, claimToken)) {
+                email.setStatus(EmailOutbox.Status.PENDING);
+                email.setLockedUntil(null);
+                email.setClaimToken(null);
+                email.setAttempts(email.getAttempts() - 1);
+            }
+        }));
+    }
+
+    private static boolean isClaimedBy(EmailOutbox email, UUID claimToken) {
+        return email.getStatus() == EmailOutbox.Status.PROCESSING && Objects.equals(email.getClaimToken(), claimToken);
+    }
+
+    private static String truncate(String text, int maxLength) {
+        return text.length() <= maxLength ? text : text.substring(0, maxLength);
+    }
+}
@@ -1,39 +1,60 @@
 package com.example.JWT_Login_with_Spring_Boot.service;
 
-import org.springframework.beans.factory.annotation.Autowired;
-import org.springframework.mail.javamail.JavaMailSender;
-import org.springframework.mail.javamail.MimeMessageHelper;
+import java.util.concurrent.TimeUnit;
+
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import com.example.JWT_Login_with_Spring_Boot.jfr.EmailEnqueueEvent;
+import com.example.JWT_Login_with_Spring_Boot.model.EmailOutbox;
+import com.example.JWT_Login_with_Spring_Boot.model.RenderedEmail;
+import com.example.JWT_Login_with_Spring_Boot.repository.EmailOutboxRepository;
 
-import jakarta.mail.MessagingException;
-import jakarta.mail.internet.MimeMessage;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
 
 
 // Mark this class as Spring-managed component, automatically detect it, and make it available for injecting in other components
 @Service
 /**
  * This class provides functionality to send HTML-formatted verification email messages
+ * - Emails are written to the email outbox in the caller's transaction (so they are only sent if
+ *   the caller's changes are committed), then EmailOutboxRelay sends them in the background
+ * - Outbox writes are timed here (email.outbox.write) and recorded as EmailEnqueue JFR events,
+ *   SMTP sends are timed by EmailDispatcher (email.dispatcher.send)
  */
 public class EmailService {
 
-    // Automatically inject an instance of JavaMailSender into javaMailSender field when the class object is created
-    @Autowired
-    private JavaMailSender javaMailSender;
-
-
-    public void sendVerificationEmail(String to, String subject, String text) throws MessagingException{
-        // Create a new MimeMessage which represents an email message
-        MimeMessage mimeMessage = javaMailSender.createMimeMessage();
-
-        // Use MimeMessageHelper to simplify setting up MimeMessage
-        // (mimeMessage, true): true -> enable multipart, which allows enhancements (e.g. with attachments)
-        MimeMessageHelper mimeMessageHelper = new MimeMessageHelper(mimeMessage, true);
+    private final EmailOutboxRepository emailOutboxRepository;
+    private final Timer outboxWriteTimer;
 
+    public EmailService(EmailOutboxRepository emailOutboxRepository, MeterRegistry meterRegistry) {
+        this.emailOutboxRepository = emailOutboxRepository;
+        this.outboxWriteTimer = Timer.builder("email.outbox.write")
+                .description("Email written to the outbox (inside the caller's transaction)")
+                .register(meterRegistry);
+    }
 
-        mimeMessageHelper.setTo(to); // Set the recipient's email address
-        mimeMessageHelper.setSubject(subject); // Set the email's subject
-        mimeMessageHelper.setText(text, true); // Set the email's body with HTML content (true -> HTML text)
 
-        javaMailSender.send(mimeMessage); // Send the email
+    // Store a verification email in the outbox, joins the caller's transaction (Propagation.MANDATORY)
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void sendVerificationEmail(String to, RenderedEmail email){
+        EmailEnqueueEvent event = new EmailEnqueueEvent();
+        event.begin();
+        long start = System.nanoTime();
+        String outcome = "failed";
+        try {
+            emailOutboxRepository.save(new EmailOutbox(to, email.subject(), email.htmlBody(), email.textBody()));
+            outcome = "stored";
+        } finally {
+            outboxWriteTimer.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+            event.end();
+            if (event.shouldCommit()) {
+                event.subject = email.subject();
+                event.outcome = outcome;
+                event.commit();
+            }
+        }
     }
 }
@@ -0,0 +1,203 @@
+package com.example.JWT_Login_with_Spring_Boot.service;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.net.URISyntaxException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+import org.springframework.core.io.Resource;
+import org.springframework.core.io.support.PathMatchingResourcePatternResolver;
+import org.springframework.core.io.support.ResourcePatternResolver;
+import org.springframework.stereotype.Service;
+import org.springframework.util.ResourceUtils;
+import org.springframework.util.StringUtils;
+
+import com.example.JWT_Login_with_Spring_Boot.model.RenderedEmail;
+
+
+/**
+ * Email templates loaded & precompiled once at startup (from "classpath:mail-templates/").
+ *
+ * Layout: mail-templates/{template}/{part}[_{locale}].{txt|html}
+ * - parts: "subject.txt", "body.txt" (plain-text alternative), "body.html" (HTML alternative)
+ * - locale variants, e.g. "body_ar.html", are picked from the requested Locale (falls back to the default file)
+ * - placeholders are written as {{name}}, values are HTML-escaped in ".html" files
+ *
+ * Each file is compiled into literal segments & placeholders, so rendering is only appending
+ * segments into a reusable (per-thread) buffer, no parsing or string concatenation per email.
+ */
+@Service
+public class EmailTemplateService {
+
+    private static final String LOCATION = "classpath*:mail-templates/*/*.*";
+    private static final int MAX_REUSED_BUFFER = 64 * 1024; // Bigger buffers are not kept for reuse
+
+    // Key: "{template}/{part}[_{locale}].{extension}", e.g. "verification/body_ar.html"
+    private final Map<String, CompiledTemplate> templates;
+
+    private final ThreadLocal<StringBuilder> buffers = ThreadLocal.withInitial(() -> new StringBuilder(4096));
+
+    public EmailTemplateService() {
+        this.templates = loadTemplates(new PathMatchingResourcePatternResolver());
+    }
+
+
+    // 🔹 Public API (Methods used by other classes)
+
+    // Render the subject, plain-text body, and HTML body of a template for the given locale
+    public RenderedEmail render(String templateName, Locale locale, Map<String, String> model) {
+        CompiledTemplate subject = find(templateName, "subject", "txt", locale);
+        if (subject == null) {
+            throw new IllegalArgumentException("Unknown email template: " + templateName);
+        }
+        CompiledTemplate textBody = find(templateName, "body", "txt", locale);
+        CompiledTemplate htmlBody = find(templateName, "body", "html", locale);
+
+        return new RenderedEmail(
+                render(subject, model),
+                textBody == null ? null : render(textBody, model),
+                htmlBody == null ? null : render(htmlBody, model));
+    }
+
+
+
+    // 🔹 Private Helper Methods (Internal logic)
+
+    // Most specific file first: "body_ar_EG.html" -> "body_ar.html" -> "body.html"
+    private CompiledTemplate find(String templateName, String part, String extension, Locale locale) {
+        String prefix = templateName + "/" + part;
+        if (locale != null && !locale.getLanguage().isEmpty()) {
+            if (!locale.getCountry().isEmpty()) {
+                CompiledTemplate template = templates.get(
+                        prefix + "_" + locale.getLanguage() + "_" + locale.getCountry() + "." + extension);
+                if (template != null) {
+                    return template;
+                }
+            }
+            CompiledTemplate template = templates.get(prefix + "_" + locale.getLanguage() + "." + extension);
+            if (template != null) {
+                return template;
+            }
+        }
+        return templates.get(prefix + "." + extension);
+    }
+
+    // Render into the reusable buffer of the current thread
+    private String render(CompiledTemplate template, Map<String, String> model) {
+        StringBuilder buffer = buffers.get();
+        buffer.setLength(0);
+        template.renderTo(buffer, model);
+        String result = buffer.toString();
+
+        if (buffer.capacity() > MAX_REUSED_BUFFER) {
+            buffers.remove(); // Do not keep an unusually large buffer alive
+        }
+        return result;
+    }
+
+    private static Map<String, CompiledTemplate> loadTemplates(ResourcePatternResolver resolver) {
+        Map<String, CompiledTemplate> templates = new HashMap<>();
+        try {
+            for (Resource resource : resolver.getResources(LOCATION)) {
+                String key = templateDirectory(resource) + "/" + resource.getFilename();
+
+                try (InputStream inputStream = resource.getInputStream()) {
+                    String source = new String(inputStream.readAllBytes(), StandardCharsets.UTF_8).stripTrailing();
+                    templates.put(key, CompiledTemplate.compile(source, key.endsWith(".html")));
+                }
+            }
+        } catch (IOException exception) {
+            throw new UncheckedIOException("Could not load email templates", exception);
+        }
+        return Map.copyOf(templates);
+    }
+
+    // Name of the directory holding the file: ".../mail-templates/verification/body.html" -> "verification"
+    // (decoded location, works for files on disk and inside a jar: "file:/app.jar!/mail-templates/...")
+    private static String templateDirectory(Resource resource) throws IOException {
+        try {
+            String location = ResourceUtils.toURI(resource.getURL()).getSchemeSpecificPart();
+            String directory = location.substring(0, location.length() - resource.getFilename().length() - 1);
+            return StringUtils.getFilename(directory);
+        } catch (URISyntaxException exception) {
+            throw new IOException("Invalid email template location: " + resource, exception);
+        }
+    }
+
+
+    /**
+     * A template split into segments: literals[0], value of names[0], literals[1], value of names[1], ..., literals[n]
+     */
+    static final class CompiledTemplate {
+
+        private final String[] literals;
+        private final String[] names;
+        private final boolean html; // HTML-escape the values
+        private final int estimatedLength;
+
+        private CompiledTemplate(String[] literals, String[] names, boolean html, int estimatedLength) {
+            this.literals = literals;
+            this.names = names;
+            this.html = html;
+            this.estimatedLength = estimatedLength;
+        }
+
+        // Split the source at every {{name}} placeholder
+        static CompiledTemplate compile(String source, boolean html) {
+            List<String> literals = new ArrayList<>();
+            List<String> names = new ArrayList<>();
+
+            int position = 0;
+            while (true) {
+                int start = source.indexOf("{{", position);
+                int end = start < 0 ? -1 : source.indexOf("}}", start + 2);
+                if (end < 0) {
+                    break;
+                }
+                literals.add(source.substring(position, start));
+                names.add(source.substring(start + 2, end).trim());
+                position = end + 2;
+            }
+            literals.add(source.substring(position));
+
+            return new CompiledTemplate(
+                    literals.toArray(String[]::new), names.toArray(String[]::new), html, source.length());
+        }
+
+        void renderTo(StringBuilder out, Map<String, String> model) {
+            out.ensureCapacity(out.length() + estimatedLength + 64);
+            out.append(literals[0]);
+            for (int i = 0; i < names.length; i++) {
+                String value = model.get(names[i]);
+                if (value != null) {
+                    if (html) {
+                        appendEscaped(out, value);
+                    } else {
+                        out.append(value);
+                    }
+                }
+                out.append(literals[i + 1]);
+            }
+        }
+
+        private static void appendEscaped(StringBuilder out, String value) {
+            for (int i = 0; i < value.length(); i++) {
+                char character = value.charAt(i);
+                switch (character) {
+                    case '<' -> out.append("&lt;");
+                    case '>' -> out.append("&gt;");
+                    case '&' -> out.append("&amp;");
+                    case '"' -> out.append("&quot;");
+                    case '\'' -> out.append("&#39;");
+                    default -> out.append(character);
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,390 @@
+package com.example.JWT_Login_with_Spring_Boot.service;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.security.GeneralSecurityException;
+import java.security.Key;
+import java.security.KeyFactory;
+import java.security.KeyPair;
+import java.security.MessageDigest;
+import java.security.PrivateKey;
+import java.security.PublicKey;
+import java.security.interfaces.ECPublicKey;
+import java.security.interfaces.EdECPublicKey;
+import java.security.spec.InvalidKeySpecException;
+import java.security.spec.PKCS8EncodedKeySpec;
+import java.security.spec.X509EncodedKeySpec;
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.UUID;
+import java.util.concurrent.locks.ReentrantLock;
+
+import javax.crypto.SecretKey;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import io.jsonwebtoken.Jwts;
+import io.jsonwebtoken.io.Decoders;
+import io.jsonwebtoken.security.InvalidKeyException;
+import io.jsonwebtoken.security.Jwks;
+import io.jsonwebtoken.security.Keys;
+
+
+/**
+ * Keys used to sign and verify JWT tokens (security.jwt.algorithm).
+ *
+ * - HS256 (default): one shared secret (security.jwt.secret-key), tokens have no "kid" header
+ * - ES256 / EdDSA: key pairs, tokens carry the "kid" (key id) of the key that signed them, and the public
+ *   keys are published as a JWK Set (GET /authentication/jwks), so other services verify tokens offline
+ *
+ * Key pairs are read from the "security.jwt.keys.location" directory, and reloaded every "reload-interval":
+ * - <kid>.key: PKCS#8 PEM private key (signing), <kid>.pub: X.509 PEM public key (verification & JWKS)
+ * - New tokens are signed with the greatest kid that has a private key (e.g. name keys by date: 2026-10-01),
+ *   a key added while running is only used after one JWKS max-age, so clients see it before the first token
+ * - Rotation: add the new key pair, then delete the old private key, its public key keeps verifying old tokens.
+ *   A public key deleted from the directory is still accepted for one token lifetime (security.jwt.expiration-time)
+ * - Without a directory, a key pair is generated at startup (tokens do not survive a restart, single node only)
+ * - Every key must match security.jwt.algorithm (ES256: EC P-256, EdDSA: Ed25519 / Ed448), other keys are
+ *   rejected when the directory is read; the JWKS "alg" & "crv" of each key are derived from the key itself
+ *
+ * Tokens without a "kid" are verified with the HMAC secret as long as it is configured (tokens issued before
+ * switching to ES256 / EdDSA), the key type is checked by jjwt so an HS256 token can never use a public key.
+ */
+@Service
+public class JwtKeyRing {
+
+    private static final Logger log = LoggerFactory.getLogger(JwtKeyRing.class);
+
+    public static final String HS256 = "HS256";
+    public static final String ES256 = "ES256";
+    public static final String EDDSA = "EdDSA";
+
+    private static final ObjectMapper objectMapper = new ObjectMapper();
+
+    /**
+     * Key used to sign new tokens
+     * - kid: "kid" header of the tokens (null for the HMAC secret)
+     */
+    public record SigningKey(String kid, Key key) {
+    }
+
+    /**
+     * JWK Set document served at /authentication/jwks
+     * - etag: changes whenever the set of public keys changes, maxAge: how long clients may cache it
+     */
+    public record PublishedKeys(String json, String etag, Duration maxAge) {
+    }
+
+    // A key pair read from the key directory (privateKey is null for a verification-only key)
+    private record StoredKey(String kid, PublicKey publicKey, PrivateKey privateKey) {
+    }
+
+    // Immutable view of the ring, replaced as a whole on every reload (readers never lock)
+    private record Snapshot(
+            SigningKey signingKey,
+            PublicKey signingPublicKey,
+            Map<String, PublicKey> publicKeys,
+            PublishedKeys publishedKeys) {
+    }
+
+    private final String algorithm;
+    private final SecretKey hmacKey; // null if no secret is configured
+    private final Path location; // null -> key pair generated at startup
+    private final Duration jwksMaxAge; // Also the delay before a newly added key signs tokens
+    private final Duration retention; // How long a deleted public key still verifies tokens
+    private final Clock clock;
+
+    // Reload bookkeeping, guarded by reloadLock (a ReentrantLock, not synchronized: reloads may run on virtual
+    // threads, and the key files are read before taking it, so no I/O ever happens while holding it)
+    private final ReentrantLock reloadLock = new ReentrantLock();
+    private final Map<String, Instant> firstSeen = new HashMap<>();
+    private final Map<String, Instant> deletedAt = new HashMap<>();
+
+    private volatile Snapshot snapshot;
+
+    public JwtKeyRing(
+            @Value("${security.jwt.algorithm:HS256}") String algorithm,
+            @Value("${security.jwt.secret-key:}") String secretKey,
+            @Value("${security.jwt.keys.location:}") String location,
+            @Value("${security.jwt.jwks.max-age:5m}") Duration jwksMaxAge,
+            @Value("${security.jwt.expiration-time}") long jwtExpiration) {
+        this(algorithm, secretKey, location, jwksMaxAge, jwtExpiration, Clock.systemUTC());
+    }
+
+    // Clock can be replaced in tests (publication delay & retention of deleted keys)
+    JwtKeyRing(
+            String algorithm,
+            String secretKey,
+            String location,
+            Duration jwksMaxAge,
+            long jwtExpiration,
+            Clock clock) {
+        this.clock = clock;
+        this.algorithm = algorithm;
+        this.hmacKey = secretKey.isBlank() ? null : Keys.hmacShaKeyFor(Decoders.BASE64.decode(secretKey));
+        this.location = location.isBlank() ? null : Path.of(location);
+        this.jwksMaxAge = jwksMaxAge;
+        this.retention = Duration.ofMillis(jwtExpiration);
+
+        switch (algorithm) {
+            case HS256 -> {
+                if (hmacKey == null) {
+                    throw new IllegalStateException("security.jwt.secret-key is required for HS256");
+                }
+                this.snapshot = new Snapshot(new SigningKey(null, hmacKey), null, Map.of(), publish(Map.of()));
+            }
+            case ES256, EDDSA -> this.snapshot = this.location == null ? generated() : loaded();
+            default -> throw new IllegalStateException("Unsupported security.jwt.algorithm: " + algorithm);
+        }
+    }
+
+
+    // 🔹 Public API (Methods used by other classes)
+
+    // Key (and kid) to sign a new token with
+    public SigningKey signingKey() {
+        return snapshot.signingKey();
+    }
+
+    /**
+     * Key to verify a token signed with the given kid (called by the JwtService parser for every token)
+     * - Throws InvalidKeyException if the kid is unknown, or if the token has no kid and there is no HMAC secret
+     */
+    public Key verificationKey(String kid) {
+        if (kid == null) {
+            if (hmacKey == null) {
+                throw new InvalidKeyException("Token has no key id");
+            }
+            return hmacKey;
+        }
+        PublicKey publicKey = snapshot.publicKeys().get(kid);
+        if (publicKey == null) {
+            throw new InvalidKeyException("Unknown key id");
+        }
+        return publicKey;
+    }
+
+    // Public keys as a JWK Set (empty for HS256, the secret is never published)
+    public PublishedKeys publishedKeys() {
+        return snapshot.publishedKeys();
+    }
+
+    public String getAlgorithm() {
+        return algorithm;
+    }
+
+    /**
+     * Re-read the key directory (rotation without a restart)
+     * - On any error the current keys are kept, so a half-copied file never breaks token verification
+     */
+    @Scheduled(fixedDelayString = "${security.jwt.keys.reload-interval:1m}",
+            initialDelayString = "${security.jwt.keys.reload-interval:1m}")
+    public void reload() {
+        if (location == null || HS256.equals(algorithm)) {
+            return;
+        }
+        Map<String, StoredKey> storedKeys;
+        try {
+            storedKeys = readKeys(); // File I/O, outside the lock
+        } catch (IOException | GeneralSecurityException | RuntimeException exception) {
+            log.error("Could not reload the JWT keys from {}, keeping the current keys", location, exception);
+            return;
+        }
+
+        reloadLock.lock();
+        try {
+            Snapshot reloaded = select(storedKeys, clock.instant());
+            if (!reloaded.publishedKeys().etag().equals(snapshot.publishedKeys().etag())
+                    || !reloaded.signingKey().kid().equals(snapshot.signingKey().kid())) {
+                log.info("JWT keys reloaded: signing with '{}', verifying with {}",
+                        reloaded.signingKey().kid(), reloaded.publicKeys().keySet());
+            }
+            snapshot = reloaded;
+        } catch (RuntimeException exception) {
+            log.error("Could not reload the JWT keys from {}, keeping the current keys", location, exception);
+        } finally {
+            reloadLock.unlock();
+        }
+    }
+
+
+
+    // 🔹 Private Helper Methods (Internal logic)
+
+    // In-memory key pair (no key directory configured)
+    private Snapshot generated() {
+        KeyPair keyPair = ES256.equals(algorithm)
+                ? Jwts.SIG.ES256.keyPair().build()
+                : Jwks.CRV.Ed25519.keyPair().build();
+        String kid = "generated-" + UUID.randomUUID();
+        log.warn("No security.jwt.keys.location configured, using a generated {} key pair ({}): "
+                + "tokens are invalid after a restart and on other nodes", algorithm, kid);
+
+        Map<String, PublicKey> publicKeys = Map.of(kid, keyPair.getPublic());
+        return new Snapshot(
+                new SigningKey(kid, keyPair.getPrivate()), keyPair.getPublic(), publicKeys, publish(publicKeys));
+    }
+
+    // First load at startup (constructor, before any reload can run): every key already in the directory can sign right away
+    private Snapshot loaded() {
+        try {
+            Map<String, StoredKey> storedKeys = readKeys();
+            storedKeys.keySet().forEach(kid -> firstSeen.put(kid, Instant.EPOCH));
+            Snapshot loaded = select(storedKeys, clock.instant());
+            log.info("JWT keys loaded from {}: signing with '{}', verifying with {}",
+                    location, loaded.signingKey().kid(), loaded.publicKeys().keySet());
+            return loaded;
+        } catch (IOException | GeneralSecurityException exception) {
+            throw new IllegalStateException("Could not load the JWT keys from " + location, exception);
+        }
+    }
+
+    // Build the next snapshot: verification keys (with the retention of deleted keys) & the signing key
+    // (updates the reload bookkeeping: called from the constructor, or by reload() holding reloadLock)
+    private Snapshot select(Map<String, StoredKey> storedKeys, Instant now) {
+        Snapshot current = snapshot; // null on the first load
+        Map<String, PublicKey> publicKeys = new TreeMap<>();
+        storedKeys.forEach((kid, storedKey) -> publicKeys.put(kid, storedKey.publicKey()));
+
+        // Keys deleted from the directory keep verifying until the tokens they signed have expired
+        deletedAt.keySet().removeAll(storedKeys.keySet());
+        if (current != null) {
+            current.publicKeys().forEach((kid, publicKey) -> {
+                if (storedKeys.containsKey(kid)) {
+                    return;
+                }
+                Instant deleted = deletedAt.computeIfAbsent(kid, missingKid -> now);
+                if (deleted.plus(retention).isAfter(now)) {
+                    publicKeys.put(kid, publicKey);
+                } else {
+                    deletedAt.remove(kid);
+                    log.info("JWT key '{}' removed, its tokens have expired", kid);
+                }
+            });
+        }
+
+        // Signing key: greatest kid with a private key, once it was published for one JWKS max-age
+        storedKeys.keySet().forEach(kid -> firstSeen.putIfAbsent(kid, now));
+        firstSeen.keySet().retainAll(storedKeys.keySet());
+        StoredKey next = null;
+        for (StoredKey storedKey : storedKeys.values()) {
+            boolean published = !firstSeen.get(storedKey.kid()).plus(jwksMaxAge).isAfter(now);
+            if (storedKey.privateKey() != null && published
+                    && (next == null || storedKey.kid().compareTo(next.kid()) > 0)) {
+                next = storedKey;
+            }
+        }
+
+        SigningKey signingKey;
+        PublicKey signingPublicKey;
+        if (next != null) {
+            signingKey = new SigningKey(next.kid(), next.privateKey());
+            signingPublicKey = next.publicKey();
+        } else if (current != null) {
+            signingKey = current.signingKey(); // e.g. the private key file was deleted before its successor is ready
+            signingPublicKey = current.signingPublicKey();
+        } else {
+            throw new IllegalStateException("No signing key (<kid>.key & <kid>.pub) found in " + location);
+        }
+        publicKeys.put(signingKey.kid(), signingPublicKey); // The signing key always verifies its own tokens
+
+        return new Snapshot(signingKey, signingPublicKey, publicKeys, publish(publicKeys));
+    }
+
+    // Read every <kid>.pub (and its optional <kid>.key) from the key directory
+    private Map<String, StoredKey> readKeys() throws IOException, GeneralSecurityException {
+        KeyFactory keyFactory = KeyFactory.getInstance(ES256.equals(algorithm) ? "EC" : "EdDSA");
+        Map<String, StoredKey> storedKeys = new TreeMap<>();
+
+        try (DirectoryStream<Path> publicKeyFiles = Files.newDirectoryStream(location, "*.pub")) {
+            for (Path publicKeyFile : publicKeyFiles) {
+                String fileName = publicKeyFile.getFileName().toString();
+                String kid = fileName.substring(0, fileName.length() - ".pub".length());
+                PublicKey publicKey = keyFactory.generatePublic(new X509EncodedKeySpec(pemContent(publicKeyFile)));
+                String keyAlgorithm = algorithmOf(publicKey);
+                if (!algorithm.equals(keyAlgorithm)) {
+                    // e.g. a P-384 key would sign ES384 tokens while being announced as ES256
+                    throw new InvalidKeySpecException(
+                            "Key '" + kid + "' is a " + keyAlgorithm + " key, security.jwt.algorithm is " + algorithm);
+                }
+
+                Path privateKeyFile = location.resolve(kid + ".key");
+                PrivateKey privateKey = null;
+                if (Files.exists(privateKeyFile)) {
+                    privateKey = keyFactory.generatePrivate(new PKCS8EncodedKeySpec(pemContent(privateKeyFile)));
+                    checkKeyPair(kid, privateKey, publicKey);
+                }
+                storedKeys.put(kid, new StoredKey(kid, publicKey, privateKey));
+            }
+        }
+        return storedKeys;
+    }
+
+    // JWS algorithm of a public key: ES256 / ES384 / ES512 by EC curve size, EdDSA for Ed25519 & Ed448
+    static String algorithmOf(PublicKey publicKey) {
+        if (publicKey instanceof ECPublicKey ecPublicKey) {
+            return switch (ecPublicKey.getParams().getCurve().getField().getFieldSize()) {
+                case 256 -> ES256;
+                case 384 -> "ES384";
+                case 521 -> "ES512";
+                default -> "unsupported EC";
+            };
+        }
+        return publicKey instanceof EdECPublicKey ? EDDSA : publicKey.getAlgorithm();
+    }
+
+    // Sign & verify a test token, so a mismatched <kid>.key / <kid>.pub is rejected at load time
+    private static void checkKeyPair(String kid, PrivateKey privateKey, PublicKey publicKey) {
+        try {
+            String testToken = Jwts.builder().subject(kid).signWith(privateKey).compact();
+            Jwts.parser().verifyWith(publicKey).build().parseSignedClaims(testToken);
+        } catch (RuntimeException exception) {
+            throw new IllegalStateException("Private & public keys of '" + kid + "' do not match", exception);
+        }
+    }
+
+    // Base64 content of a PEM file (between the BEGIN / END lines)
+    private static byte[] pemContent(Path file) throws IOException {
+        String pem = Files.readString(file, StandardCharsets.US_ASCII);
+        String base64 = pem.replaceAll("-----(BEGIN|END) [A-Z ]+-----", "").replaceAll("\\s", "");
+        return Base64.getDecoder().decode(base64);
+    }
+
+    // JWK Set document of the public keys, serialized once per key change (not per request)
+    private PublishedKeys publish(Map<String, PublicKey> publicKeys) {
+        List<Map<String, Object>> keys = new ArrayList<>();
+        publicKeys.forEach((kid, publicKey) -> keys.add(new LinkedHashMap<String, Object>(Jwks.builder()
+                .key(publicKey)
+                .id(kid)
+                .algorithm(algorithmOf(publicKey)) // "crv" is set by jjwt from the key
+                .publicKeyUse("sig")
+                .build())));
+
+        try {
+            String json = objectMapper.writeValueAsString(Map.of("keys", keys));
+            byte[] digest = MessageDigest.getInstance("SHA-256").digest(json.getBytes(StandardCharsets.UTF_8));
+            String etag = Base64.getUrlEncoder().withoutPadding().encodeToString(digest).substring(0, 22);
+            return new PublishedKeys(json, etag, jwksMaxAge);
+        } catch (JsonProcessingException | GeneralSecurityException exception) {
+            throw new IllegalStateException("Could not build the JWK Set", exception);
+        }
+    }
+}
@@ -1,21 +1,41 @@
 package com.example.JWT_Login_with_Spring_Boot.service;
 
+import java.security.Key;
+import java.util.Collection;
 import java.util.Date;
 import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
 import java.util.function.Function;
 
-import javax.crypto.SecretKey;
-
 import org.springframework.beans.factory.annotation.Value;
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
 import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.stereotype.Service;
 
+import com.example.JWT_Login_with_Spring_Boot.jfr.TokenVerificationEvent;
+import com.example.JWT_Login_with_Spring_Boot.model.TokenPrincipal;
+import com.example.JWT_Login_with_Spring_Boot.model.User;
+import com.example.JWT_Login_with_Spring_Boot.model.VerifiedToken;
+
 import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.ExpiredJwtException;
+import io.jsonwebtoken.JwtBuilder;
+import io.jsonwebtoken.JwtException;
+import io.jsonwebtoken.JwtParser;
 import io.jsonwebtoken.Jwts;
-import io.jsonwebtoken.SignatureAlgorithm;
-import io.jsonwebtoken.io.Decoders;
-import io.jsonwebtoken.security.Keys;
+import io.jsonwebtoken.LocatorAdapter;
+import io.jsonwebtoken.MalformedJwtException;
+import io.jsonwebtoken.ProtectedHeader;
+import io.jsonwebtoken.io.DecodingException;
+import io.jsonwebtoken.security.KeyException;
+import io.jsonwebtoken.security.SecurityException;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
 
 
 
@@ -24,24 +44,135 @@ import io.jsonwebtoken.security.Keys;
 @Service
 // JwtService: handles JWT-related logic (e.g., token generation, validation, extracting info)
 public class JwtService {
-    @Value("${security.jwt.secret-key}")
-    private String secretKey;
 
-    @Value("${security.jwt.expiration-time}")
-    private long jwtExpiration;
+    // Claim names used in stateless mode to rebuild the user from the token
+    public static final String CLAIM_USER_ID = "uid";
+    public static final String CLAIM_USERNAME = "username";
+    public static final String CLAIM_ENABLED = "enabled";
+    public static final String CLAIM_AUTHORITIES = "authorities";
+    // Token epoch of the user (always embedded), tokens with an older epoch are rejected (TokenEpochRegistry)
+    public static final String CLAIM_TOKEN_EPOCH = "epoch";
+
+    private final long jwtExpiration;
+
+    // Stateless mode: tokens carry the user's details, so requests are authenticated without the database
+    private final boolean stateless;
+
+    // Signing & verification keys (HMAC secret, or ES256 / EdDSA key pairs selected by the "kid" header)
+    private final JwtKeyRing keyRing;
+    // Parser is created once at startup and reused for every request (JwtParser is immutable and thread-safe)
+    private final JwtParser jwtParser;
+
+    // Metrics (registered once, so recording is only a counter / timer update)
+    private final Timer verifyTimer;
+    private final Timer generateTimer;
+    private final Map<String, Counter> tokenFailures; // By failure reason (see failureReason())
+
+    public JwtService(
+            JwtKeyRing keyRing,
+            @Value("${security.jwt.expiration-time}") long jwtExpiration,
+            @Value("${security.jwt.stateless:false}") boolean stateless,
+            MeterRegistry meterRegistry) {
+        this.jwtExpiration = jwtExpiration;
+        this.stateless = stateless;
+        this.keyRing = keyRing;
+        this.jwtParser = Jwts
+                .parser() // Start parsing the token
+                .keyLocator(new KeyRingLocator(keyRing)) // Verification key picked by the token's "kid" header
+                .build(); // Build parser
+
+        this.verifyTimer = Timer.builder("auth.token.verify")
+                .description("JWT parsing & signature verification")
+                .register(meterRegistry);
+        this.generateTimer = Timer.builder("auth.token.generate")
+                .description("JWT generation & signing")
+                .register(meterRegistry);
+        this.tokenFailures = Map.of(
+                "expired", tokenFailureCounter(meterRegistry, "expired"),
+                "bad_signature", tokenFailureCounter(meterRegistry, "bad_signature"),
+                "malformed", tokenFailureCounter(meterRegistry, "malformed"),
+                "unknown_key", tokenFailureCounter(meterRegistry, "unknown_key"), // e.g. kid of a removed key
+                "invalid", tokenFailureCounter(meterRegistry, "invalid")); // Any other reason (e.g. unsupported)
+    }
 
 
     
     // 🔹 Public API (Methods used by other classes)
     
-    // Generate JWT token with default claims
+    // Generate JWT token with default claims (plus the user's details when stateless mode is enabled)
     public String generateToken(UserDetails userDetails){
-        return generateToken(new HashMap<>(), userDetails);
+        return generateToken(stateless ? principalClaims(userDetails) : new HashMap<>(), userDetails);
     }
 
     // Generate JWT token with additional claims provided
     public String generateToken(Map<String, Object> extraClaims, UserDetails userDetails){
-        return buildToken(extraClaims, userDetails, jwtExpiration);
+        long start = System.nanoTime();
+        try {
+            return buildToken(extraClaims, userDetails, jwtExpiration);
+        } finally {
+            generateTimer.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+        }
+    }
+
+    /**
+     * Parse and verify the token once (signature + expiration), and return an immutable VerifiedToken
+     * - Throws JwtException (e.g. ExpiredJwtException, SignatureException, MalformedJwtException) if the token is invalid
+     * - Timed (auth.token.verify), failures are counted by reason (auth.token.failures)
+     * - Recorded as a TokenVerification JFR event (when a recording has the event enabled)
+     */
+    public VerifiedToken verifyToken(String token) throws JwtException {
+        TokenVerificationEvent event = new TokenVerificationEvent();
+        event.begin();
+        long start = System.nanoTime();
+        String outcome = "valid";
+        try {
+            final Claims claims = extractAllClaims(token);
+            return new VerifiedToken(claims.getSubject(), claims.getExpiration(), claims.getIssuedAt(), claims);
+        } catch (JwtException | IllegalArgumentException invalidToken) {
+            outcome = failureReason(invalidToken);
+            tokenFailures.get(outcome).increment();
+            throw invalidToken;
+        } finally {
+            verifyTimer.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+            event.end();
+            if (event.shouldCommit()) {
+                event.outcome = outcome;
+                event.commit();
+            }
+        }
+    }
+
+    // Check if an already verified token belongs to the given user and is not expired
+    public boolean isTokenValid(VerifiedToken verifiedToken, UserDetails userDetails){
+        return subjectOf(userDetails).equals(verifiedToken.subject())
+                && !verifiedToken.isExpired(System.currentTimeMillis());
+    }
+
+    /**
+     * Build a lightweight principal from the claims of a verified token (stateless mode)
+     * - Returns null if the token was not issued with the user's details (e.g. issued before stateless mode)
+     */
+    public TokenPrincipal toPrincipal(VerifiedToken verifiedToken){
+        Claims claims = verifiedToken.claims();
+        if (!(claims.get(CLAIM_USER_ID) instanceof Number userId)) {
+            return null;
+        }
+
+        List<GrantedAuthority> authorities = claims.get(CLAIM_AUTHORITIES) instanceof Collection<?> names
+                ? names.stream().<GrantedAuthority>map(name -> new SimpleGrantedAuthority(name.toString())).toList()
+                : List.of();
+
+        return new TokenPrincipal(
+                userId.longValue(),
+                verifiedToken.subject(),
+                claims.get(CLAIM_USERNAME, String.class),
+                Boolean.TRUE.equals(claims.get(CLAIM_ENABLED, Boolean.class)),
+                authorities);
+    }
+
+    // Check if stateless mode is enabled (security.jwt.stateless in application.properties)
+    public boolean isStateless(){
+        return stateless;
     }
 
     // Extract Username (Subject) from JWT token
@@ -57,8 +188,7 @@ public class JwtService {
 
     // Check if the token is valid or not by verifying the username and expiration status 
     public boolean isTokenValid(String token, UserDetails userDetails){
-        final String username = extractUsername(token); 
-        return (username.equals(userDetails.getUsername())) && !isTokenExpired(token);
+        return isTokenValid(verifyToken(token), userDetails); // single parse instead of one per claim
     }
 
     // Return the configured expiration time (configured in application.properties) for JWT tokens
@@ -70,71 +200,96 @@ public class JwtService {
     
     // 🔹 Private Helper Methods (Internal logic)
     
-    // Return the signing key used for token generation and validation
-    private SecretKey getSignInKey(){
-        byte[] keyBytes = Decoders.BASE64.decode(secretKey);
-        return Keys.hmacShaKeyFor(keyBytes); // Keys.hmacShaKeyFor() returns a SecretKey not Key
+    private static Counter tokenFailureCounter(MeterRegistry meterRegistry, String reason){
+        return Counter.builder("auth.token.failures")
+                .description("Rejected JWT tokens")
+                .tag("reason", reason)
+                .register(meterRegistry);
     }
 
-    // Parses JWT token and retrieves all claims
-    private Claims extractAllClaims(String token){
-        return Jwts
-                .parser() // Start parsing the token
-                .verifyWith(getSignInKey()) // Set signing key for verification
-                .build() //Build parser
-                .parseSignedClaims(token) // Parse the JWT
-                .getPayload(); // Return the claims inside the token
+    // Failure reason of a token that could not be verified (metric tag & JFR event outcome)
+    private static String failureReason(RuntimeException invalidToken){
+        return switch (invalidToken) {
+            case ExpiredJwtException expired -> "expired";
+            case KeyException unknownKey -> "unknown_key"; // Thrown by JwtKeyRing.verificationKey()
+            case SecurityException signatureOrKeyFailure -> "bad_signature"; // e.g. SignatureException
+            case MalformedJwtException malformed -> "malformed";
+            case DecodingException notBase64Url -> "malformed";
+            case IllegalArgumentException emptyToken -> "malformed";
+            default -> "invalid";
+        };
+    }
+
+    /**
+     * The token subject is the value used to load the user back (UserDetailsService looks users up by email),
+     * so for our User entity it is the email, for any other UserDetails it is the username
+     */
+    private static String subjectOf(UserDetails userDetails){
+        if (userDetails instanceof User user) {
+            return user.getEmail();
+        }
+        if (userDetails instanceof TokenPrincipal tokenPrincipal) {
+            return tokenPrincipal.email();
+        }
+        return userDetails.getUsername();
     }
 
-    /* 
-    // Parses JWT token and retrieves all claims (deprecated version)
+    // Claims that describe the user (id, username, enabled flag, authorities), embedded in stateless mode
+    private static Map<String, Object> principalClaims(UserDetails userDetails){
+        Map<String, Object> claims = new HashMap<>();
+        if (userDetails instanceof User user) {
+            claims.put(CLAIM_USER_ID, user.getId());
+        }
+        claims.put(CLAIM_USERNAME, userDetails.getUsername());
+        claims.put(CLAIM_ENABLED, userDetails.isEnabled());
+        claims.put(CLAIM_AUTHORITIES, userDetails.getAuthorities().stream()
+                .map(GrantedAuthority::getAuthority)
+                .toList());
+        return claims;
+    }
+
+    // Parses JWT token and retrieves all claims (using the shared parser)
     private Claims extractAllClaims(String token){
-        return Jwts
-                .parserBuilder() // Start parsing the token
-                .setSigningKey(getSignInKey()) // Set signing key for verification
-                .build() //Build parser
-                .parseClaimsJws(token) // Parse the JWT
-                .getBody(); // Return the claims inside the token
+        return jwtParser
+                .parseSignedClaims(token) // Parse & verify the JWT
+                .getPayload(); // Return the claims inside the token
     }
-    */
 
     // Build a JWT token using claims, user details, and expiration time
     private String buildToken(Map<String, Object> extraClaims, UserDetails userDetails, long expiration) {
-        return Jwts
-                .builder() // Start building the JWT
-                .claims(extraClaims) // Add extra claims (if any)
-                .subject(userDetails.getUsername()) // Set the username (Subject)
+        JwtKeyRing.SigningKey signingKey = keyRing.signingKey();
+        JwtBuilder builder = Jwts.builder(); // Start building the JWT
+        if (signingKey.kid() != null) {
+            builder = builder.header().keyId(signingKey.kid()).and(); // Tells verifiers which public key to use
+        }
+        builder = builder.claims(extraClaims); // Add extra claims (if any)
+        if (userDetails instanceof User user) {
+            builder = builder.claim(CLAIM_TOKEN_EPOCH, user.getTokenEpoch()); // Stale once the user's epoch is bumped
+        }
+        return builder
+                .id(UUID.randomUUID().toString()) // Unique token id ("jti"), so the token can be revoked (logout)
+                .subject(subjectOf(userDetails)) // Set the user's login identifier (Subject)
                 .issuedAt(new Date(System.currentTimeMillis())) // Set issued time to current time
                 .expiration(new Date(System.currentTimeMillis() + expiration)) // Set expiration time
-                .signWith(getSignInKey()) // Sign token using secret key (HS256 (32 bytes =
-                                                                    // 256 bits) and no need to manually specify it)
+                // Sign with the current key, the algorithm follows the key (HS256 secret, ES256 P-256 key, EdDSA Ed25519 key)
+                .signWith(signingKey.key())
                 .compact(); // Generate final JWT string
     }
-    
-    /* 
-    // Build a JWT token using claims, user details, and expiration time (deprecated version)
-    private String buildToken(Map<String, Object> extraClaims, UserDetails userDetails, long expiration) {
-        return Jwts
-                .builder() // Start building the JWT
-                .setClaims(extraClaims) // Add extra claims (if any)
-                .setSubject(userDetails.getUsername()) // Set the username (Subject)
-                .setIssuedAt(new Date(System.currentTimeMillis())) // Set issued time to current time
-                .setExpiration(new Date(System.currentTimeMillis() + expiration)) // Set expiration time
-                .signWith(getSignInKey(), SignatureAlgorithm.HS256) // Sign token using secret key
-                .compact(); // Generate final JWT string
-    }
-    */       
 
-    // Extract the expiration date from a token
-    private Date extractExpiration(String token){
-        return extractClaim(token,Claims::getExpiration);
-    }
 
-    // Check if a token is expired
-    private boolean isTokenExpired(String token){
-        return extractExpiration(token).before(new Date());
-    }
-     
-    
 
+    // Looks the verification key up in the key ring, by the "kid" header of the token
+    private static final class KeyRingLocator extends LocatorAdapter<Key> {
+
+        private final JwtKeyRing keyRing;
+
+        private KeyRingLocator(JwtKeyRing keyRing) {
+            this.keyRing = keyRing;
+        }
+
+        @Override
+        protected Key locate(ProtectedHeader header) {
+            return keyRing.verificationKey(header.getKeyId());
+        }
+    }
 }
@@ -0,0 +1,97 @@
+package com.example.JWT_Login_with_Spring_Boot.service;
+
+import java.time.Duration;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import com.example.JWT_Login_with_Spring_Boot.exception.ServiceOverloadedException;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+
+
+/**
+ * Dedicated, size-bounded thread pool for password hashing & verification (BCrypt).
+ *
+ * - BCrypt is CPU-heavy on purpose, so running it on the request threads lets a burst of logins
+ *   (e.g. credential stuffing) use every core and slow down all other endpoints
+ * - Here at most "threads" hashes run at once, and at most "queueCapacity" wait for a thread
+ * - When the queue is full (or the wait is too long), the request fails fast with ServiceOverloadedException
+ * - Metrics: active hashes, queue depth, and rejections
+ */
+@Service
+public class PasswordHashingExecutor {
+
+    private final ThreadPoolExecutor executor;
+    private final Duration maxWait;
+    private final Counter rejectedCounter;
+
+    public PasswordHashingExecutor(
+            MeterRegistry meterRegistry,
+            @Value("${security.password-hashing.threads:0}") int threads,
+            @Value("${security.password-hashing.queue-capacity:64}") int queueCapacity,
+            @Value("${security.password-hashing.max-wait:5s}") Duration maxWait) {
+        // 0 (default): use half of the CPU cores, leaving the rest for other requests
+        int poolSize = threads > 0 ? threads : Math.max(1, Runtime.getRuntime().availableProcessors() / 2);
+
+        this.executor = new ThreadPoolExecutor(
+                poolSize, poolSize,
+                0L, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(queueCapacity), // Bounded wait queue
+                Thread.ofPlatform().name("password-hashing-", 0).daemon(true).factory(),
+                new ThreadPoolExecutor.AbortPolicy()); // Queue full -> RejectedExecutionException
+        this.maxWait = maxWait;
+
+        meterRegistry.gauge("password.hashing.active", executor, ThreadPoolExecutor::getActiveCount);
+        meterRegistry.gauge("password.hashing.queue.depth", executor, pool -> pool.getQueue().size());
+        this.rejectedCounter = meterRegistry.counter("password.hashing.rejected");
+    }
+
+
+    /**
+     * Run the hashing task on the pool and wait for its result
+     * - Throws ServiceOverloadedException if the task cannot be accepted or does not finish within "maxWait"
+     */
+    public <T> T execute(Callable<T> task) {
+        Future<T> future;
+        try {
+            future = executor.submit(task);
+        } catch (RejectedExecutionException rejectedExecutionException) {
+            rejectedCounter.increment();
+            throw new ServiceOverloadedException("Too many password checks in progress, please try again later", 1);
+        }
+
+        try {
+            return future.get(maxWait.toMillis(), TimeUnit.MILLISECONDS);
+        } catch (TimeoutException timeoutException) {
+            future.cancel(true);
+            rejectedCounter.increment();
+            throw new ServiceOverloadedException("Password check timed out, please try again later", 1);
+        } catch (InterruptedException interruptedException) {
+            future.cancel(true);
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while waiting for password hashing", interruptedException);
+        } catch (ExecutionException executionException) {
+            // Re-throw the task's own exception (e.g. IllegalArgumentException for a malformed hash)
+            if (executionException.getCause() instanceof RuntimeException runtimeException) {
+                throw runtimeException;
+            }
+            throw new IllegalStateException(executionException.getCause());
+        }
+    }
+
+    @PreDestroy
+    void shutdown() {
+        executor.shutdown();
+    }
+}
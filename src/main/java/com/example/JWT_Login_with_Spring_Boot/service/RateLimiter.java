@@ -0,0 +1,93 @@
+package com.example.JWT_Login_with_Spring_Boot.service;
+
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.LongSupplier;
+
+import org.springframework.boot.convert.DurationStyle;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+
+
+/**
+ * Token buckets keyed by a string (client IP, email), "capacity" requests per "period".
+ *
+ * - Each bucket is a single AtomicLong, updated with a compare-and-set (GCRA: the stored value is the time
+ *   at which the bucket would be full again), so an allowed request costs one cache read and one CAS, no lock
+ * - A burst of "capacity" requests is allowed, then one request every period / capacity
+ * - Buckets live in a Caffeine cache bounded to "maximumKeys", and are evicted after being idle for "period":
+ *   by then the bucket is full again, so evicting it loses nothing
+ * - Under key flooding (more live keys than "maximumKeys"), the least recently used buckets are evicted
+ *   and start full again: memory stays bounded, at the cost of a weaker limit for those keys
+ *
+ * Created from a "<capacity>/<period>" spec (e.g. "5/1m") by RateLimitingFilter.
+ */
+public class RateLimiter {
+
+    private final long intervalNanos; // Time to refill one request
+    private final long periodNanos; // Time to refill the whole bucket
+    private final Cache<String, AtomicLong> buckets;
+    private final LongSupplier nanoTime;
+
+    public RateLimiter(int capacity, Duration period, long maximumKeys) {
+        this(capacity, period, maximumKeys, System::nanoTime);
+    }
+
+    // Tests pass their own time source
+    RateLimiter(int capacity, Duration period, long maximumKeys, LongSupplier nanoTime) {
+        if (capacity <= 0 || period.isZero() || period.isNegative()) {
+            throw new IllegalArgumentException("Rate limit must allow at least one request per period");
+        }
+        this.nanoTime = nanoTime;
+        this.periodNanos = period.toNanos();
+        this.intervalNanos = Math.max(1, periodNanos / capacity);
+        this.buckets = Caffeine.newBuilder()
+                .maximumSize(maximumKeys) // Memory cap (number of keys)
+                .expireAfterAccess(period) // Idle buckets are full again, drop them
+                .build();
+    }
+
+    // Parse a "<capacity>/<period>" spec, e.g. "20/1m" (the period uses the usual duration format: 30s, 1m, 15m, 1h)
+    public static RateLimiter of(String spec, long maximumKeys) {
+        int separator = spec.indexOf('/');
+        if (separator < 0) {
+            throw new IllegalArgumentException("Rate limit must be \"<capacity>/<period>\": " + spec);
+        }
+        return new RateLimiter(
+                Integer.parseInt(spec.substring(0, separator).trim()),
+                DurationStyle.detectAndParse(spec.substring(separator + 1).trim()),
+                maximumKeys);
+    }
+
+
+    // 🔹 Public API (Methods used by other classes)
+
+    /**
+     * Take one request from the key's bucket
+     * - Returns 0 if the request is allowed, otherwise the time to wait (nanoseconds) before the next one is
+     * - A rejected request does not use anything, so retrying after the returned time succeeds
+     */
+    public long tryAcquire(String key) {
+        long now = nanoTime.getAsLong();
+        AtomicLong fullAt = buckets.get(key, missingKey -> new AtomicLong(now)); // New keys start with a full bucket
+
+        while (true) {
+            long current = fullAt.get();
+            long next = Math.max(current, now) + intervalNanos;
+            long wait = next - now - periodNanos;
+            if (wait > 0) {
+                return wait; // Bucket empty
+            }
+            if (fullAt.compareAndSet(current, next)) {
+                return 0;
+            }
+            // Another request on the same key won the race, retry with its value
+        }
+    }
+
+    // Number of keys with a bucket in memory (approximate)
+    public long size() {
+        return buckets.estimatedSize();
+    }
+}
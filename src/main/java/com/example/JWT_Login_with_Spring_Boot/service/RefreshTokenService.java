@@ -0,0 +1,199 @@
+package com.example.JWT_Login_with_Spring_Boot.service;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.security.SecureRandom;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.Base64;
+import java.util.HexFormat;
+import java.util.UUID;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.example.JWT_Login_with_Spring_Boot.exception.InvalidRefreshTokenException;
+import com.example.JWT_Login_with_Spring_Boot.model.RefreshToken;
+import com.example.JWT_Login_with_Spring_Boot.model.User;
+import com.example.JWT_Login_with_Spring_Boot.repository.RefreshTokenRepository;
+import com.example.JWT_Login_with_Spring_Boot.repository.UserRepository;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+
+
+/**
+ * Issues and rotates refresh tokens, so access tokens can be short-lived without repeating the (expensive)
+ * password check: renewing an access token is one indexed lookup, one update and one insert.
+ *
+ * - Tokens are 256-bit random values (opaque, not JWTs), only their SHA-256 hash is stored
+ * - Rotation: every refresh marks the token as used and returns a new token of the same family
+ * - Reuse detection: a used token presented again means it was copied (stolen, or replayed by a client),
+ *   so every token of its family is revoked and the user has to log in again
+ * - Expired tokens are deleted in batches (security.jwt.refresh.purge-interval)
+ */
+@Service
+public class RefreshTokenService {
+
+    private static final Logger log = LoggerFactory.getLogger(RefreshTokenService.class);
+
+    private static final int TOKEN_BYTES = 32;
+
+    /**
+     * A new refresh token for the client
+     * - expiresIn: lifetime in milliseconds (same unit as the access token's expiresIn)
+     */
+    public record IssuedRefreshToken(String token, long expiresIn) {
+    }
+
+    // Result of a refresh: the token's user & the refresh token that replaces the used one
+    public record Rotation(User user, IssuedRefreshToken refreshToken) {
+    }
+
+    private final RefreshTokenRepository refreshTokenRepository;
+    private final UserRepository userRepository;
+    private final TransactionTemplate transactionTemplate;
+    private final Duration expiration;
+    private final int purgeBatchSize;
+    private final SecureRandom secureRandom = new SecureRandom();
+
+    // Refresh outcomes (auth.refresh)
+    private final Counter refreshSucceeded;
+    private final Counter refreshInvalid;
+    private final Counter refreshExpired;
+    private final Counter refreshReused;
+
+    public RefreshTokenService(
+            RefreshTokenRepository refreshTokenRepository,
+            UserRepository userRepository,
+            TransactionTemplate transactionTemplate,
+            MeterRegistry meterRegistry,
+            @Value("${security.jwt.refresh.expiration:30d}") Duration expiration,
+            @Value("${security.jwt.refresh.purge-batch-size:1000}") int purgeBatchSize) {
+        this.refreshTokenRepository = refreshTokenRepository;
+        this.userRepository = userRepository;
+        this.transactionTemplate = transactionTemplate;
+        this.expiration = expiration;
+        this.purgeBatchSize = purgeBatchSize;
+
+        this.refreshSucceeded = outcomeCounter(meterRegistry, "success");
+        this.refreshInvalid = outcomeCounter(meterRegistry, "invalid");
+        this.refreshExpired = outcomeCounter(meterRegistry, "expired");
+        this.refreshReused = outcomeCounter(meterRegistry, "reused");
+    }
+
+
+    // 🔹 Public API (Methods used by other classes)
+
+    // Issue the first refresh token of a new family (after a successful login)
+    @Transactional
+    public IssuedRefreshToken issue(User user) {
+        return save(user.getId(), UUID.randomUUID(), LocalDateTime.now());
+    }
+
+    /**
+     * Use a refresh token: mark it as used and issue its replacement (no password hashing involved)
+     * - Throws InvalidRefreshTokenException if the token is unknown, expired, or already used / revoked
+     * - On reuse, the family is revoked and that change is committed even though the exception is thrown
+     */
+    @Transactional(noRollbackFor = InvalidRefreshTokenException.class)
+    public Rotation rotate(String rawToken) {
+        if (rawToken == null || rawToken.isBlank()) {
+            refreshInvalid.increment();
+            throw new InvalidRefreshTokenException("Invalid refresh token");
+        }
+
+        LocalDateTime now = LocalDateTime.now();
+        RefreshToken refreshToken = refreshTokenRepository.findByTokenHashForUpdate(hash(rawToken)).orElse(null);
+        if (refreshToken == null) {
+            refreshInvalid.increment();
+            throw new InvalidRefreshTokenException("Invalid refresh token");
+        }
+
+        if (refreshToken.isSpent()) {
+            int revoked = refreshTokenRepository.revokeFamily(refreshToken.getFamilyId(), now);
+            refreshReused.increment();
+            log.warn("Refresh token reuse detected for user {}, revoked {} token(s) of its family",
+                    refreshToken.getUserId(), revoked);
+            throw new InvalidRefreshTokenException("Refresh token was already used, please log in again");
+        }
+
+        if (!refreshToken.getExpiresAt().isAfter(now)) {
+            refreshExpired.increment();
+            throw new InvalidRefreshTokenException("Refresh token is expired, please log in again");
+        }
+
+        // Accounts can be disabled (or deleted) after the login
+        User user = userRepository.findById(refreshToken.getUserId()).filter(User::isEnabled).orElse(null);
+        if (user == null) {
+            refreshTokenRepository.revokeFamily(refreshToken.getFamilyId(), now);
+            refreshInvalid.increment();
+            throw new InvalidRefreshTokenException("Invalid refresh token");
+        }
+
+        refreshToken.setUsedAt(now); // Flushed when the transaction commits
+        IssuedRefreshToken next = save(user.getId(), refreshToken.getFamilyId(), now);
+        refreshSucceeded.increment();
+        return new Rotation(user, next);
+    }
+
+    // Revoke the family of a refresh token (logout), unknown tokens are ignored
+    @Transactional
+    public void revoke(String rawToken) {
+        if (rawToken == null || rawToken.isBlank()) {
+            return;
+        }
+        refreshTokenRepository.findByTokenHashForUpdate(hash(rawToken))
+                .ifPresent(refreshToken -> refreshTokenRepository.revokeFamily(
+                        refreshToken.getFamilyId(), LocalDateTime.now()));
+    }
+
+    // Delete expired tokens (in batches, to keep transactions short)
+    @Scheduled(fixedDelayString = "${security.jwt.refresh.purge-interval:1h}")
+    public void purgeExpired() {
+        LocalDateTime expiredBefore = LocalDateTime.now();
+        Integer deleted;
+        do {
+            deleted = transactionTemplate.execute(
+                    status -> refreshTokenRepository.deleteExpiredBefore(expiredBefore, purgeBatchSize));
+        } while (deleted != null && deleted == purgeBatchSize);
+    }
+
+
+
+    // 🔹 Private Helper Methods (Internal logic)
+
+    // Create a random token, store its hash, and return the token itself (the only time it exists in clear)
+    private IssuedRefreshToken save(Long userId, UUID familyId, LocalDateTime now) {
+        byte[] randomBytes = new byte[TOKEN_BYTES];
+        secureRandom.nextBytes(randomBytes);
+        String rawToken = Base64.getUrlEncoder().withoutPadding().encodeToString(randomBytes);
+
+        refreshTokenRepository.save(new RefreshToken(hash(rawToken), familyId, userId, now, now.plus(expiration)));
+        return new IssuedRefreshToken(rawToken, expiration.toMillis());
+    }
+
+    /**
+     * Hex SHA-256 of the token
+     * - No salt / slow hash needed: the token is 256 random bits, not a password that can be guessed
+     */
+    private static String hash(String rawToken) {
+        try {
+            MessageDigest messageDigest = MessageDigest.getInstance("SHA-256");
+            return HexFormat.of().formatHex(messageDigest.digest(rawToken.getBytes(StandardCharsets.UTF_8)));
+        } catch (NoSuchAlgorithmException exception) {
+            // SHA-256 is required to be available in every Java platform
+            throw new IllegalStateException(exception);
+        }
+    }
+
+    private static Counter outcomeCounter(MeterRegistry meterRegistry, String outcome) {
+        return Counter.builder("auth.refresh").tag("outcome", outcome).register(meterRegistry);
+    }
+}
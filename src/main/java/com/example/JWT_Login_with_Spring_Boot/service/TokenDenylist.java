@@ -0,0 +1,195 @@
+package com.example.JWT_Login_with_Spring_Boot.service;
+
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import com.example.JWT_Login_with_Spring_Boot.exception.ServiceOverloadedException;
+import com.example.JWT_Login_with_Spring_Boot.model.VerifiedToken;
+
+
+/**
+ * In-memory index of revoked access tokens (by "jti"), checked by JwtAuthenticationFilter on every request.
+ *
+ * - A Bloom filter sits in front of an exact set: a token that was never revoked (almost every request)
+ *   is answered by a few bit reads, without touching the set; the set removes the filter's false positives
+ * - Lookups are lock-free and O(1) (k bit reads, then at most one hash map lookup)
+ * - Writes (revoke, purgeExpired) share one lock: they are rare (logout, sync, purge), and the lock keeps
+ *   a revocation from being lost while the Bloom filter is rebuilt. The request path (isRevoked) never takes it.
+ * - Entries expire at the token's own "exp": purgeExpired() drops them and rebuilds the Bloom filter
+ *   for the remaining entries, so memory is bounded by the revocations made during one token lifetime
+ * - Hard cap of "maxEntries": once reached (after dropping the expired entries), new revocations are refused
+ *   with ServiceOverloadedException ("503", the client retries) rather than evicting a revocation that is still
+ *   needed, which would let a revoked token through
+ * - Persistence (startup load, sync between nodes) is done by TokenRevocationService
+ */
+@Service
+public class TokenDenylist {
+
+    private static final long RETRY_AFTER_SECONDS = 60;
+
+    private final int expectedEntries;
+    private final double falsePositiveRate;
+    private final int maxEntries;
+
+    private final ConcurrentHashMap<String, Long> revoked = new ConcurrentHashMap<>(); // jti -> "exp" (milliseconds)
+    private volatile BloomFilter bloomFilter;
+
+    public TokenDenylist(
+            @Value("${security.jwt.revocation.expected-entries:100000}") int expectedEntries,
+            @Value("${security.jwt.revocation.false-positive-rate:0.01}") double falsePositiveRate,
+            @Value("${security.jwt.revocation.max-entries:1000000}") int maxEntries) {
+        this.expectedEntries = expectedEntries;
+        this.falsePositiveRate = falsePositiveRate;
+        this.maxEntries = maxEntries;
+        this.bloomFilter = new BloomFilter(expectedEntries, falsePositiveRate);
+    }
+
+
+    // 🔹 Public API (Methods used by other classes)
+
+    // Check if the token was revoked (tokens without "jti" cannot be revoked individually)
+    public boolean isRevoked(VerifiedToken verifiedToken) {
+        String jti = verifiedToken.tokenId();
+        return jti != null && isRevoked(jti);
+    }
+
+    public boolean isRevoked(String jti) {
+        if (!bloomFilter.mightContain(jti)) {
+            return false; // Definitely not revoked (fast path)
+        }
+        return revoked.containsKey(jti); // Rules out the false positives of the Bloom filter
+    }
+
+    /**
+     * Revoke a token until its expiration
+     * - Synchronized with purgeExpired(), so a revocation is never lost while the Bloom filter is rebuilt
+     *   (revocations are rare, lookups never take this lock)
+     * - Throws ServiceOverloadedException if "maxEntries" tokens are already revoked and none has expired
+     */
+    public synchronized void revoke(String jti, long expiresAtMillis) {
+        ensureCapacityFor(jti);
+        revoked.put(jti, expiresAtMillis);
+        bloomFilter.put(jti);
+    }
+
+    /**
+     * Check that revoke(jti, ...) would not exceed "maxEntries" (the expired entries are dropped first if needed)
+     * - Throws ServiceOverloadedException otherwise, so callers can refuse a revocation before persisting it
+     */
+    public synchronized void ensureCapacityFor(String jti) {
+        if (revoked.size() >= maxEntries && !revoked.containsKey(jti)) {
+            purgeExpired(System.currentTimeMillis());
+            if (revoked.size() >= maxEntries) {
+                throw new ServiceOverloadedException(
+                        "Too many revoked tokens, please try again later", RETRY_AFTER_SECONDS);
+            }
+        }
+    }
+
+    /**
+     * Drop the revocations of expired tokens, and rebuild the Bloom filter for the remaining ones
+     * (a Bloom filter cannot remove entries, rebuilding also keeps its false-positive rate low)
+     */
+    public synchronized void purgeExpired(long nowMillis) {
+        revoked.values().removeIf(expiresAtMillis -> expiresAtMillis <= nowMillis);
+
+        BloomFilter rebuilt = new BloomFilter(Math.max(expectedEntries, revoked.size() * 2), falsePositiveRate);
+        revoked.keySet().forEach(rebuilt::put);
+        bloomFilter = rebuilt;
+    }
+
+    // Number of revoked tokens in memory
+    public int size() {
+        return revoked.size();
+    }
+
+    // Most revoked tokens kept in memory (security.jwt.revocation.max-entries)
+    public int maxEntries() {
+        return maxEntries;
+    }
+
+    // Memory used by the Bloom filter bits
+    public long bloomFilterBytes() {
+        return bloomFilter.sizeInBytes();
+    }
+
+
+
+    // 🔹 Private Helper Methods (Internal logic)
+
+    /**
+     * Fixed-size Bloom filter of strings
+     * - m bits (rounded up to a power of two) & k hash functions, sized for "expectedEntries" at "falsePositiveRate"
+     * - The k bit positions come from two 64-bit hashes (double hashing: h1 + i * h2)
+     * - Bits are only set under the TokenDenylist lock, AtomicLongArray makes them visible to lock-free readers
+     */
+    private static final class BloomFilter {
+
+        private final AtomicLongArray words;
+        private final long bitMask;
+        private final int hashFunctions;
+
+        private BloomFilter(int expectedEntries, double falsePositiveRate) {
+            int entries = Math.max(1, expectedEntries);
+            double optimalBits = -entries * Math.log(falsePositiveRate) / (Math.log(2) * Math.log(2));
+            long bits = Long.highestOneBit(Math.max(64L, (long) Math.ceil(optimalBits)) - 1) << 1;
+
+            this.words = new AtomicLongArray(Math.toIntExact(bits / 64));
+            this.bitMask = bits - 1;
+            this.hashFunctions = Math.max(1, (int) Math.round(bits / (double) entries * Math.log(2)));
+        }
+
+        void put(String value) {
+            long hash1 = hash(value);
+            long hash2 = mix(hash1 ^ 0x9E3779B97F4A7C15L) | 1; // Odd, so the k positions are all different
+            for (int i = 0; i < hashFunctions; i++) {
+                long bit = (hash1 + i * hash2) & bitMask;
+                int word = (int) (bit >>> 6);
+                long mask = 1L << bit;
+                long current = words.get(word);
+                if ((current & mask) == 0) {
+                    words.set(word, current | mask); // Single writer (under the TokenDenylist lock)
+                }
+            }
+        }
+
+        boolean mightContain(String value) {
+            long hash1 = hash(value);
+            long hash2 = mix(hash1 ^ 0x9E3779B97F4A7C15L) | 1;
+            for (int i = 0; i < hashFunctions; i++) {
+                long bit = (hash1 + i * hash2) & bitMask;
+                if ((words.get((int) (bit >>> 6)) & (1L << bit)) == 0) {
+                    return false;
+                }
+            }
+            return true;
+        }
+
+        long sizeInBytes() {
+            return words.length() * 8L;
+        }
+
+        // 64-bit FNV-1a over the characters, then a finalizer so every bit depends on every character
+        private static long hash(String value) {
+            long hash = 0xCBF29CE484222325L;
+            for (int i = 0; i < value.length(); i++) {
+                hash ^= value.charAt(i);
+                hash *= 0x100000001B3L;
+            }
+            return mix(hash);
+        }
+
+        // MurmurHash3 64-bit finalizer
+        private static long mix(long hash) {
+            hash ^= hash >>> 33;
+            hash *= 0xFF51AFD7ED558CCDL;
+            hash ^= hash >>> 33;
+            hash *= 0xC4CEB9FE1A85EC53L;
+            hash ^= hash >>> 33;
+            return hash;
+        }
+    }
+}
@@ -0,0 +1,73 @@
+package com.example.JWT_Login_with_Spring_Boot.service;
+
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import com.example.JWT_Login_with_Spring_Boot.model.VerifiedToken;
+
+
+/**
+ * In-memory map of the users whose token epoch changed recently (email -> epoch), checked by
+ * JwtAuthenticationFilter on every request: a token whose "epoch" claim is lower than the user's epoch is stale.
+ *
+ * - Only recent changes are kept: once a change is older than the access token lifetime, every token issued
+ *   before it has expired anyway, so the entry is dropped (purgeExpired()). The map stays small, and a user
+ *   without an entry costs one hash map lookup
+ * - Tokens without "epoch" claim (issued before epochs were supported) count as epoch 0
+ * - Persistence (startup load, sync between nodes) is done by TokenRevocationService
+ */
+@Service
+public class TokenEpochRegistry {
+
+    // Epoch of a user & when it changed (milliseconds)
+    private record Change(int epoch, long changedAtMillis) {
+    }
+
+    private final long retentionMillis;
+    private final ConcurrentHashMap<String, Change> changes = new ConcurrentHashMap<>(); // email -> latest change
+
+    public TokenEpochRegistry(@Value("${security.jwt.expiration-time}") long jwtExpiration) {
+        this.retentionMillis = jwtExpiration;
+    }
+
+
+    // 🔹 Public API (Methods used by other classes)
+
+    // Check if the token was issued before the last epoch change of its user
+    public boolean isStale(VerifiedToken verifiedToken) {
+        if (changes.isEmpty() || verifiedToken.subject() == null) {
+            return false; // Fast path: no recent change at all
+        }
+        Change change = changes.get(verifiedToken.subject());
+        if (change == null) {
+            return false;
+        }
+        int tokenEpoch = verifiedToken.claims().get(JwtService.CLAIM_TOKEN_EPOCH) instanceof Number epoch
+                ? epoch.intValue()
+                : 0;
+        return tokenEpoch < change.epoch();
+    }
+
+    // Record a new epoch for the user (an older epoch, e.g. replayed by a late sync, never replaces a newer one)
+    public void update(String email, int epoch, long changedAtMillis) {
+        changes.merge(email, new Change(epoch, changedAtMillis),
+                (current, next) -> next.epoch() > current.epoch() ? next : current);
+    }
+
+    // Drop the changes older than the token lifetime (no token issued before them is still valid)
+    public void purgeExpired(long nowMillis) {
+        changes.values().removeIf(change -> change.changedAtMillis() + retentionMillis <= nowMillis);
+    }
+
+    // How far back changes matter (the access token lifetime, in milliseconds)
+    public long retentionMillis() {
+        return retentionMillis;
+    }
+
+    // Number of users with a recent epoch change
+    public int size() {
+        return changes.size();
+    }
+}
@@ -0,0 +1,204 @@
+package com.example.JWT_Login_with_Spring_Boot.service;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.List;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.example.JWT_Login_with_Spring_Boot.model.RevokedToken;
+import com.example.JWT_Login_with_Spring_Boot.model.User;
+import com.example.JWT_Login_with_Spring_Boot.model.VerifiedToken;
+import com.example.JWT_Login_with_Spring_Boot.repository.RefreshTokenRepository;
+import com.example.JWT_Login_with_Spring_Boot.repository.RevokedTokenRepository;
+import com.example.JWT_Login_with_Spring_Boot.repository.UserRepository;
+import com.example.JWT_Login_with_Spring_Boot.repository.UserRepository.TokenEpochChange;
+
+import jakarta.annotation.PostConstruct;
+
+
+/**
+ * Revokes access tokens and keeps the in-memory indexes in sync with the database.
+ *
+ * - revoke(): one token (logout), written to the revoked_tokens table and to TokenDenylist
+ * - revokeAll(): every token of a user (password change, account disabled), by bumping the user's token epoch
+ *   (TokenEpochRegistry) and revoking the user's refresh tokens
+ * - At startup, both indexes are rebuilt from what is still relevant (tokens not expired yet)
+ * - Every "sync-interval", changes made by other nodes are added (indexed queries on revoked_at / token_epoch_changed_at)
+ * - Every "purge-interval", expired entries are dropped from memory and expired revocations deleted (in batches)
+ *
+ * The request path never queries the database: JwtAuthenticationFilter only reads TokenDenylist & TokenEpochRegistry.
+ */
+@Service
+public class TokenRevocationService {
+
+    private static final Logger log = LoggerFactory.getLogger(TokenRevocationService.class);
+
+    private final RevokedTokenRepository revokedTokenRepository;
+    private final UserRepository userRepository;
+    private final RefreshTokenRepository refreshTokenRepository;
+    private final TokenDenylist tokenDenylist;
+    private final TokenEpochRegistry tokenEpochRegistry;
+    private final TransactionTemplate transactionTemplate;
+    private final Duration syncInterval;
+    private final int purgeBatchSize;
+
+    private LocalDateTime lastSync; // Only used by the scheduled sync
+
+    public TokenRevocationService(
+            RevokedTokenRepository revokedTokenRepository,
+            UserRepository userRepository,
+            RefreshTokenRepository refreshTokenRepository,
+            TokenDenylist tokenDenylist,
+            TokenEpochRegistry tokenEpochRegistry,
+            TransactionTemplate transactionTemplate,
+            @Value("${security.jwt.revocation.sync-interval:10s}") Duration syncInterval,
+            @Value("${security.jwt.revocation.purge-batch-size:1000}") int purgeBatchSize) {
+        this.revokedTokenRepository = revokedTokenRepository;
+        this.userRepository = userRepository;
+        this.refreshTokenRepository = refreshTokenRepository;
+        this.tokenDenylist = tokenDenylist;
+        this.tokenEpochRegistry = tokenEpochRegistry;
+        this.transactionTemplate = transactionTemplate;
+        this.syncInterval = syncInterval;
+        this.purgeBatchSize = purgeBatchSize;
+    }
+
+
+    // 🔹 Public API (Methods used by other classes)
+
+    /**
+     * Revoke a verified access token until its expiration
+     * - Throws IllegalArgumentException for tokens without "jti" (issued before revocation was supported)
+     * - Throws ServiceOverloadedException if the denylist is full (checked before writing the row)
+     * - Added to the denylist once committed, like revokeAll(): a rolled back revocation never rejects a valid token
+     */
+    @Transactional
+    public void revoke(VerifiedToken verifiedToken) {
+        String jti = verifiedToken.tokenId();
+        if (jti == null || verifiedToken.expiration() == null) {
+            throw new IllegalArgumentException("Token cannot be revoked");
+        }
+
+        tokenDenylist.ensureCapacityFor(jti);
+        long expiresAtMillis = verifiedToken.expiration().getTime();
+        revokedTokenRepository.save(new RevokedToken(jti, toLocalDateTime(expiresAtMillis), LocalDateTime.now()));
+        afterCommit(() -> tokenDenylist.revoke(jti, expiresAtMillis)); // This node, right away; others on their next sync
+    }
+
+    /**
+     * Revoke every token of the user: bump the token epoch (so tokens issued so far are stale)
+     * and revoke all the user's refresh tokens
+     * - Must run inside the transaction that saves the user (the caller saves it)
+     * - The new epoch is applied in memory once committed, a rolled back change never rejects valid tokens
+     */
+    @Transactional
+    public void revokeAll(User user) {
+        LocalDateTime now = LocalDateTime.now();
+        user.setTokenEpoch(user.getTokenEpoch() + 1);
+        user.setTokenEpochChangedAt(now);
+        refreshTokenRepository.revokeAllForUser(user.getId(), now);
+
+        String email = user.getEmail();
+        int epoch = user.getTokenEpoch();
+        long changedAtMillis = toEpochMillis(now);
+        afterCommit(() -> tokenEpochRegistry.update(email, epoch, changedAtMillis));
+    }
+
+
+
+    // 🔹 Lifecycle & background jobs
+
+    // Rebuild the denylist & the epoch registry before the application serves requests
+    @PostConstruct
+    void load() {
+        LocalDateTime now = LocalDateTime.now();
+        List<RevokedToken> revokedTokens = transactionTemplate.execute(
+                status -> revokedTokenRepository.findByExpiresAtAfter(now));
+        revokedTokens.forEach(this::addToDenylist);
+
+        // Epoch changes older than the token lifetime no longer matter (every token issued before them has expired)
+        LocalDateTime relevantSince = now.minus(Duration.ofMillis(tokenEpochRegistry.retentionMillis()));
+        List<TokenEpochChange> epochChanges = transactionTemplate.execute(
+                status -> userRepository.findTokenEpochChangesAfter(relevantSince));
+        epochChanges.forEach(this::addToEpochRegistry);
+
+        lastSync = now;
+        log.info("Token denylist loaded with {} revoked token(s), {} recent token epoch change(s)",
+                revokedTokens.size(), epochChanges.size());
+    }
+
+    // Add the revocations & epoch changes made by other nodes since the last sync
+    @Scheduled(fixedDelayString = "${security.jwt.revocation.sync-interval:10s}")
+    public void sync() {
+        LocalDateTime now = LocalDateTime.now();
+        // Overlap with the previous sync, so a row committed late (or a node clock slightly behind) is not missed
+        LocalDateTime since = lastSync.minus(syncInterval);
+        transactionTemplate.execute(status -> revokedTokenRepository.findByRevokedAtAfterAndExpiresAtAfter(since, now))
+                .forEach(this::addToDenylist);
+        transactionTemplate.execute(status -> userRepository.findTokenEpochChangesAfter(since))
+                .forEach(this::addToEpochRegistry);
+        lastSync = now;
+    }
+
+    // Drop expired entries from memory, and delete expired revocations from the table (in batches, to keep transactions short)
+    @Scheduled(fixedDelayString = "${security.jwt.revocation.purge-interval:5m}")
+    public void purgeExpired() {
+        long nowMillis = System.currentTimeMillis();
+        tokenDenylist.purgeExpired(nowMillis);
+        tokenEpochRegistry.purgeExpired(nowMillis);
+
+        LocalDateTime expiredBefore = LocalDateTime.now();
+        Integer deleted;
+        do {
+            deleted = transactionTemplate.execute(
+                    status -> revokedTokenRepository.deleteExpiredBefore(expiredBefore, purgeBatchSize));
+        } while (deleted != null && deleted == purgeBatchSize);
+    }
+
+
+
+    // 🔹 Private Helper Methods (Internal logic)
+
+    // Apply an in-memory change once the current transaction commits (right away if there is none)
+    private static void afterCommit(Runnable change) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    change.run();
+                }
+            });
+        } else {
+            change.run();
+        }
+    }
+
+    private void addToDenylist(RevokedToken revokedToken) {
+        if (!tokenDenylist.isRevoked(revokedToken.getJti())) {
+            tokenDenylist.revoke(revokedToken.getJti(), toEpochMillis(revokedToken.getExpiresAt()));
+        }
+    }
+
+    private void addToEpochRegistry(TokenEpochChange change) {
+        tokenEpochRegistry.update(change.getEmail(), change.getTokenEpoch(), toEpochMillis(change.getChangedAt()));
+    }
+
+    private static LocalDateTime toLocalDateTime(long epochMillis) {
+        return LocalDateTime.ofInstant(Instant.ofEpochMilli(epochMillis), ZoneId.systemDefault());
+    }
+
+    private static long toEpochMillis(LocalDateTime localDateTime) {
+        return localDateTime.atZone(ZoneId.systemDefault()).toInstant().toEpochMilli();
+    }
+}
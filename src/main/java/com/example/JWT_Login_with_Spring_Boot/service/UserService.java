@@ -1,12 +1,20 @@
 package com.example.JWT_Login_with_Spring_Boot.service;
 
-import java.util.ArrayList;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
 import java.util.List;
 
+import org.springframework.data.domain.Limit;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowMapper;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
-import com.example.JWT_Login_with_Spring_Boot.model.User;
 import com.example.JWT_Login_with_Spring_Boot.repository.UserRepository;
+import com.example.JWT_Login_with_Spring_Boot.responses.UserResponse;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
 
 /**
  * The @Service annotation tells Spring that this class is a service bean,
@@ -15,29 +23,76 @@ import com.example.JWT_Login_with_Spring_Boot.repository.UserRepository;
  */
 @Service
 /**
- * Retrieves all users from database
+ * Retrieves users from database (page by page, or as a stream)
  * it acts as bridge between data access layer & other parts
  */
 public class UserService {
+
+    // One page of the streaming endpoint (same fields as UserResponse), keyset pagination on the primary key
+    private static final String USERS_PAGE_SQL =
+            "SELECT id, username, email, enabled FROM users WHERE id > ? ORDER BY id LIMIT ?";
+    private static final RowMapper<UserResponse> USER_RESPONSE = (resultSet, rowNumber) -> new UserResponse(
+            resultSet.getLong("id"),
+            resultSet.getString("username"),
+            resultSet.getString("email"),
+            resultSet.getBoolean("enabled"));
+
     private final UserRepository userRepository;
+    private final JdbcTemplate jdbcTemplate;
+    private final ObjectMapper objectMapper;
 
-    public UserService(UserRepository userRepository, EmailService emailService) {
+    public UserService(UserRepository userRepository, JdbcTemplate jdbcTemplate, ObjectMapper objectMapper) {
         this.userRepository = userRepository;
+        this.jdbcTemplate = jdbcTemplate;
+        this.objectMapper = objectMapper;
+    }
+
+    /**
+     * Retrieve one page of users using keyset (seek) pagination on the id
+     * - after: the last id of the previous page (null for the first page)
+     * - the database seeks directly to "id > after" using the primary key index,
+     *   so every page costs the same no matter how deep it is (unlike OFFSET)
+     * - only the exposed columns are selected (UserResponse projection), read-only transaction (no dirty checking)
+     */
+    @Transactional(readOnly = true)
+    public List<UserResponse> usersPage(Long after, int limit){
+        return userRepository.findByIdGreaterThanOrderByIdAsc(
+                after == null ? Long.MIN_VALUE : after, Limit.of(limit), UserResponse.class);
     }
 
-    // Retrieve all the users from database using userRepository
-    public List<User> allUsers(){
-        List<User> users = new ArrayList<>();
-
-        /**
-         * - users::add : is called method reference ( object::methodName )
-         * - the equivalent lambda expression (parameter1, parameter2, ... -> Body): user -> users.add(user)
-         * - .forEach : for each user we get, use .users.add() to add it into the list
-         * - forEach: for(type var:Array) -> for(User user:users)
-         */
-        userRepository.findAll().forEach(users::add);
-        
-        return users;
+    /**
+     * Write all users as a JSON array into "outputStream", one page at a time
+     * - each page is one short query ("id > last id", keyset pagination): the pooled connection is returned
+     *   between pages, so a slow client never holds a connection or a transaction while it reads
+     * - JSON is written incrementally and flushed after every page, so memory use only depends on "pageSize"
+     */
+    public void streamUsers(OutputStream outputStream, int pageSize){
+        try (JsonGenerator generator = objectMapper.getFactory().createGenerator(outputStream)) {
+            generator.writeStartArray();
+
+            long after = Long.MIN_VALUE;
+            List<UserResponse> page;
+            do {
+                page = jdbcTemplate.query(USERS_PAGE_SQL, USER_RESPONSE, after, pageSize);
+                for (UserResponse user : page) {
+                    generator.writeStartObject();
+                    generator.writeNumberField("id", user.id());
+                    generator.writeStringField("username", user.username());
+                    generator.writeStringField("email", user.email());
+                    generator.writeBooleanField("enabled", user.enabled());
+                    generator.writeEndObject();
+                }
+                generator.flush(); // Push each page to the client instead of buffering it
+
+                if (!page.isEmpty()) {
+                    after = page.get(page.size() - 1).id();
+                }
+            } while (page.size() == pageSize);
+
+            generator.writeEndArray();
+        } catch (IOException exception) {
+            throw new UncheckedIOException(exception);
+        }
     }
     
 }
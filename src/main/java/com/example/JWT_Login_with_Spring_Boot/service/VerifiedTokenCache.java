@@ -0,0 +1,120 @@
+package com.example.JWT_Login_with_Spring_Boot.service;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import com.example.JWT_Login_with_Spring_Boot.model.VerifiedToken;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
+import com.github.benmanes.caffeine.cache.stats.CacheStats;
+
+
+/**
+ * Size-bounded cache of already verified JWT tokens.
+ *
+ * - The same bearer token is sent many times during its lifetime, so the signature check
+ *   and JSON parsing are done once and the VerifiedToken is reused until the token's "exp"
+ * - Keyed by a SHA-256 digest of the token, so the raw token string is not kept in memory
+ * - Entries are evicted when the token expires, or when the cache reaches its maximum size
+ */
+@Service
+public class VerifiedTokenCache {
+
+    private final boolean enabled;
+    private final Cache<ByteBuffer, VerifiedToken> cache;
+
+    public VerifiedTokenCache(
+            @Value("${security.jwt.cache.enabled:true}") boolean enabled,
+            @Value("${security.jwt.cache.maximum-size:10000}") long maximumSize) {
+        this.enabled = enabled;
+        this.cache = Caffeine.newBuilder()
+                .maximumSize(maximumSize) // Memory cap (number of tokens)
+                .expireAfter(new TokenExpiry()) // Each entry lives until its own token expires
+                .recordStats() // Hit / miss / eviction counters
+                .build();
+    }
+
+
+    /**
+     * Return the cached VerifiedToken for this token, or verify it using "verifier" and cache the result.
+     * Invalid tokens are never cached (the verifier exception is passed to the caller).
+     */
+    public VerifiedToken get(String token, Function<String, VerifiedToken> verifier) {
+        if (!enabled) {
+            return verifier.apply(token);
+        }
+
+        VerifiedToken verifiedToken = cache.get(digest(token), key -> verifier.apply(token));
+
+        // Guard against the (tiny) window between the token's "exp" and the eviction of the entry
+        if (verifiedToken.isExpired(System.currentTimeMillis())) {
+            cache.invalidate(digest(token));
+            return verifier.apply(token); // Let the verifier throw the proper ExpiredJwtException
+        }
+        return verifiedToken;
+    }
+
+    // Remove a token from the cache (e.g. when it must not be trusted anymore)
+    public void invalidate(String token) {
+        cache.invalidate(digest(token));
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    // Hit, miss, and eviction counters of the cache
+    public CacheStats stats() {
+        return cache.stats();
+    }
+
+    public long size() {
+        return cache.estimatedSize();
+    }
+
+
+
+    // 🔹 Private Helper Methods (Internal logic)
+
+    // SHA-256 digest of the token, ByteBuffer is used as key because it has content-based equals & hashCode
+    private static ByteBuffer digest(String token) {
+        try {
+            MessageDigest messageDigest = MessageDigest.getInstance("SHA-256");
+            return ByteBuffer.wrap(messageDigest.digest(token.getBytes(StandardCharsets.UTF_8)));
+        } catch (NoSuchAlgorithmException exception) {
+            // SHA-256 is required to be available in every Java platform
+            throw new IllegalStateException(exception);
+        }
+    }
+
+    // Tells Caffeine how long each entry lives: until the "exp" claim of the cached token
+    private static final class TokenExpiry implements Expiry<ByteBuffer, VerifiedToken> {
+
+        @Override
+        public long expireAfterCreate(ByteBuffer key, VerifiedToken value, long currentTime) {
+            if (value.expiration() == null) {
+                return Long.MAX_VALUE;
+            }
+            long remainingMillis = value.expiration().getTime() - System.currentTimeMillis();
+            return TimeUnit.MILLISECONDS.toNanos(Math.max(0, remainingMillis));
+        }
+
+        @Override
+        public long expireAfterUpdate(ByteBuffer key, VerifiedToken value, long currentTime, long currentDuration) {
+            return currentDuration; // Keep the original expiration
+        }
+
+        @Override
+        public long expireAfterRead(ByteBuffer key, VerifiedToken value, long currentTime, long currentDuration) {
+            return currentDuration; // Reading a token does not extend its lifetime
+        }
+    }
+}
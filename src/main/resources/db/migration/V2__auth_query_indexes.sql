@@ -0,0 +1,23 @@
+-- Indexes for the queries run by the authentication flow
+
+-- Case-insensitive email lookups (UserRepository: lower(email) = lower(:email)), used on every login / verify / resend
+CREATE INDEX IF NOT EXISTS idx_users_email_lower ON users (lower(email));
+
+-- Verification code lookups, partial index over unverified accounts only:
+-- verified accounts have no code, so they are left out and the index stays small
+CREATE INDEX IF NOT EXISTS idx_users_unverified_verification_code
+    ON users (verification_code)
+    WHERE enabled = false;
+
+-- Email outbox relay: rows that are ready to be claimed (partial indexes, sent / dead rows are left out)
+CREATE INDEX IF NOT EXISTS idx_email_outbox_pending
+    ON email_outbox (next_attempt_at)
+    WHERE status = 'PENDING';
+CREATE INDEX IF NOT EXISTS idx_email_outbox_processing
+    ON email_outbox (locked_until)
+    WHERE status = 'PROCESSING';
+
+-- Email outbox purge of sent rows
+CREATE INDEX IF NOT EXISTS idx_email_outbox_sent
+    ON email_outbox (sent_at)
+    WHERE status = 'SENT';
@@ -0,0 +1,26 @@
+-- Refresh tokens (RefreshTokenService): opaque tokens, only their SHA-256 hash is stored
+
+CREATE SEQUENCE IF NOT EXISTS refresh_tokens_seq START WITH 1 INCREMENT BY 50;
+
+CREATE TABLE IF NOT EXISTS refresh_tokens (
+    id          BIGINT       NOT NULL,
+    token_hash  VARCHAR(64)  NOT NULL, -- Hex SHA-256 of the token
+    family_id   UUID         NOT NULL, -- Same for every token rotated from the same login
+    user_id     BIGINT       NOT NULL,
+    created_at  TIMESTAMP(6) NOT NULL,
+    expires_at  TIMESTAMP(6) NOT NULL,
+    used_at     TIMESTAMP(6),          -- Set when the token is rotated (a second use is a reuse)
+    revoked_at  TIMESTAMP(6),
+    CONSTRAINT refresh_tokens_pkey PRIMARY KEY (id),
+    CONSTRAINT uk_refresh_tokens_token_hash UNIQUE (token_hash), -- Lookup on every refresh
+    CONSTRAINT fk_refresh_tokens_user FOREIGN KEY (user_id) REFERENCES users (id) ON DELETE CASCADE
+);
+
+-- Reuse detection revokes a whole family
+CREATE INDEX IF NOT EXISTS idx_refresh_tokens_family ON refresh_tokens (family_id);
+
+-- Foreign key (user deletes) & revoking every token of a user
+CREATE INDEX IF NOT EXISTS idx_refresh_tokens_user ON refresh_tokens (user_id);
+
+-- Batch purge of expired tokens
+CREATE INDEX IF NOT EXISTS idx_refresh_tokens_expires_at ON refresh_tokens (expires_at);
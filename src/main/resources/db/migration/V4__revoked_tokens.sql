@@ -0,0 +1,15 @@
+-- Revoked access tokens (logout), by "jti" claim: loaded into TokenDenylist at startup and synced between nodes
+-- Rows are only needed until the token expires, then they are purged in batches
+
+CREATE TABLE IF NOT EXISTS revoked_tokens (
+    jti         VARCHAR(64)  NOT NULL,
+    expires_at  TIMESTAMP(6) NOT NULL, -- "exp" of the revoked token
+    revoked_at  TIMESTAMP(6) NOT NULL,
+    CONSTRAINT revoked_tokens_pkey PRIMARY KEY (jti)
+);
+
+-- Startup load (not expired yet) & batch purge (expired)
+CREATE INDEX IF NOT EXISTS idx_revoked_tokens_expires_at ON revoked_tokens (expires_at);
+
+-- Periodic sync of the revocations made by other nodes
+CREATE INDEX IF NOT EXISTS idx_revoked_tokens_revoked_at ON revoked_tokens (revoked_at);
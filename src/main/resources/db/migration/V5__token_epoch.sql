@@ -0,0 +1,10 @@
+-- Per-user token epoch: embedded in every access token ("epoch" claim), bumped to invalidate all the user's tokens
+-- (password change, account disabled). Nodes keep the recent changes in memory (TokenEpochRegistry).
+
+ALTER TABLE users ADD COLUMN IF NOT EXISTS token_epoch INTEGER NOT NULL DEFAULT 0;
+ALTER TABLE users ADD COLUMN IF NOT EXISTS token_epoch_changed_at TIMESTAMP(6);
+
+-- Startup load & periodic sync of the recent changes (partial index, users whose epoch never changed are left out)
+CREATE INDEX IF NOT EXISTS idx_users_token_epoch_changed_at
+    ON users (token_epoch_changed_at)
+    WHERE token_epoch_changed_at IS NOT NULL;
@@ -0,0 +1,4 @@
+-- Claim token of the email outbox: a new random value each time a relay claims a row, so only the relay holding
+-- the current claim can record the result (a relay whose lease ran out cannot overwrite the next claim).
+
+ALTER TABLE email_outbox ADD COLUMN IF NOT EXISTS claim_token UUID;
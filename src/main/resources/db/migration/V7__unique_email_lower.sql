@@ -0,0 +1,7 @@
+-- Emails are unique case-insensitively: "A@x.com" and "a@x.com" are the same account (findByEmail compares
+-- lower(email)). The unique index makes the database reject the second of two concurrent signups, which the
+-- signup endpoint reports as "409 Conflict". It replaces the plain lookup index of V2 (same column, same queries).
+-- Fails if case-variant duplicates already exist: merge or delete them first.
+
+DROP INDEX IF EXISTS idx_users_email_lower;
+CREATE UNIQUE INDEX IF NOT EXISTS uk_users_email_lower ON users (lower(email));
@@ -0,0 +1,39 @@
+package com.example.JWT_Login_with_Spring_Boot.reactive;
+
+import org.springframework.boot.SpringApplication;
+import org.springframework.boot.autoconfigure.SpringBootApplication;
+import org.springframework.context.annotation.Import;
+import org.springframework.scheduling.annotation.EnableScheduling;
+
+import com.example.JWT_Login_with_Spring_Boot.service.EmailTemplateService;
+import com.example.JWT_Login_with_Spring_Boot.service.JwtKeyRing;
+import com.example.JWT_Login_with_Spring_Boot.service.JwtService;
+import com.example.JWT_Login_with_Spring_Boot.service.TokenDenylist;
+import com.example.JWT_Login_with_Spring_Boot.service.TokenEpochRegistry;
+import com.example.JWT_Login_with_Spring_Boot.service.VerifiedTokenCache;
+
+
+/**
+ * Non-blocking (WebFlux + R2DBC) variant of the authentication API, built from src/reactive.
+ *
+ * - Same endpoints, tokens and database as the main (servlet) application, which owns the schema (Flyway)
+ * - Shares JwtService, JwtKeyRing, VerifiedTokenCache, EmailTemplateService, the revocation indexes (TokenDenylist,
+ *   TokenEpochRegistry), the DTOs and the models with it
+ * - Only this package is scanned, so none of the servlet / JPA beans of the main application are created
+ * - Reads application.properties plus application-reactive.properties ("reactive" profile)
+ *
+ * Run with ./gradlew bootRunReactive, or build the jar with ./gradlew reactiveBootJar
+ */
+@SpringBootApplication
+@EnableScheduling // JwtKeyRing reloads the signing keys, ReactiveTokenRevocationService syncs the revocations
+@Import({JwtService.class, JwtKeyRing.class, VerifiedTokenCache.class, EmailTemplateService.class,
+        TokenDenylist.class, TokenEpochRegistry.class})
+public class ReactiveJwtLoginApplication {
+
+	public static void main(String[] args) {
+		SpringApplication application = new SpringApplication(ReactiveJwtLoginApplication.class);
+		application.setAdditionalProfiles("reactive");
+		application.run(args);
+	}
+
+}
@@ -0,0 +1,93 @@
+package com.example.JWT_Login_with_Spring_Boot.reactive.config;
+
+import java.util.Optional;
+
+import org.springframework.http.HttpHeaders;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.ReactiveSecurityContextHolder;
+import org.springframework.security.core.userdetails.ReactiveUserDetailsService;
+import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.web.server.ServerWebExchange;
+import org.springframework.web.server.WebFilter;
+import org.springframework.web.server.WebFilterChain;
+
+import com.example.JWT_Login_with_Spring_Boot.model.VerifiedToken;
+import com.example.JWT_Login_with_Spring_Boot.service.JwtService;
+import com.example.JWT_Login_with_Spring_Boot.service.TokenDenylist;
+import com.example.JWT_Login_with_Spring_Boot.service.TokenEpochRegistry;
+import com.example.JWT_Login_with_Spring_Boot.service.VerifiedTokenCache;
+
+import io.jsonwebtoken.JwtException;
+import reactor.core.publisher.Mono;
+
+
+/**
+ * Reactive counterpart of JwtAuthenticationFilter: authenticates requests carrying a "Bearer" token
+ * and puts the authentication in the reactive security context (Reactor Context, not a ThreadLocal).
+ *
+ * - Token verification is CPU-only (HMAC) and cached, so it runs inline on the event loop
+ * - Revoked (logout) & stale (password change) tokens are rejected like in the main application: TokenDenylist &
+ *   TokenEpochRegistry are in-memory lookups (no I/O, no lock), kept in sync by ReactiveTokenRevocationService
+ * - The user is loaded with R2DBC, or built from the token claims in stateless mode (no database access)
+ * - Invalid / expired tokens are ignored: the request goes on unauthenticated, secured endpoints answer 401
+ * - Not a bean on purpose: every WebFilter bean is also added to the global WebFlux chain, which would
+ *   run it twice (it is created by ReactiveSecurityConfiguration and added to the security chain only)
+ */
+public class JwtAuthenticationWebFilter implements WebFilter {
+
+    private final JwtService jwtService;
+    private final ReactiveUserDetailsService userDetailsService;
+    private final VerifiedTokenCache verifiedTokenCache;
+    private final TokenDenylist tokenDenylist; // Revoked tokens (logout)
+    private final TokenEpochRegistry tokenEpochRegistry; // Recent token epoch changes (password change)
+
+    public JwtAuthenticationWebFilter(
+            JwtService jwtService,
+            ReactiveUserDetailsService userDetailsService,
+            VerifiedTokenCache verifiedTokenCache,
+            TokenDenylist tokenDenylist,
+            TokenEpochRegistry tokenEpochRegistry) {
+        this.jwtService = jwtService;
+        this.userDetailsService = userDetailsService;
+        this.verifiedTokenCache = verifiedTokenCache;
+        this.tokenDenylist = tokenDenylist;
+        this.tokenEpochRegistry = tokenEpochRegistry;
+    }
+
+
+    @Override
+    public Mono<Void> filter(ServerWebExchange exchange, WebFilterChain chain) {
+        final String authHeader = exchange.getRequest().getHeaders().getFirst(HttpHeaders.AUTHORIZATION);
+        if (authHeader == null || !authHeader.startsWith("Bearer ")) {
+            return chain.filter(exchange);
+        }
+
+        final VerifiedToken verifiedToken;
+        try {
+            verifiedToken = verifiedTokenCache.get(authHeader.substring(7), jwtService::verifyToken);
+        } catch (JwtException | IllegalArgumentException invalidToken) {
+            return chain.filter(exchange);
+        }
+        // Revoked & stale tokens (checked on every request, the cache only skips the signature check) stay unauthenticated
+        if (verifiedToken.subject() == null
+                || tokenDenylist.isRevoked(verifiedToken)
+                || tokenEpochRegistry.isStale(verifiedToken)) {
+            return chain.filter(exchange);
+        }
+
+        Mono<UserDetails> userDetails = jwtService.isStateless()
+                ? Mono.justOrEmpty(jwtService.toPrincipal(verifiedToken))
+                : userDetailsService.findByUsername(verifiedToken.subject());
+
+        return userDetails
+                .filter(user -> jwtService.isTokenValid(verifiedToken, user))
+                .<Authentication>map(user -> new UsernamePasswordAuthenticationToken(user, null, user.getAuthorities()))
+                .map(Optional::of)
+                .defaultIfEmpty(Optional.empty())
+                .flatMap(authentication -> authentication
+                        .map(authToken -> chain.filter(exchange)
+                                .contextWrite(ReactiveSecurityContextHolder.withAuthentication(authToken)))
+                        .orElseGet(() -> chain.filter(exchange)));
+    }
+}
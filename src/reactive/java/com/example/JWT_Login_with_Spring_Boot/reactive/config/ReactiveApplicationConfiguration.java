@@ -0,0 +1,59 @@
+package com.example.JWT_Login_with_Spring_Boot.reactive.config;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.env.Environment;
+import org.springframework.security.core.userdetails.ReactiveUserDetailsService;
+import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.security.crypto.password.PasswordEncoder;
+
+import com.example.JWT_Login_with_Spring_Boot.config.ApplicationConfiguration;
+import com.example.JWT_Login_with_Spring_Boot.reactive.repository.ReactiveUserRepository;
+
+import reactor.core.scheduler.Scheduler;
+import reactor.core.scheduler.Schedulers;
+
+
+/**
+ * Reactive counterpart of ApplicationConfiguration.
+ *
+ * Provides:
+ * 1. User lookup by email for the JWT WebFilter (ReactiveUserDetailsService, backed by R2DBC)
+ * 2. Password encoding, built by ApplicationConfiguration.delegatingPasswordEncoder() like the main application's,
+ *    so both read (and upgrade) the same hashes the same way
+ * 3. Bounded schedulers for the blocking work, which must never run on the event loop:
+ *    - "password-hashing": BCrypt / Argon2 / PBKDF2 (CPU-bound)
+ *    - "email-sender": SMTP sends (blocking I/O)
+ *    When a scheduler's queue is full, the task is rejected (answered with "503 Service Unavailable")
+ */
+@Configuration
+public class ReactiveApplicationConfiguration {
+
+    @Bean
+    ReactiveUserDetailsService userDetailsService(ReactiveUserRepository userRepository) {
+        return email -> userRepository.findByEmail(email).cast(UserDetails.class);
+    }
+
+    @Bean
+    PasswordEncoder passwordEncoder(Environment environment) {
+        return ApplicationConfiguration.delegatingPasswordEncoder(environment);
+    }
+
+    // threads=0 -> half of the CPU cores (same settings as PasswordHashingExecutor)
+    @Bean(destroyMethod = "dispose")
+    Scheduler passwordHashingScheduler(
+            @Value("${security.password-hashing.threads:0}") int threads,
+            @Value("${security.password-hashing.queue-capacity:64}") int queueCapacity) {
+        int threadCount = threads > 0 ? threads : Math.max(1, Runtime.getRuntime().availableProcessors() / 2);
+        return Schedulers.newBoundedElastic(threadCount, queueCapacity, "password-hashing");
+    }
+
+    // Same settings as the EmailDispatcher of the main application
+    @Bean(destroyMethod = "dispose")
+    Scheduler emailScheduler(
+            @Value("${email.dispatcher.workers:2}") int workers,
+            @Value("${email.dispatcher.queue-capacity:1000}") int queueCapacity) {
+        return Schedulers.newBoundedElastic(workers, queueCapacity, "email-sender");
+    }
+}
@@ -0,0 +1,72 @@
+package com.example.JWT_Login_with_Spring_Boot.reactive.config;
+
+import java.util.List;
+
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.security.config.Customizer;
+import org.springframework.security.config.annotation.web.reactive.EnableWebFluxSecurity;
+import org.springframework.security.config.web.server.SecurityWebFiltersOrder;
+import org.springframework.security.config.web.server.ServerHttpSecurity;
+import org.springframework.security.core.userdetails.ReactiveUserDetailsService;
+import org.springframework.security.web.server.SecurityWebFilterChain;
+import org.springframework.security.web.server.context.NoOpServerSecurityContextRepository;
+import org.springframework.web.cors.CorsConfiguration;
+import org.springframework.web.cors.reactive.CorsConfigurationSource;
+import org.springframework.web.cors.reactive.UrlBasedCorsConfigurationSource;
+
+import com.example.JWT_Login_with_Spring_Boot.service.JwtService;
+import com.example.JWT_Login_with_Spring_Boot.service.TokenDenylist;
+import com.example.JWT_Login_with_Spring_Boot.service.TokenEpochRegistry;
+import com.example.JWT_Login_with_Spring_Boot.service.VerifiedTokenCache;
+
+
+/**
+ * Reactive counterpart of SecurityConfiguration: same rules, applied by a SecurityWebFilterChain.
+ */
+@Configuration
+@EnableWebFluxSecurity
+public class ReactiveSecurityConfiguration {
+
+    private final JwtAuthenticationWebFilter jwtAuthenticationWebFilter;
+
+    public ReactiveSecurityConfiguration(
+            JwtService jwtService,
+            ReactiveUserDetailsService userDetailsService,
+            VerifiedTokenCache verifiedTokenCache,
+            TokenDenylist tokenDenylist,
+            TokenEpochRegistry tokenEpochRegistry) {
+        this.jwtAuthenticationWebFilter = new JwtAuthenticationWebFilter(
+                jwtService, userDetailsService, verifiedTokenCache, tokenDenylist, tokenEpochRegistry);
+    }
+
+
+    @Bean
+    public SecurityWebFilterChain securityWebFilterChain(ServerHttpSecurity http) {
+        return http
+                .csrf(ServerHttpSecurity.CsrfSpec::disable) // Stateless JWT API, no cookies
+                .httpBasic(ServerHttpSecurity.HttpBasicSpec::disable)
+                .formLogin(ServerHttpSecurity.FormLoginSpec::disable)
+                .cors(Customizer.withDefaults()) // Uses the CorsConfigurationSource bean below
+                .authorizeExchange(authorize -> authorize
+                        .pathMatchers("/authentication/**").permitAll() // Allow unauthenticated access to "/authentication/**"
+                        .anyExchange().authenticated()) // Require authentication for all other endpoints
+                // No server-side session: the security context is built from the token on every request
+                .securityContextRepository(NoOpServerSecurityContextRepository.getInstance())
+                .addFilterAt(jwtAuthenticationWebFilter, SecurityWebFiltersOrder.AUTHENTICATION)
+                .build();
+    }
+
+    // Same CORS rules as the main application
+    @Bean
+    public CorsConfigurationSource corsConfigurationSource() {
+        CorsConfiguration corsConfiguration = new CorsConfiguration();
+        corsConfiguration.setAllowedOrigins(List.of("https://app-backend.com", "http://localhost:8080"));
+        corsConfiguration.setAllowedMethods(List.of("POST", "GET", "PUT", "DELETE"));
+        corsConfiguration.setAllowedHeaders(List.of("Authorization", "Content-Type"));
+
+        UrlBasedCorsConfigurationSource urlBasedCorsConfigurationSource = new UrlBasedCorsConfigurationSource();
+        urlBasedCorsConfigurationSource.registerCorsConfiguration("/**", corsConfiguration);
+        return urlBasedCorsConfigurationSource;
+    }
+}
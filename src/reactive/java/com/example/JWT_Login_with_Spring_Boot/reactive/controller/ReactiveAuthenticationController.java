@@ -0,0 +1,132 @@
+package com.example.JWT_Login_with_Spring_Boot.reactive.controller;
+
+import java.util.Locale;
+
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.ExceptionHandler;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.server.ServerWebExchange;
+
+import com.example.JWT_Login_with_Spring_Boot.dto.LoginUserDto;
+import com.example.JWT_Login_with_Spring_Boot.dto.RegisterUserDto;
+import com.example.JWT_Login_with_Spring_Boot.dto.VerifyUserDto;
+import com.example.JWT_Login_with_Spring_Boot.exception.ServiceOverloadedException;
+import com.example.JWT_Login_with_Spring_Boot.model.User;
+import com.example.JWT_Login_with_Spring_Boot.reactive.service.ReactiveAuthenticationService;
+import com.example.JWT_Login_with_Spring_Boot.responses.LoginResponse;
+import com.example.JWT_Login_with_Spring_Boot.service.JwtKeyRing;
+import com.example.JWT_Login_with_Spring_Boot.service.JwtService;
+
+import reactor.core.publisher.Mono;
+
+
+/**
+ * Reactive counterpart of AuthenticationController: same endpoints under "/authentication", same responses.
+ */
+@RequestMapping("authentication")
+@RestController
+public class ReactiveAuthenticationController {
+
+    private static final MediaType JWK_SET_JSON = MediaType.parseMediaType("application/jwk-set+json");
+
+    private final JwtService jwtService;
+    private final ReactiveAuthenticationService authenticationService;
+    private final JwtKeyRing jwtKeyRing;
+
+    public ReactiveAuthenticationController(
+            JwtService jwtService,
+            ReactiveAuthenticationService authenticationService,
+            JwtKeyRing jwtKeyRing) {
+        this.jwtService = jwtService;
+        this.authenticationService = authenticationService;
+        this.jwtKeyRing = jwtKeyRing;
+    }
+
+
+    // POST("/authentication/signup")
+    @PostMapping("/signup")
+    public Mono<ResponseEntity<Object>> register(@RequestBody RegisterUserDto registerUserDto, ServerWebExchange exchange) {
+        return authenticationService.signup(registerUserDto, locale(exchange))
+                // Another signup with the same email / username was saved at the same time
+                .onErrorResume(DataIntegrityViolationException.class, dataIntegrityViolationException ->
+                        authenticationService.findConflict(registerUserDto))
+                .map(ReactiveAuthenticationController::signupResponse)
+                .defaultIfEmpty(ResponseEntity.status(HttpStatus.CONFLICT).body("User is already existed!"));
+    }
+
+    // POST("/authentication/login")
+    @PostMapping("/login")
+    public Mono<ResponseEntity<LoginResponse>> authentication(@RequestBody LoginUserDto loginUserDto) {
+        return authenticationService.authenticate(loginUserDto)
+                .map(authenticatedUser -> ResponseEntity.ok(
+                        new LoginResponse(jwtService.generateToken(authenticatedUser), jwtService.getExpirationTime())));
+    }
+
+    // POST("/authentication/verify")
+    @PostMapping("/verify")
+    public Mono<ResponseEntity<String>> verifyUser(@RequestBody VerifyUserDto verifyUserDto) {
+        return authenticationService.verifyUser(verifyUserDto)
+                .then(Mono.fromSupplier(() -> ResponseEntity.ok("Account is verified successfully")))
+                .onErrorResume(exception -> Mono.just(ResponseEntity.badRequest().body(exception.getMessage())));
+    }
+
+    // POST("/authentication/resend?email=...")
+    @PostMapping("/resend")
+    public Mono<ResponseEntity<String>> resendVerificationCode(@RequestParam String email, ServerWebExchange exchange) {
+        return authenticationService.resendVerificationCode(email, locale(exchange))
+                .then(Mono.fromSupplier(() -> ResponseEntity.ok("Verification code sent!")))
+                .onErrorResume(exception -> Mono.just(ResponseEntity.badRequest().body(exception.getMessage())));
+    }
+
+    // GET("/authentication/jwks"): public keys as a JWK Set, cacheable, "304 Not Modified" on a matching ETag
+    @GetMapping("/jwks")
+    public ResponseEntity<String> jwks() {
+        JwtKeyRing.PublishedKeys publishedKeys = jwtKeyRing.publishedKeys();
+        return ResponseEntity.ok()
+                .contentType(JWK_SET_JSON)
+                .cacheControl(CacheControl.maxAge(publishedKeys.maxAge()).cachePublic())
+                .eTag(publishedKeys.etag())
+                .body(publishedKeys.json());
+    }
+
+    // Server is busy (password hashing queue is full): "503 Service Unavailable" with a "Retry-After" header
+    @ExceptionHandler(ServiceOverloadedException.class)
+    public ResponseEntity<String> serviceOverloaded(ServiceOverloadedException exception) {
+        return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+                .header(HttpHeaders.RETRY_AFTER, String.valueOf(exception.getRetryAfterSeconds()))
+                .body(exception.getMessage());
+    }
+
+
+
+    // 🔹 Private Helper Methods (Internal logic)
+
+    // No id -> partial user = conflict with the email and/or the username, otherwise the new user
+    private static ResponseEntity<Object> signupResponse(User registeringUser) {
+        if (registeringUser.getId() != null) {
+            return ResponseEntity.status(HttpStatus.CREATED).body(registeringUser);
+        }
+        if (registeringUser.getEmail() != null && registeringUser.getUsername() == null) {
+            return ResponseEntity.status(HttpStatus.CONFLICT).body("Email is already used!");
+        }
+        if (registeringUser.getUsername() != null && registeringUser.getEmail() == null) {
+            return ResponseEntity.status(HttpStatus.CONFLICT).body("Username is already used!");
+        }
+        return ResponseEntity.status(HttpStatus.CONFLICT).body("User is already existed!");
+    }
+
+    // Language of the request (Accept-Language), used for the email templates
+    private static Locale locale(ServerWebExchange exchange) {
+        return exchange.getLocaleContext().getLocale();
+    }
+}
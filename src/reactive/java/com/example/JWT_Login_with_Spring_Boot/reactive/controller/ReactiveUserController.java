@@ -0,0 +1,75 @@
+package com.example.JWT_Login_with_Spring_Boot.reactive.controller;
+
+import java.util.List;
+
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.core.Authentication;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+import com.example.JWT_Login_with_Spring_Boot.model.TokenPrincipal;
+import com.example.JWT_Login_with_Spring_Boot.model.User;
+import com.example.JWT_Login_with_Spring_Boot.reactive.repository.ReactiveUserRepository;
+import com.example.JWT_Login_with_Spring_Boot.responses.UserResponse;
+
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+
+/**
+ * Reactive counterpart of UserController: same endpoints under "/users", same responses.
+ */
+@RequestMapping("/users")
+@RestController
+public class ReactiveUserController {
+
+    private static final int MAX_PAGE_SIZE = 1000;
+
+    private final ReactiveUserRepository userRepository;
+
+    public ReactiveUserController(ReactiveUserRepository userRepository) {
+        this.userRepository = userRepository;
+    }
+
+
+    // GET("/users/me"): the principal is already in the security context (no query)
+    @GetMapping("/me")
+    public ResponseEntity<UserResponse> authenticatedUser(Authentication authentication) {
+        UserResponse currentUser = switch (authentication.getPrincipal()) {
+            case User user -> UserResponse.of(user);
+            case TokenPrincipal tokenPrincipal -> UserResponse.of(tokenPrincipal);
+            default -> throw new IllegalStateException("Unsupported principal type");
+        };
+        return ResponseEntity.ok(currentUser);
+    }
+
+    // GET("/users/?limit=100&after=123"): keyset pagination, the "Link" header (rel="next") points to the next page
+    @GetMapping("/")
+    public Mono<ResponseEntity<List<UserResponse>>> allUsers(
+            @RequestParam(defaultValue = "100") int limit,
+            @RequestParam(required = false) Long after) {
+        int pageSize = Math.clamp(limit, 1, MAX_PAGE_SIZE);
+
+        return userRepository.findPage(after == null ? 0 : after, pageSize)
+                .collectList()
+                .map(users -> {
+                    if (users.size() < pageSize) {
+                        return ResponseEntity.ok(users); // Last page
+                    }
+                    Long lastId = users.get(users.size() - 1).id();
+                    return ResponseEntity.ok()
+                            .header(HttpHeaders.LINK, "</users/?limit=" + pageSize + "&after=" + lastId + ">; rel=\"next\"")
+                            .body(users);
+                });
+    }
+
+    // GET("/users/stream"): all users as one JSON array, written while the rows are read (with backpressure)
+    @GetMapping(value = "/stream", produces = MediaType.APPLICATION_JSON_VALUE)
+    public Flux<UserResponse> streamUsers() {
+        return userRepository.findAll();
+    }
+}
@@ -0,0 +1,74 @@
+package com.example.JWT_Login_with_Spring_Boot.reactive.repository;
+
+import java.time.LocalDateTime;
+
+import org.springframework.r2dbc.core.DatabaseClient;
+import org.springframework.stereotype.Repository;
+
+import io.r2dbc.spi.Readable;
+import reactor.core.publisher.Flux;
+
+
+/**
+ * Reactive, read-only counterpart of RevokedTokenRepository & UserRepository.findTokenEpochChangesAfter():
+ * the revocations written by the main application (TokenRevocationService), on the same tables & indexes.
+ *
+ * - revoked_tokens: access tokens revoked one by one (logout)
+ * - users.token_epoch: every token of a user revoked at once (password change, account disabled)
+ */
+@Repository
+public class ReactiveTokenRevocationRepository {
+
+    // A revoked token ("jti") & its own expiration
+    public record RevokedToken(String jti, LocalDateTime expiresAt) {
+    }
+
+    // The token epoch of a user & when it changed
+    public record TokenEpochChange(String email, int tokenEpoch, LocalDateTime changedAt) {
+    }
+
+    private final DatabaseClient databaseClient;
+
+    public ReactiveTokenRevocationRepository(DatabaseClient databaseClient) {
+        this.databaseClient = databaseClient;
+    }
+
+
+    // Revocations still relevant (token not expired yet), loaded at startup
+    public Flux<RevokedToken> findByExpiresAtAfter(LocalDateTime expiresAfter) {
+        return databaseClient.sql("SELECT jti, expires_at FROM revoked_tokens WHERE expires_at > :expiresAfter")
+                .bind("expiresAfter", expiresAfter)
+                .map(ReactiveTokenRevocationRepository::toRevokedToken)
+                .all();
+    }
+
+    // Revocations made since the last sync (by any node), tokens not expired yet
+    public Flux<RevokedToken> findByRevokedAtAfterAndExpiresAtAfter(LocalDateTime revokedAfter, LocalDateTime expiresAfter) {
+        return databaseClient.sql("""
+                SELECT jti, expires_at FROM revoked_tokens
+                WHERE revoked_at > :revokedAfter AND expires_at > :expiresAfter
+                """)
+                .bind("revokedAfter", revokedAfter)
+                .bind("expiresAfter", expiresAfter)
+                .map(ReactiveTokenRevocationRepository::toRevokedToken)
+                .all();
+    }
+
+    // Users whose token epoch changed after the given time (partial index on token_epoch_changed_at)
+    public Flux<TokenEpochChange> findTokenEpochChangesAfter(LocalDateTime changedAfter) {
+        return databaseClient.sql("""
+                SELECT email, token_epoch, token_epoch_changed_at FROM users
+                WHERE token_epoch_changed_at > :changedAfter
+                """)
+                .bind("changedAfter", changedAfter)
+                .map(row -> new TokenEpochChange(
+                        row.get("email", String.class),
+                        row.get("token_epoch", Integer.class),
+                        row.get("token_epoch_changed_at", LocalDateTime.class)))
+                .all();
+    }
+
+    private static RevokedToken toRevokedToken(Readable row) {
+        return new RevokedToken(row.get("jti", String.class), row.get("expires_at", LocalDateTime.class));
+    }
+}
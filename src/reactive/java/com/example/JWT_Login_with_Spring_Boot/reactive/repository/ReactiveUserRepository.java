@@ -0,0 +1,137 @@
+package com.example.JWT_Login_with_Spring_Boot.reactive.repository;
+
+import java.time.LocalDateTime;
+
+import org.springframework.r2dbc.core.DatabaseClient;
+import org.springframework.r2dbc.core.DatabaseClient.GenericExecuteSpec;
+import org.springframework.r2dbc.core.Parameter;
+import org.springframework.stereotype.Repository;
+
+import com.example.JWT_Login_with_Spring_Boot.model.User;
+import com.example.JWT_Login_with_Spring_Boot.responses.UserResponse;
+
+import io.r2dbc.spi.Readable;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+
+/**
+ * Reactive counterpart of UserRepository (R2DBC DatabaseClient, plain SQL on the same "users" table).
+ *
+ * - Same queries as the JPA repository: case-insensitive email lookups (lower(email) index),
+ *   a single identity query for signup conflicts, and keyset pagination on the id
+ * - New ids come from the same "users_seq" sequence as Hibernate (pooled optimizer: Hibernate uses the
+ *   block of 50 ids ending at the value it reads, so taking single values here never collides with it)
+ */
+@Repository
+public class ReactiveUserRepository {
+
+    private static final String USER_COLUMNS =
+            "id, username, email, password, verification_code, verification_expiration, enabled, token_epoch";
+
+    // Email & username of the users holding them (signup conflict check)
+    public record UserIdentity(String email, String username) {
+    }
+
+    private final DatabaseClient databaseClient;
+
+    public ReactiveUserRepository(DatabaseClient databaseClient) {
+        this.databaseClient = databaseClient;
+    }
+
+
+    public Mono<User> findByEmail(String email) {
+        return databaseClient.sql("SELECT " + USER_COLUMNS + " FROM users WHERE lower(email) = lower(:email)")
+                .bind("email", email)
+                .map(ReactiveUserRepository::toUser)
+                .one();
+    }
+
+    public Flux<UserIdentity> findIdentitiesByEmailOrUsername(String email, String username) {
+        return databaseClient.sql("SELECT email, username FROM users WHERE lower(email) = lower(:email) OR username = :username")
+                .bind("email", email)
+                .bind("username", username)
+                .map(row -> new UserIdentity(row.get("email", String.class), row.get("username", String.class)))
+                .all();
+    }
+
+    // Insert a new user and return it with its generated id
+    public Mono<User> insert(User user) {
+        GenericExecuteSpec insert = databaseClient.sql("""
+                INSERT INTO users (id, username, email, password, verification_code, verification_expiration, enabled)
+                VALUES (nextval('users_seq'), :username, :email, :password, :verificationCode, :verificationExpiration, :enabled)
+                RETURNING id
+                """);
+        return bindUser(insert, user)
+                .map(row -> row.get("id", Long.class))
+                .one()
+                .map(id -> {
+                    user.setId(id);
+                    return user;
+                });
+    }
+
+    public Mono<User> update(User user) {
+        GenericExecuteSpec update = databaseClient.sql("""
+                UPDATE users
+                SET username = :username, email = :email, password = :password, verification_code = :verificationCode,
+                    verification_expiration = :verificationExpiration, enabled = :enabled
+                WHERE id = :id
+                """);
+        return bindUser(update, user)
+                .bind("id", user.getId())
+                .fetch()
+                .rowsUpdated()
+                .thenReturn(user);
+    }
+
+    // Keyset pagination: users with an id greater than "after", only the exposed columns
+    public Flux<UserResponse> findPage(long after, int limit) {
+        return databaseClient.sql("SELECT id, username, email, enabled FROM users WHERE id > :after ORDER BY id LIMIT :limit")
+                .bind("after", after)
+                .bind("limit", limit)
+                .map(ReactiveUserRepository::toUserResponse)
+                .all();
+    }
+
+    // All users, emitted while the rows are read (backpressure: rows are fetched as the client consumes them)
+    public Flux<UserResponse> findAll() {
+        return databaseClient.sql("SELECT id, username, email, enabled FROM users ORDER BY id")
+                .map(ReactiveUserRepository::toUserResponse)
+                .all();
+    }
+
+
+
+    // 🔹 Private Helper Methods (Internal logic)
+
+    private static GenericExecuteSpec bindUser(GenericExecuteSpec spec, User user) {
+        return spec
+                .bind("username", user.getUsername())
+                .bind("email", user.getEmail())
+                .bind("password", user.getPassword())
+                .bind("verificationCode", Parameter.fromOrEmpty(user.getVerificationCode(), String.class))
+                .bind("verificationExpiration",
+                        Parameter.fromOrEmpty(user.getVerificationCodeExpireAt(), LocalDateTime.class))
+                .bind("enabled", user.isEnabled());
+    }
+
+    private static User toUser(Readable row) {
+        User user = new User(row.get("username", String.class), row.get("email", String.class), row.get("password", String.class));
+        user.setId(row.get("id", Long.class));
+        user.setVerificationCode(row.get("verification_code", String.class));
+        user.setVerificationCodeExpireAt(row.get("verification_expiration", LocalDateTime.class));
+        user.setEnabled(Boolean.TRUE.equals(row.get("enabled", Boolean.class)));
+        Integer tokenEpoch = row.get("token_epoch", Integer.class); // Embedded in the tokens (JwtService)
+        user.setTokenEpoch(tokenEpoch == null ? 0 : tokenEpoch);
+        return user;
+    }
+
+    private static UserResponse toUserResponse(Readable row) {
+        return new UserResponse(
+                row.get("id", Long.class),
+                row.get("username", String.class),
+                row.get("email", String.class),
+                Boolean.TRUE.equals(row.get("enabled", Boolean.class)));
+    }
+}
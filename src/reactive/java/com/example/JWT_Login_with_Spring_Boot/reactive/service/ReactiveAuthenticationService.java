@@ -0,0 +1,190 @@
+package com.example.JWT_Login_with_Spring_Boot.reactive.service;
+
+import java.security.SecureRandom;
+import java.time.LocalDateTime;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.RejectedExecutionException;
+
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.security.authentication.BadCredentialsException;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.reactive.TransactionalOperator;
+
+import com.example.JWT_Login_with_Spring_Boot.dto.LoginUserDto;
+import com.example.JWT_Login_with_Spring_Boot.dto.RegisterUserDto;
+import com.example.JWT_Login_with_Spring_Boot.dto.VerifyUserDto;
+import com.example.JWT_Login_with_Spring_Boot.exception.ServiceOverloadedException;
+import com.example.JWT_Login_with_Spring_Boot.model.RenderedEmail;
+import com.example.JWT_Login_with_Spring_Boot.model.User;
+import com.example.JWT_Login_with_Spring_Boot.reactive.repository.ReactiveUserRepository;
+import com.example.JWT_Login_with_Spring_Boot.reactive.repository.ReactiveUserRepository.UserIdentity;
+import com.example.JWT_Login_with_Spring_Boot.service.EmailTemplateService;
+
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Scheduler;
+
+
+/**
+ * Reactive counterpart of AuthenticationService: same rules and error messages, as non-blocking pipelines.
+ *
+ * - Password hashing runs on the bounded "password-hashing" scheduler (a full queue answers 503)
+ * - Emails are sent in the background on the "email-sender" scheduler, after the user is committed
+ */
+@Service
+public class ReactiveAuthenticationService {
+
+    private static final SecureRandom RANDOM = new SecureRandom();
+
+    private final ReactiveUserRepository userRepository;
+    private final PasswordEncoder passwordEncoder;
+    private final Scheduler passwordHashingScheduler;
+    private final ReactiveEmailService emailService;
+    private final EmailTemplateService emailTemplateService;
+    private final TransactionalOperator transactionalOperator;
+
+    public ReactiveAuthenticationService(
+            ReactiveUserRepository userRepository,
+            PasswordEncoder passwordEncoder,
+            @Qualifier("passwordHashingScheduler") Scheduler passwordHashingScheduler,
+            ReactiveEmailService emailService,
+            EmailTemplateService emailTemplateService,
+            TransactionalOperator transactionalOperator) {
+        this.userRepository = userRepository;
+        this.passwordEncoder = passwordEncoder;
+        this.passwordHashingScheduler = passwordHashingScheduler;
+        this.emailService = emailService;
+        this.emailTemplateService = emailTemplateService;
+        this.transactionalOperator = transactionalOperator;
+    }
+
+
+    /**
+     * Register a new user (unverified, with a verification code) and send the verification email
+     * - Emits a User with only the conflicting fields set (no id) if the email and/or username are already used
+     */
+    public Mono<User> signup(RegisterUserDto registerUserDto, Locale locale) {
+        Mono<User> newUser = Mono.defer(() -> hash(registerUserDto.getPassword())
+                .flatMap(passwordHash -> {
+                    User user = new User(registerUserDto.getUsername(), registerUserDto.getEmail(), passwordHash);
+                    user.setVerificationCode(generateVerificationCode());
+                    user.setVerificationCodeExpireAt(LocalDateTime.now().plusMinutes(15));
+                    user.setEnabled(false); // Disable the account until verification is done
+                    return userRepository.insert(user);
+                })
+                .as(transactionalOperator::transactional)
+                .doOnNext(savedUser -> sendVerificationEmail(savedUser, locale))); // Only once committed
+
+        return findConflict(registerUserDto).switchIfEmpty(newUser);
+    }
+
+    // Emits a User with only the conflicting fields (email and/or username) set, or nothing if there is no conflict
+    public Mono<User> findConflict(RegisterUserDto registerUserDto) {
+        return userRepository.findIdentitiesByEmailOrUsername(registerUserDto.getEmail(), registerUserDto.getUsername())
+                .collectList()
+                .flatMap(identities -> {
+                    boolean emailUsed = false;
+                    boolean usernameUsed = false;
+                    for (UserIdentity identity : identities) {
+                        emailUsed |= identity.email().equalsIgnoreCase(registerUserDto.getEmail());
+                        usernameUsed |= identity.username().equals(registerUserDto.getUsername());
+                    }
+                    if (!emailUsed && !usernameUsed) {
+                        return Mono.empty();
+                    }
+
+                    User existUser = new User();
+                    if (emailUsed) {
+                        existUser.setEmail(registerUserDto.getEmail());
+                    }
+                    if (usernameUsed) {
+                        existUser.setUsername(registerUserDto.getUsername());
+                    }
+                    return Mono.just(existUser);
+                });
+    }
+
+    // Check the credentials and the account status (the password check runs on the password-hashing scheduler)
+    public Mono<User> authenticate(LoginUserDto loginUserDto) {
+        return userRepository.findByEmail(loginUserDto.getEmail())
+                .switchIfEmpty(Mono.error(() -> new RuntimeException("User not found")))
+                .flatMap(user -> {
+                    if (!user.isEnabled()) {
+                        return Mono.error(new RuntimeException("Account is not verified, please verify your account"));
+                    }
+                    return matches(loginUserDto.getPassword(), user.getPassword())
+                            .flatMap(matches -> matches
+                                    ? Mono.just(user)
+                                    : Mono.error(new BadCredentialsException("Bad credentials")));
+                });
+    }
+
+    // Verify user's account using verification code
+    public Mono<Void> verifyUser(VerifyUserDto verifyUserDto) {
+        return userRepository.findByEmail(verifyUserDto.getEmail())
+                .switchIfEmpty(Mono.error(() -> new RuntimeException("User not found")))
+                .flatMap(user -> {
+                    if (user.getVerificationCodeExpireAt().isBefore(LocalDateTime.now())) {
+                        return Mono.error(new RuntimeException("Verification code is expired!"));
+                    }
+                    if (!user.getVerificationCode().equals(verifyUserDto.getVerificationCode())) {
+                        return Mono.error(new RuntimeException("Invalid verification Code"));
+                    }
+                    user.setEnabled(true);
+                    user.setVerificationCode(null);
+                    user.setVerificationCodeExpireAt(null);
+                    return userRepository.update(user);
+                })
+                .as(transactionalOperator::transactional)
+                .then();
+    }
+
+    // Resend a new verification code if the account is not verified yet
+    public Mono<Void> resendVerificationCode(String email, Locale locale) {
+        return userRepository.findByEmail(email)
+                .switchIfEmpty(Mono.error(() -> new RuntimeException("User not found")))
+                .flatMap(user -> {
+                    if (user.isEnabled()) {
+                        return Mono.error(new RuntimeException("Account is already verified"));
+                    }
+                    user.setVerificationCode(generateVerificationCode());
+                    user.setVerificationCodeExpireAt(LocalDateTime.now().plusHours(1));
+                    return userRepository.update(user);
+                })
+                .as(transactionalOperator::transactional)
+                .doOnNext(user -> sendVerificationEmail(user, locale))
+                .then();
+    }
+
+
+
+    // 🔹 Private Helper Methods (Internal logic)
+
+    private Mono<String> hash(String rawPassword) {
+        return offload(Mono.fromCallable(() -> passwordEncoder.encode(rawPassword)));
+    }
+
+    private Mono<Boolean> matches(String rawPassword, String passwordHash) {
+        return offload(Mono.fromCallable(() -> passwordEncoder.matches(rawPassword, passwordHash)));
+    }
+
+    // Run on the bounded password-hashing scheduler, a full queue is reported as 503 (same as the main application)
+    private <T> Mono<T> offload(Mono<T> hashing) {
+        return hashing
+                .subscribeOn(passwordHashingScheduler)
+                .onErrorMap(RejectedExecutionException.class, rejected -> new ServiceOverloadedException(
+                        "Too many password checks in progress, please try again later", 1));
+    }
+
+    private void sendVerificationEmail(User user, Locale locale) {
+        RenderedEmail email = emailTemplateService.render(
+                "verification", locale, Map.of("verificationCode", user.getVerificationCode()));
+        emailService.sendVerificationEmail(user.getEmail(), email);
+    }
+
+    // Generate a random 6-digit verification code (100,000 - 999,999)
+    private static String generateVerificationCode() {
+        return String.valueOf(RANDOM.nextInt(900000) + 100000);
+    }
+}
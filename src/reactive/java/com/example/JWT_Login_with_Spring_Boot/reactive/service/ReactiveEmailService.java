@@ -0,0 +1,84 @@
+package com.example.JWT_Login_with_Spring_Boot.reactive.service;
+
+import java.time.Duration;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.mail.javamail.JavaMailSender;
+import org.springframework.mail.javamail.MimeMessageHelper;
+import org.springframework.stereotype.Service;
+
+import com.example.JWT_Login_with_Spring_Boot.model.RenderedEmail;
+
+import jakarta.mail.MessagingException;
+import jakarta.mail.internet.MimeMessage;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Scheduler;
+import reactor.util.retry.Retry;
+
+
+/**
+ * Sends emails on the bounded "email-sender" scheduler, so the blocking SMTP calls never run on the event loop.
+ *
+ * - Sending is started in the background (the HTTP response does not wait for it)
+ * - Failed sends are retried with exponential backoff, up to "email.dispatcher.max-attempts" attempts
+ */
+@Service
+public class ReactiveEmailService {
+
+    private static final Logger log = LoggerFactory.getLogger(ReactiveEmailService.class);
+
+    private final JavaMailSender javaMailSender;
+    private final Scheduler emailScheduler;
+    private final int maxAttempts;
+    private final Duration initialBackoff;
+    private final Duration maxBackoff;
+
+    public ReactiveEmailService(
+            JavaMailSender javaMailSender,
+            @Qualifier("emailScheduler") Scheduler emailScheduler,
+            @Value("${email.dispatcher.max-attempts:5}") int maxAttempts,
+            @Value("${email.dispatcher.initial-backoff:1s}") Duration initialBackoff,
+            @Value("${email.dispatcher.max-backoff:60s}") Duration maxBackoff) {
+        this.javaMailSender = javaMailSender;
+        this.emailScheduler = emailScheduler;
+        this.maxAttempts = maxAttempts;
+        this.initialBackoff = initialBackoff;
+        this.maxBackoff = maxBackoff;
+    }
+
+
+    // Start sending the email in the background (does not wait for the SMTP server)
+    public void sendVerificationEmail(String to, RenderedEmail email) {
+        Mono.fromRunnable(() -> send(to, email))
+                .subscribeOn(emailScheduler)
+                .retryWhen(Retry.backoff(Math.max(0, maxAttempts - 1), initialBackoff).maxBackoff(maxBackoff))
+                .subscribe(
+                        null,
+                        failure -> log.error("Giving up sending email to {} after {} attempt(s)", to, maxAttempts, failure));
+    }
+
+
+
+    // 🔹 Private Helper Methods (Internal logic)
+
+    // Blocking SMTP send (runs on the email scheduler)
+    private void send(String to, RenderedEmail email) {
+        try {
+            MimeMessage mimeMessage = javaMailSender.createMimeMessage();
+            MimeMessageHelper mimeMessageHelper = new MimeMessageHelper(mimeMessage, email.textBody() != null, "UTF-8");
+            mimeMessageHelper.setTo(to);
+            mimeMessageHelper.setSubject(email.subject());
+            if (email.textBody() == null) {
+                mimeMessageHelper.setText(email.htmlBody(), true);
+            } else {
+                mimeMessageHelper.setText(email.textBody(), email.htmlBody()); // Plain-text & HTML alternatives
+            }
+            javaMailSender.send(mimeMessage);
+        } catch (MessagingException messagingException) {
+            throw new IllegalStateException("Could not build the email to " + to, messagingException);
+        }
+    }
+}
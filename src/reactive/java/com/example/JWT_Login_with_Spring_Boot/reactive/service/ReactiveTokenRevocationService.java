@@ -0,0 +1,120 @@
+package com.example.JWT_Login_with_Spring_Boot.reactive.service;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import com.example.JWT_Login_with_Spring_Boot.exception.ServiceOverloadedException;
+import com.example.JWT_Login_with_Spring_Boot.reactive.repository.ReactiveTokenRevocationRepository;
+import com.example.JWT_Login_with_Spring_Boot.reactive.repository.ReactiveTokenRevocationRepository.RevokedToken;
+import com.example.JWT_Login_with_Spring_Boot.reactive.repository.ReactiveTokenRevocationRepository.TokenEpochChange;
+import com.example.JWT_Login_with_Spring_Boot.service.TokenDenylist;
+import com.example.JWT_Login_with_Spring_Boot.service.TokenEpochRegistry;
+
+import jakarta.annotation.PostConstruct;
+
+
+/**
+ * Reactive counterpart of TokenRevocationService, read side only: keeps TokenDenylist & TokenEpochRegistry in sync
+ * with the revocations made by the main application (logout, password change), so a token revoked there is
+ * rejected here too (JwtAuthenticationWebFilter).
+ *
+ * - At startup, both indexes are loaded before the application serves requests
+ * - Every "sync-interval", new revocations & epoch changes are added; every "purge-interval", expired ones dropped
+ * - The queries run on the scheduling thread (block() is fine there), the event loop only reads the in-memory indexes
+ */
+@Service
+public class ReactiveTokenRevocationService {
+
+    private static final Logger log = LoggerFactory.getLogger(ReactiveTokenRevocationService.class);
+
+    private final ReactiveTokenRevocationRepository revocationRepository;
+    private final TokenDenylist tokenDenylist;
+    private final TokenEpochRegistry tokenEpochRegistry;
+    private final Duration syncInterval;
+
+    private LocalDateTime lastSync; // Only used by the scheduled sync
+
+    public ReactiveTokenRevocationService(
+            ReactiveTokenRevocationRepository revocationRepository,
+            TokenDenylist tokenDenylist,
+            TokenEpochRegistry tokenEpochRegistry,
+            @Value("${security.jwt.revocation.sync-interval:10s}") Duration syncInterval) {
+        this.revocationRepository = revocationRepository;
+        this.tokenDenylist = tokenDenylist;
+        this.tokenEpochRegistry = tokenEpochRegistry;
+        this.syncInterval = syncInterval;
+    }
+
+
+    // Load the revocations still relevant before the application serves requests
+    @PostConstruct
+    void load() {
+        LocalDateTime now = LocalDateTime.now();
+        Long revokedTokens = revocationRepository.findByExpiresAtAfter(now)
+                .doOnNext(this::addToDenylist)
+                .count()
+                .block();
+        // Epoch changes older than the token lifetime no longer matter (every token issued before them has expired)
+        LocalDateTime relevantSince = now.minus(Duration.ofMillis(tokenEpochRegistry.retentionMillis()));
+        Long epochChanges = revocationRepository.findTokenEpochChangesAfter(relevantSince)
+                .doOnNext(this::addToEpochRegistry)
+                .count()
+                .block();
+
+        lastSync = now;
+        log.info("Token denylist loaded with {} revoked token(s), {} recent token epoch change(s)",
+                revokedTokens, epochChanges);
+    }
+
+    // Add the revocations & epoch changes made since the last sync
+    @Scheduled(fixedDelayString = "${security.jwt.revocation.sync-interval:10s}")
+    public void sync() {
+        LocalDateTime now = LocalDateTime.now();
+        // Overlap with the previous sync, so a row committed late (or a node clock slightly behind) is not missed
+        LocalDateTime since = lastSync.minus(syncInterval);
+        revocationRepository.findByRevokedAtAfterAndExpiresAtAfter(since, now)
+                .doOnNext(this::addToDenylist)
+                .thenMany(revocationRepository.findTokenEpochChangesAfter(since))
+                .doOnNext(this::addToEpochRegistry)
+                .blockLast();
+        lastSync = now;
+    }
+
+    // Drop expired entries from memory (the main application deletes the rows)
+    @Scheduled(fixedDelayString = "${security.jwt.revocation.purge-interval:5m}")
+    public void purgeExpired() {
+        long nowMillis = System.currentTimeMillis();
+        tokenDenylist.purgeExpired(nowMillis);
+        tokenEpochRegistry.purgeExpired(nowMillis);
+    }
+
+
+
+    // 🔹 Private Helper Methods (Internal logic)
+
+    private void addToDenylist(RevokedToken revokedToken) {
+        if (tokenDenylist.isRevoked(revokedToken.jti())) {
+            return;
+        }
+        try {
+            tokenDenylist.revoke(revokedToken.jti(), toEpochMillis(revokedToken.expiresAt()));
+        } catch (ServiceOverloadedException denylistFull) {
+            log.error("Token denylist is full, revoked token {} is not enforced on this node", revokedToken.jti());
+        }
+    }
+
+    private void addToEpochRegistry(TokenEpochChange change) {
+        tokenEpochRegistry.update(change.email(), change.tokenEpoch(), toEpochMillis(change.changedAt()));
+    }
+
+    private static long toEpochMillis(LocalDateTime localDateTime) {
+        return localDateTime.atZone(ZoneId.systemDefault()).toInstant().toEpochMilli();
+    }
+}
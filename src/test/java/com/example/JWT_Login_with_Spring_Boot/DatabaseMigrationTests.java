@@ -0,0 +1,66 @@
+package com.example.JWT_Login_with_Spring_Boot;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+
+import com.example.JWT_Login_with_Spring_Boot.model.User;
+import com.example.JWT_Login_with_Spring_Boot.repository.EmailOutboxRepository;
+import com.example.JWT_Login_with_Spring_Boot.repository.UserRepository;
+import com.example.JWT_Login_with_Spring_Boot.support.EmbeddedInfrastructure;
+
+
+/**
+ * Upgrade of a database created by the first versions of the application: Hibernate "ddl-auto=update" schema,
+ * only the "users" table, no Flyway history. The application must start on it and run every migration.
+ */
+@SpringBootTest
+class DatabaseMigrationTests {
+
+    private static final String DATABASE = "legacy_users_only";
+
+    @DynamicPropertySource
+    static void properties(DynamicPropertyRegistry registry) {
+        JdbcTemplate legacy = new JdbcTemplate(EmbeddedInfrastructure.createDatabase(DATABASE));
+        // Schema generated by Hibernate for the original User entity
+        legacy.execute("CREATE SEQUENCE users_seq START WITH 1 INCREMENT BY 50");
+        legacy.execute("""
+                CREATE TABLE users (
+                    enabled boolean NOT NULL,
+                    id bigint NOT NULL,
+                    verification_expiration timestamp(6),
+                    email varchar(255) NOT NULL UNIQUE,
+                    password varchar(255) NOT NULL,
+                    username varchar(255) NOT NULL UNIQUE,
+                    verification_code varchar(255),
+                    PRIMARY KEY (id))""");
+        legacy.update("INSERT INTO users (id, username, email, password, enabled) VALUES (1, ?, ?, ?, true)",
+                "alice", "alice@example.com", "{bcrypt}hash");
+
+        EmbeddedInfrastructure.register(registry, DATABASE);
+    }
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+    @Autowired
+    private UserRepository userRepository;
+    @Autowired
+    private EmailOutboxRepository emailOutboxRepository;
+
+    @Test
+    void usersOnlyDatabaseIsMigrated() {
+        assertThat(jdbcTemplate.queryForList(
+                "SELECT version FROM flyway_schema_history WHERE success ORDER BY installed_rank", String.class))
+                .containsExactly("0", "1", "2", "3", "4", "5", "6", "7"); // Baseline, then every migration
+
+        assertThat(emailOutboxRepository.count()).isZero(); // Created by V1
+        User alice = userRepository.findByEmail("Alice@Example.com").orElseThrow(); // Existing rows are kept
+        assertThat(alice.getUsername()).isEqualTo("alice");
+        assertThat(alice.getTokenEpoch()).isZero(); // V5 default
+    }
+}
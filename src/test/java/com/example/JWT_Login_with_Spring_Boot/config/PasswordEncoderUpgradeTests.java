@@ -0,0 +1,87 @@
+package com.example.JWT_Login_with_Spring_Boot.config;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.env.MockEnvironment;
+import org.springframework.security.crypto.password.PasswordEncoder;
+
+import com.example.JWT_Login_with_Spring_Boot.config.ApplicationConfiguration.TargetParametersArgon2PasswordEncoder;
+import com.example.JWT_Login_with_Spring_Boot.config.ApplicationConfiguration.TargetSaltLengthPbkdf2PasswordEncoder;
+import com.example.JWT_Login_with_Spring_Boot.config.ApplicationConfiguration.TargetStrengthBCryptPasswordEncoder;
+
+
+class PasswordEncoderUpgradeTests {
+
+    @Test
+    void bcryptHashIsUpgradedWhenTheCostDiffersEitherWay() {
+        TargetStrengthBCryptPasswordEncoder encoder = new TargetStrengthBCryptPasswordEncoder(5);
+
+        assertThat(encoder.upgradeEncoding(encoder.encode("password"))).isFalse();
+        assertThat(encoder.upgradeEncoding(new TargetStrengthBCryptPasswordEncoder(4).encode("password"))).isTrue();
+        assertThat(encoder.upgradeEncoding(new TargetStrengthBCryptPasswordEncoder(6).encode("password"))).isTrue();
+    }
+
+    @Test
+    void malformedBcryptHashIsNotUpgraded() {
+        TargetStrengthBCryptPasswordEncoder encoder = new TargetStrengthBCryptPasswordEncoder(10);
+
+        assertThat(encoder.upgradeEncoding(null)).isFalse();
+        assertThat(encoder.upgradeEncoding("")).isFalse();
+        assertThat(encoder.upgradeEncoding("$2a$")).isFalse();
+        assertThat(encoder.upgradeEncoding("$2$1x$")).isFalse();
+        assertThat(encoder.upgradeEncoding("$2a$04$tooShort")).isFalse();
+        assertThat(encoder.upgradeEncoding("not a bcrypt hash at all")).isFalse();
+    }
+
+    @Test
+    void argon2HashIsUpgradedWhenAnyParameterDiffers() {
+        TargetParametersArgon2PasswordEncoder encoder = new TargetParametersArgon2PasswordEncoder(16, 32, 1, 4096, 2);
+
+        assertThat(encoder.upgradeEncoding(encoder.encode("password"))).isFalse();
+        // Lower & higher memory, iterations, parallelism, other salt / hash lengths
+        assertThat(encoder.upgradeEncoding(new TargetParametersArgon2PasswordEncoder(16, 32, 1, 2048, 2).encode("password"))).isTrue();
+        assertThat(encoder.upgradeEncoding(new TargetParametersArgon2PasswordEncoder(16, 32, 1, 8192, 2).encode("password"))).isTrue();
+        assertThat(encoder.upgradeEncoding(new TargetParametersArgon2PasswordEncoder(16, 32, 1, 4096, 3).encode("password"))).isTrue();
+        assertThat(encoder.upgradeEncoding(new TargetParametersArgon2PasswordEncoder(16, 32, 2, 4096, 2).encode("password"))).isTrue();
+        assertThat(encoder.upgradeEncoding(new TargetParametersArgon2PasswordEncoder(8, 32, 1, 4096, 2).encode("password"))).isTrue();
+        assertThat(encoder.upgradeEncoding(new TargetParametersArgon2PasswordEncoder(16, 16, 1, 4096, 2).encode("password"))).isTrue();
+    }
+
+    @Test
+    void malformedArgon2HashIsNotUpgraded() {
+        TargetParametersArgon2PasswordEncoder encoder = new TargetParametersArgon2PasswordEncoder(16, 32, 1, 4096, 2);
+
+        assertThat(encoder.upgradeEncoding(null)).isFalse();
+        assertThat(encoder.upgradeEncoding("$argon2id$v=19$m=x,t=2,p=1$c2FsdA$aGFzaA")).isFalse();
+        assertThat(encoder.upgradeEncoding("$argon2id$v=19$m=4096")).isFalse();
+    }
+
+    @Test
+    void pbkdf2HashIsUpgradedWhenTheSaltLengthDiffers() {
+        TargetSaltLengthPbkdf2PasswordEncoder encoder = new TargetSaltLengthPbkdf2PasswordEncoder(16, 1000);
+
+        assertThat(encoder.upgradeEncoding(encoder.encode("password"))).isFalse();
+        assertThat(encoder.upgradeEncoding(new TargetSaltLengthPbkdf2PasswordEncoder(8, 1000).encode("password"))).isTrue();
+        assertThat(encoder.upgradeEncoding(null)).isFalse();
+        assertThat(encoder.upgradeEncoding("not hex")).isFalse();
+    }
+
+    @Test
+    void sharedEncoderUsesTheConfiguredAlgorithmAndParameters() {
+        MockEnvironment environment = new MockEnvironment()
+                .withProperty("security.password.bcrypt.strength", "4");
+        PasswordEncoder bcrypt = ApplicationConfiguration.delegatingPasswordEncoder(environment);
+
+        String hash = bcrypt.encode("password");
+        assertThat(hash).startsWith("{bcrypt}$2a$04$");
+        assertThat(bcrypt.upgradeEncoding(hash)).isFalse();
+        assertThat(bcrypt.upgradeEncoding("{bcrypt}" + new TargetStrengthBCryptPasswordEncoder(5).encode("password")))
+                .isTrue(); // Target* encoders, not the stock ones (which only upgrade a lower cost)
+
+        environment.setProperty("security.password.encoder", "pbkdf2");
+        PasswordEncoder pbkdf2 = ApplicationConfiguration.delegatingPasswordEncoder(environment);
+        assertThat(pbkdf2.upgradeEncoding(hash)).isTrue(); // Other algorithm
+        assertThat(pbkdf2.matches("password", hash)).isTrue();
+    }
+}
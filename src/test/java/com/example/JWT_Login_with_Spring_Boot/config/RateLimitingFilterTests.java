@@ -0,0 +1,175 @@
+package com.example.JWT_Login_with_Spring_Boot.config;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.servlet.ReadListener;
+import jakarta.servlet.ServletInputStream;
+
+
+class RateLimitingFilterTests {
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    // Login: 3 per IP, 2 per email; resend: 2 per IP, 1 per email (long periods, nothing refills during a test)
+    private final RateLimitingFilter filter = new RateLimitingFilter(
+            new ObjectMapper(), meterRegistry, true, 1000,
+            "3/1h", "2/1h", "3/1h", "2/1h", "2/1h", "1/1h");
+
+    @Test
+    void loginIsLimitedPerEmail() throws Exception {
+        assertThat(login("10.0.0.1", "alice@example.com").getStatus()).isEqualTo(HttpStatus.OK.value());
+        assertThat(login("10.0.0.2", "Alice@Example.com ").getStatus()).isEqualTo(HttpStatus.OK.value());
+
+        MockHttpServletResponse rejected = login("10.0.0.3", "alice@example.com");
+
+        assertThat(rejected.getStatus()).isEqualTo(HttpStatus.TOO_MANY_REQUESTS.value());
+        assertThat(Long.parseLong(rejected.getHeader(HttpHeaders.RETRY_AFTER))).isBetween(1L, 1800L); // 1h / 2
+        assertThat(login("10.0.0.3", "bob@example.com").getStatus()).isEqualTo(HttpStatus.OK.value());
+        assertThat(meterRegistry.get("auth.rate_limit.rejected").tags("endpoint", "login", "key", "email")
+                .counter().count()).isEqualTo(1);
+    }
+
+    @Test
+    void loginIsLimitedPerIp() throws Exception {
+        for (int i = 0; i < 3; i++) {
+            assertThat(login("10.0.0.1", "user" + i + "@example.com").getStatus()).isEqualTo(HttpStatus.OK.value());
+        }
+
+        MockHttpServletResponse rejected = login("10.0.0.1", "other@example.com");
+
+        assertThat(rejected.getStatus()).isEqualTo(HttpStatus.TOO_MANY_REQUESTS.value());
+        assertThat(Long.parseLong(rejected.getHeader(HttpHeaders.RETRY_AFTER))).isBetween(1L, 1200L); // 1h / 3
+        assertThat(login("10.0.0.2", "other@example.com").getStatus()).isEqualTo(HttpStatus.OK.value());
+        assertThat(meterRegistry.get("auth.rate_limit.rejected").tags("endpoint", "login", "key", "ip")
+                .counter().count()).isEqualTo(1);
+    }
+
+    @Test
+    void resendIsLimitedPerEmailParameter() throws Exception {
+        assertThat(resend("10.0.0.1", "alice@example.com").getStatus()).isEqualTo(HttpStatus.OK.value());
+
+        MockHttpServletResponse rejected = resend("10.0.0.2", "ALICE@example.com");
+
+        assertThat(rejected.getStatus()).isEqualTo(HttpStatus.TOO_MANY_REQUESTS.value());
+        assertThat(rejected.getHeader(HttpHeaders.RETRY_AFTER)).isNotNull();
+    }
+
+    @Test
+    void encodedPathIsLimitedLikeThePlainOne() throws Exception {
+        for (int i = 0; i < 3; i++) {
+            assertThat(login("10.0.0.1", "user" + i + "@example.com").getStatus()).isEqualTo(HttpStatus.OK.value());
+        }
+        MockHttpServletRequest request = loginRequest("10.0.0.1", "{\"email\":\"other@example.com\"}");
+        request.setRequestURI("/authentication/%6Cogin"); // Decoded to "/authentication/login" by the dispatcher
+        MockHttpServletResponse response = new MockHttpServletResponse();
+
+        filter.doFilter(request, response, new MockFilterChain());
+
+        assertThat(response.getStatus()).isEqualTo(HttpStatus.TOO_MANY_REQUESTS.value());
+    }
+
+    @Test
+    void endpointsAreMatchedUnderTheContextPath() throws Exception {
+        for (int i = 0; i < 4; i++) {
+            MockHttpServletRequest request = loginRequest("10.0.0.1", "{\"email\":\"user" + i + "@example.com\"}");
+            request.setContextPath("/api");
+            request.setRequestURI("/api/authentication/login");
+            MockHttpServletResponse response = new MockHttpServletResponse();
+
+            filter.doFilter(request, response, new MockFilterChain());
+
+            assertThat(response.getStatus()).isEqualTo(i < 3
+                    ? HttpStatus.OK.value()
+                    : HttpStatus.TOO_MANY_REQUESTS.value()); // 3 per IP
+        }
+    }
+
+    @Test
+    void otherRequestsAreNotLimited() throws Exception {
+        for (int i = 0; i < 10; i++) {
+            MockHttpServletRequest request = new MockHttpServletRequest("GET", "/users/me");
+            request.setRemoteAddr("10.0.0.1");
+            MockHttpServletResponse response = new MockHttpServletResponse();
+            filter.doFilter(request, response, new MockFilterChain());
+            assertThat(response.getStatus()).isEqualTo(HttpStatus.OK.value());
+        }
+    }
+
+    @Test
+    void bodyIsReplayedToTheController() throws Exception {
+        String body = "{\"email\":\"alice@example.com\",\"password\":\"password\"}";
+        MockFilterChain chain = new MockFilterChain();
+
+        filter.doFilter(loginRequest("10.0.0.1", body), new MockHttpServletResponse(), chain);
+
+        ServletInputStream input = chain.getRequest().getInputStream();
+        assertThat(new String(input.readAllBytes(), StandardCharsets.UTF_8)).isEqualTo(body);
+        assertThat(input.isFinished()).isTrue();
+    }
+
+    @Test
+    void readListenerIsToldTheBodyIsAvailable() throws Exception {
+        MockFilterChain chain = new MockFilterChain();
+        filter.doFilter(loginRequest("10.0.0.1", "{\"email\":\"alice@example.com\"}"),
+                new MockHttpServletResponse(), chain);
+        List<String> events = new ArrayList<>();
+
+        chain.getRequest().getInputStream().setReadListener(new ReadListener() {
+            @Override
+            public void onDataAvailable() {
+                events.add("dataAvailable");
+            }
+
+            @Override
+            public void onAllDataRead() {
+                events.add("allDataRead");
+            }
+
+            @Override
+            public void onError(Throwable failure) {
+                events.add("error");
+            }
+        });
+
+        assertThat(events).containsExactly("dataAvailable", "allDataRead");
+    }
+
+    private MockHttpServletResponse login(String ip, String email) throws Exception {
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        filter.doFilter(loginRequest(ip, "{\"email\":\"" + email + "\",\"password\":\"password\"}"),
+                response, new MockFilterChain());
+        return response;
+    }
+
+    private MockHttpServletResponse resend(String ip, String email) throws Exception {
+        MockHttpServletRequest request = new MockHttpServletRequest("POST", "/authentication/resend");
+        request.setRemoteAddr(ip);
+        request.setParameter("email", email);
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        filter.doFilter(request, response, new MockFilterChain());
+        return response;
+    }
+
+    private static MockHttpServletRequest loginRequest(String ip, String body) {
+        MockHttpServletRequest request = new MockHttpServletRequest("POST", "/authentication/login");
+        request.setRemoteAddr(ip);
+        request.setContentType(MediaType.APPLICATION_JSON_VALUE);
+        request.setContent(body.getBytes(StandardCharsets.UTF_8));
+        return request;
+    }
+}
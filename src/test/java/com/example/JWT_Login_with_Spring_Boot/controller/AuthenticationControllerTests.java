@@ -0,0 +1,184 @@
+package com.example.JWT_Login_with_Spring_Boot.controller;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.function.IntFunction;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.RegisterExtension;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.client.TestRestTemplate;
+import org.springframework.http.HttpEntity;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.HttpStatusCode;
+import org.springframework.http.ResponseEntity;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+
+import com.example.JWT_Login_with_Spring_Boot.dto.RegisterUserDto;
+import com.example.JWT_Login_with_Spring_Boot.model.User;
+import com.example.JWT_Login_with_Spring_Boot.repository.EmailOutboxRepository;
+import com.example.JWT_Login_with_Spring_Boot.repository.UserRepository;
+import com.example.JWT_Login_with_Spring_Boot.service.AuthenticationService;
+import com.example.JWT_Login_with_Spring_Boot.service.CachedUserDetailsService;
+import com.example.JWT_Login_with_Spring_Boot.support.EmbeddedInfrastructure;
+import com.icegreen.greenmail.configuration.GreenMailConfiguration;
+import com.icegreen.greenmail.junit5.GreenMailExtension;
+import com.icegreen.greenmail.util.ServerSetupTest;
+
+
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT)
+class AuthenticationControllerTests {
+
+    private static final int CONCURRENT_SIGNUPS = 8;
+
+    @RegisterExtension
+    static GreenMailExtension greenMail = new GreenMailExtension(ServerSetupTest.SMTP)
+            .withConfiguration(GreenMailConfiguration.aConfig()
+                    .withUser(EmbeddedInfrastructure.SMTP_USERNAME, EmbeddedInfrastructure.SMTP_PASSWORD));
+
+    @DynamicPropertySource
+    static void properties(DynamicPropertyRegistry registry) {
+        EmbeddedInfrastructure.register(registry);
+    }
+
+    @Autowired
+    private TestRestTemplate restTemplate;
+    @Autowired
+    private AuthenticationService authenticationService;
+    @Autowired
+    private EmailOutboxRepository emailOutboxRepository;
+    @Autowired
+    private UserRepository userRepository;
+    @Autowired
+    private CachedUserDetailsService userDetailsService;
+
+    @BeforeEach
+    void cleanDatabase() {
+        emailOutboxRepository.deleteAll();
+        userRepository.deleteAll();
+        userDetailsService.invalidateAll();
+    }
+
+    @Test
+    void concurrentSignupsWithTheSameEmailCreateOneUser() throws Exception {
+        List<HttpStatusCode> statuses = signUpConcurrently(index -> registration("user" + index, "same@example.com"));
+
+        assertThat(statuses).filteredOn(status -> status.equals(HttpStatus.CREATED)).hasSize(1);
+        assertThat(statuses).filteredOn(status -> status.equals(HttpStatus.CONFLICT)).hasSize(CONCURRENT_SIGNUPS - 1);
+        assertThat(userRepository.count()).isEqualTo(1);
+        assertThat(emailOutboxRepository.count()).isEqualTo(1); // Losing signups wrote no email either
+    }
+
+    @Test
+    void concurrentSignupsWithCaseVariantsOfAnEmailCreateOneUser() throws Exception {
+        // One account, whatever the case (unique lower(email) index)
+        String[] variants = {"same@example.com", "Same@Example.com", "SAME@EXAMPLE.COM", "same@EXAMPLE.com"};
+        List<HttpStatusCode> statuses = signUpConcurrently(
+                index -> registration("user" + index, variants[index % variants.length]));
+
+        assertThat(statuses).filteredOn(status -> status.equals(HttpStatus.CREATED)).hasSize(1);
+        assertThat(statuses).filteredOn(status -> status.equals(HttpStatus.CONFLICT)).hasSize(CONCURRENT_SIGNUPS - 1);
+        assertThat(userRepository.count()).isEqualTo(1);
+    }
+
+    @Test
+    void concurrentSignupsWithTheSameUsernameCreateOneUser() throws Exception {
+        List<HttpStatusCode> statuses = signUpConcurrently(index -> registration("same", "user" + index + "@example.com"));
+
+        assertThat(statuses).filteredOn(status -> status.equals(HttpStatus.CREATED)).hasSize(1);
+        assertThat(statuses).filteredOn(status -> status.equals(HttpStatus.CONFLICT)).hasSize(CONCURRENT_SIGNUPS - 1);
+        assertThat(userRepository.count()).isEqualTo(1);
+    }
+
+    @Test
+    void jwksIsRevalidatedWithItsEtag() {
+        ResponseEntity<String> first = restTemplate.getForEntity("/authentication/jwks", String.class);
+        assertThat(first.getStatusCode()).isEqualTo(HttpStatus.OK);
+        assertThat(first.getHeaders().getETag()).isNotBlank();
+        assertThat(first.getHeaders().getCacheControl()).contains("max-age");
+
+        HttpHeaders headers = new HttpHeaders();
+        headers.setIfNoneMatch(first.getHeaders().getETag());
+        ResponseEntity<String> revalidated = restTemplate.exchange(
+                "/authentication/jwks", HttpMethod.GET, new HttpEntity<>(headers), String.class);
+        assertThat(revalidated.getStatusCode()).isEqualTo(HttpStatus.NOT_MODIFIED);
+        assertThat(revalidated.getBody()).isNull();
+
+        headers.setIfNoneMatch("\"other\"");
+        ResponseEntity<String> changed = restTemplate.exchange(
+                "/authentication/jwks", HttpMethod.GET, new HttpEntity<>(headers), String.class);
+        assertThat(changed.getStatusCode()).isEqualTo(HttpStatus.OK);
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void logoutRevokesTheAccessToken() {
+        authenticationService.signup(registration("alice", "alice@example.com"));
+        User user = userRepository.findByEmail("alice@example.com").orElseThrow();
+        user.setEnabled(true);
+        userRepository.save(user);
+        userDetailsService.invalidate(user.getEmail());
+
+        Map<String, Object> login = restTemplate.postForObject(
+                "/authentication/login", Map.of("email", "alice@example.com", "password", "password"), Map.class);
+        HttpHeaders headers = new HttpHeaders();
+        headers.setBearerAuth((String) login.get("token"));
+
+        assertThat(restTemplate.exchange("/users/me", HttpMethod.GET, new HttpEntity<>(headers), String.class)
+                .getStatusCode()).isEqualTo(HttpStatus.OK);
+
+        ResponseEntity<String> logout = restTemplate.exchange(
+                "/authentication/logout", HttpMethod.POST, new HttpEntity<>(headers), String.class);
+        assertThat(logout.getStatusCode()).isEqualTo(HttpStatus.OK);
+
+        assertThat(restTemplate.exchange("/users/me", HttpMethod.GET, new HttpEntity<>(headers), String.class)
+                .getStatusCode().is4xxClientError()).isTrue();
+    }
+
+    // Send the signups at the same time (all threads wait on the same latch), return the response statuses
+    private List<HttpStatusCode> signUpConcurrently(IntFunction<RegisterUserDto> registrations)
+            throws Exception {
+        CountDownLatch start = new CountDownLatch(1);
+        ExecutorService executor = Executors.newFixedThreadPool(CONCURRENT_SIGNUPS);
+        try {
+            List<Future<HttpStatusCode>> responses = new ArrayList<>();
+            for (int i = 0; i < CONCURRENT_SIGNUPS; i++) {
+                RegisterUserDto registerUserDto = registrations.apply(i);
+                responses.add(executor.submit(() -> {
+                    start.await();
+                    return restTemplate.postForEntity("/authentication/signup", registerUserDto, String.class)
+                            .getStatusCode();
+                }));
+            }
+            start.countDown();
+
+            List<HttpStatusCode> statuses = new ArrayList<>();
+            for (Future<HttpStatusCode> response : responses) {
+                statuses.add(response.get());
+            }
+            return statuses;
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    static RegisterUserDto registration(String username, String email) {
+        RegisterUserDto registerUserDto = new RegisterUserDto();
+        registerUserDto.setUsername(username);
+        registerUserDto.setEmail(email);
+        registerUserDto.setPassword("password");
+        return registerUserDto;
+    }
+}
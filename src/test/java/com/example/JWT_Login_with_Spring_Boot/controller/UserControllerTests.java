@@ -0,0 +1,126 @@
+package com.example.JWT_Login_with_Spring_Boot.controller;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.Map;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.RegisterExtension;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.client.TestRestTemplate;
+import org.springframework.http.HttpEntity;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+
+import com.example.JWT_Login_with_Spring_Boot.model.User;
+import com.example.JWT_Login_with_Spring_Boot.repository.EmailOutboxRepository;
+import com.example.JWT_Login_with_Spring_Boot.repository.UserRepository;
+import com.example.JWT_Login_with_Spring_Boot.service.AuthenticationService;
+import com.example.JWT_Login_with_Spring_Boot.service.CachedUserDetailsService;
+import com.example.JWT_Login_with_Spring_Boot.support.EmbeddedInfrastructure;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.icegreen.greenmail.configuration.GreenMailConfiguration;
+import com.icegreen.greenmail.junit5.GreenMailExtension;
+import com.icegreen.greenmail.util.ServerSetupTest;
+
+
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT)
+class UserControllerTests {
+
+    @RegisterExtension
+    static GreenMailExtension greenMail = new GreenMailExtension(ServerSetupTest.SMTP)
+            .withConfiguration(GreenMailConfiguration.aConfig()
+                    .withUser(EmbeddedInfrastructure.SMTP_USERNAME, EmbeddedInfrastructure.SMTP_PASSWORD));
+
+    @DynamicPropertySource
+    static void properties(DynamicPropertyRegistry registry) {
+        EmbeddedInfrastructure.register(registry);
+    }
+
+    @Autowired
+    private TestRestTemplate restTemplate;
+    @Autowired
+    private ObjectMapper objectMapper;
+    @Autowired
+    private AuthenticationService authenticationService;
+    @Autowired
+    private EmailOutboxRepository emailOutboxRepository;
+    @Autowired
+    private UserRepository userRepository;
+    @Autowired
+    private CachedUserDetailsService userDetailsService;
+
+    @BeforeEach
+    void cleanDatabase() {
+        emailOutboxRepository.deleteAll();
+        userRepository.deleteAll();
+        userDetailsService.invalidateAll();
+    }
+
+    @Test
+    void streamWithBearerTokenReturnsEveryUserAcrossPages() throws Exception {
+        for (String name : new String[] {"alice", "bob", "carol", "dave", "erin"}) {
+            createVerifiedUser(name);
+        }
+        String token = login("alice@example.com");
+
+        // 2 users per query: 3 pages, the last one partial
+        ResponseEntity<String> response = restTemplate.exchange(
+                "/users/stream?fetchSize=2", HttpMethod.GET, new HttpEntity<>(bearer(token)), String.class);
+
+        assertThat(response.getStatusCode()).isEqualTo(HttpStatus.OK);
+        JsonNode users = objectMapper.readTree(response.getBody());
+        assertThat(users).hasSize(5);
+        assertThat(users).extracting(user -> user.get("email").asText()).containsExactly(
+                "alice@example.com", "bob@example.com", "carol@example.com", "dave@example.com", "erin@example.com");
+        assertThat(users).allSatisfy(user -> assertThat(user.has("password")).isFalse());
+    }
+
+    @Test
+    void streamOfAFullLastPageEndsTheArray() throws Exception {
+        createVerifiedUser("alice");
+        createVerifiedUser("bob");
+        String token = login("alice@example.com");
+
+        ResponseEntity<String> response = restTemplate.exchange(
+                "/users/stream?fetchSize=2", HttpMethod.GET, new HttpEntity<>(bearer(token)), String.class);
+
+        assertThat(response.getStatusCode()).isEqualTo(HttpStatus.OK);
+        assertThat(objectMapper.readTree(response.getBody())).hasSize(2);
+    }
+
+    @Test
+    void streamWithoutTokenIsRejected() {
+        ResponseEntity<String> response = restTemplate.getForEntity("/users/stream", String.class);
+
+        assertThat(response.getStatusCode().is4xxClientError()).isTrue();
+    }
+
+    private void createVerifiedUser(String name) {
+        authenticationService.signup(AuthenticationControllerTests.registration(name, name + "@example.com"));
+        User user = userRepository.findByEmail(name + "@example.com").orElseThrow();
+        user.setEnabled(true);
+        userRepository.save(user);
+        userDetailsService.invalidate(user.getEmail());
+    }
+
+    @SuppressWarnings("unchecked")
+    private String login(String email) {
+        Map<String, Object> response = restTemplate.postForObject(
+                "/authentication/login", Map.of("email", email, "password", "password"), Map.class);
+        return (String) response.get("token");
+    }
+
+    private static HttpHeaders bearer(String token) {
+        HttpHeaders headers = new HttpHeaders();
+        headers.setBearerAuth(token);
+        return headers;
+    }
+}
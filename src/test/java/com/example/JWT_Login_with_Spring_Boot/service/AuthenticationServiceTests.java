@@ -0,0 +1,170 @@
+package com.example.JWT_Login_with_Spring_Boot.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.Mockito.doAnswer;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.RegisterExtension;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.security.authentication.BadCredentialsException;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.springframework.test.context.bean.override.mockito.MockitoSpyBean;
+
+import com.example.JWT_Login_with_Spring_Boot.dto.ChangePasswordDto;
+import com.example.JWT_Login_with_Spring_Boot.dto.LoginUserDto;
+import com.example.JWT_Login_with_Spring_Boot.dto.RegisterUserDto;
+import com.example.JWT_Login_with_Spring_Boot.dto.VerifyUserDto;
+import com.example.JWT_Login_with_Spring_Boot.model.User;
+import com.example.JWT_Login_with_Spring_Boot.repository.EmailOutboxRepository;
+import com.example.JWT_Login_with_Spring_Boot.repository.UserRepository;
+import com.example.JWT_Login_with_Spring_Boot.support.EmbeddedInfrastructure;
+import com.icegreen.greenmail.configuration.GreenMailConfiguration;
+import com.icegreen.greenmail.junit5.GreenMailExtension;
+import com.icegreen.greenmail.util.ServerSetupTest;
+
+
+@SpringBootTest
+class AuthenticationServiceTests {
+
+    @RegisterExtension
+    static GreenMailExtension greenMail = new GreenMailExtension(ServerSetupTest.SMTP)
+            .withConfiguration(GreenMailConfiguration.aConfig()
+                    .withUser(EmbeddedInfrastructure.SMTP_USERNAME, EmbeddedInfrastructure.SMTP_PASSWORD));
+
+    @DynamicPropertySource
+    static void properties(DynamicPropertyRegistry registry) {
+        EmbeddedInfrastructure.register(registry);
+    }
+
+    @Autowired
+    private AuthenticationService authenticationService;
+    @Autowired
+    private CachedUserDetailsService userDetailsService;
+    @Autowired
+    private EmailOutboxRepository emailOutboxRepository;
+    @Autowired
+    private UserRepository userRepository;
+    @MockitoSpyBean
+    private PasswordEncoder passwordEncoder; // Real encoder, spied to interleave a password change with a login
+
+    @BeforeEach
+    void cleanDatabase() {
+        emailOutboxRepository.deleteAll();
+        userRepository.deleteAll();
+        userDetailsService.invalidateAll();
+    }
+
+    @Test
+    void savedUserIsVisibleThroughTheCacheRightAway() {
+        authenticationService.signup(registration("alice", "alice@example.com"));
+        assertThat(userDetailsService.loadUserByUsername("alice@example.com").isEnabled()).isFalse(); // Now cached
+
+        User stored = userRepository.findByEmail("alice@example.com").orElseThrow();
+        VerifyUserDto verifyUserDto = new VerifyUserDto();
+        verifyUserDto.setEmail("alice@example.com");
+        verifyUserDto.setVerificationCode(stored.getVerificationCode());
+        authenticationService.verifyUser(verifyUserDto);
+
+        assertThat(userDetailsService.loadUserByUsername("alice@example.com").isEnabled()).isTrue();
+    }
+
+    @Test
+    void signupStoresTheHashAndTheOutboxEmailTogether() {
+        User saved = authenticationService.signup(registration("carol", "carol@example.com"));
+
+        assertThat(saved.getId()).isNotNull();
+        assertThat(passwordEncoder.matches("password", userRepository.findByEmail("carol@example.com")
+                .orElseThrow().getPassword())).isTrue();
+        assertThat(emailOutboxRepository.findAll()).singleElement()
+                .satisfies(email -> assertThat(email.getRecipient()).isEqualTo("carol@example.com"));
+
+        // Duplicate: the conflict is reported, nothing new is written
+        User conflict = authenticationService.signup(registration("carol", "carol@example.com"));
+        assertThat(conflict.getId()).isNull();
+        assertThat(emailOutboxRepository.count()).isEqualTo(1);
+    }
+
+    @Test
+    void changePasswordStoresTheNewHashAndBumpsTheTokenEpoch() {
+        authenticationService.signup(registration("dave", "dave@example.com"));
+        int epoch = userRepository.findByEmail("dave@example.com").orElseThrow().getTokenEpoch();
+
+        ChangePasswordDto wrongCurrent = new ChangePasswordDto();
+        wrongCurrent.setCurrentPassword("wrong");
+        wrongCurrent.setNewPassword("new-password");
+        assertThatThrownBy(() -> authenticationService.changePassword("dave@example.com", wrongCurrent))
+                .isInstanceOf(BadCredentialsException.class);
+
+        ChangePasswordDto changePasswordDto = new ChangePasswordDto();
+        changePasswordDto.setCurrentPassword("password");
+        changePasswordDto.setNewPassword("new-password");
+        authenticationService.changePassword("dave@example.com", changePasswordDto);
+
+        User stored = userRepository.findByEmail("dave@example.com").orElseThrow();
+        assertThat(passwordEncoder.matches("new-password", stored.getPassword())).isTrue();
+        assertThat(stored.getTokenEpoch()).isEqualTo(epoch + 1);
+    }
+
+    @Test
+    void passwordChangedWhileALoginRehashesIsKept() {
+        authenticationService.signup(registration("erin", "erin@example.com"));
+        User user = userRepository.findByEmail("erin@example.com").orElseThrow();
+        user.setEnabled(true);
+        user.setPassword(new BCryptPasswordEncoder(4).encode("password")); // No "{id}" prefix: upgraded on login
+        userRepository.save(user);
+        userDetailsService.invalidate("erin@example.com");
+        int epoch = user.getTokenEpoch();
+
+        // The login has loaded the user and checked the password, the password changes while it hashes the upgrade
+        ChangePasswordDto changePasswordDto = new ChangePasswordDto();
+        changePasswordDto.setCurrentPassword("password");
+        changePasswordDto.setNewPassword("new-password");
+        doAnswer(invocation -> {
+            authenticationService.changePassword("erin@example.com", changePasswordDto);
+            return invocation.callRealMethod();
+        }).when(passwordEncoder).encode("password");
+
+        LoginUserDto loginUserDto = new LoginUserDto();
+        loginUserDto.setEmail("erin@example.com");
+        loginUserDto.setPassword("password");
+        authenticationService.authenticate(loginUserDto);
+
+        User stored = userRepository.findByEmail("erin@example.com").orElseThrow();
+        assertThat(passwordEncoder.matches("new-password", stored.getPassword())).isTrue();
+        assertThat(passwordEncoder.matches("password", stored.getPassword())).isFalse();
+        assertThat(stored.getTokenEpoch()).isEqualTo(epoch + 1); // Not revived by the login
+    }
+
+    @Test
+    void loginRehashesAnOutdatedHash() {
+        authenticationService.signup(registration("frank", "frank@example.com"));
+        User user = userRepository.findByEmail("frank@example.com").orElseThrow();
+        user.setEnabled(true);
+        user.setPassword(new BCryptPasswordEncoder(4).encode("password"));
+        userRepository.save(user);
+        userDetailsService.invalidate("frank@example.com");
+
+        LoginUserDto loginUserDto = new LoginUserDto();
+        loginUserDto.setEmail("frank@example.com");
+        loginUserDto.setPassword("password");
+        authenticationService.authenticate(loginUserDto);
+
+        String stored = userRepository.findByEmail("frank@example.com").orElseThrow().getPassword();
+        assertThat(stored).startsWith("{bcrypt}");
+        assertThat(passwordEncoder.matches("password", stored)).isTrue();
+    }
+
+    static RegisterUserDto registration(String username, String email) {
+        RegisterUserDto registerUserDto = new RegisterUserDto();
+        registerUserDto.setUsername(username);
+        registerUserDto.setEmail(email);
+        registerUserDto.setPassword("password");
+        return registerUserDto;
+    }
+}
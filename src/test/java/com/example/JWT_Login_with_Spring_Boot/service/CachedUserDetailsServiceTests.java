@@ -0,0 +1,112 @@
+package com.example.JWT_Login_with_Spring_Boot.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.time.Duration;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.security.core.userdetails.UsernameNotFoundException;
+
+import com.example.JWT_Login_with_Spring_Boot.model.User;
+import com.example.JWT_Login_with_Spring_Boot.repository.UserRepository;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+
+class CachedUserDetailsServiceTests {
+
+    private final AtomicLong nanos = new AtomicLong(); // Fake clock of the cache
+    private UserRepository userRepository;
+    private CachedUserDetailsService userDetailsService;
+
+    @BeforeEach
+    void setup() {
+        userRepository = mock(UserRepository.class);
+        userDetailsService = new CachedUserDetailsService(
+                userRepository, Duration.ofSeconds(60), Duration.ofSeconds(10), 100,
+                new SimpleMeterRegistry(), nanos::get);
+    }
+
+    @Test
+    void userIsLoadedOnceAndLookedUpCaseInsensitively() {
+        when(userRepository.findByEmail("alice@example.com")).thenReturn(Optional.of(user("alice@example.com")));
+
+        userDetailsService.loadUserByUsername("alice@example.com");
+        User user = userDetailsService.loadUserByUsername("Alice@Example.com");
+
+        assertThat(user.getEmail()).isEqualTo("alice@example.com");
+        verify(userRepository, times(1)).findByEmail(anyString());
+    }
+
+    @Test
+    void everyLookupReturnsItsOwnCopy() {
+        when(userRepository.findByEmail("alice@example.com")).thenReturn(Optional.of(user("alice@example.com")));
+
+        User first = userDetailsService.loadUserByUsername("alice@example.com");
+        first.setPassword("changed by a caller");
+        first.setEnabled(false);
+        User second = userDetailsService.loadUserByUsername("alice@example.com");
+
+        assertThat(second).isNotSameAs(first);
+        assertThat(second.getPassword()).isEqualTo("{bcrypt}hash");
+        assertThat(second.isEnabled()).isTrue();
+    }
+
+    @Test
+    void invalidateReloadsTheUser() {
+        when(userRepository.findByEmail("alice@example.com")).thenReturn(Optional.of(user("alice@example.com")));
+
+        userDetailsService.loadUserByUsername("alice@example.com");
+        userDetailsService.invalidate("ALICE@example.com");
+        userDetailsService.loadUserByUsername("alice@example.com");
+
+        verify(userRepository, times(2)).findByEmail("alice@example.com");
+    }
+
+    @Test
+    void unknownEmailsAreCachedForTheNegativeTtlOnly() {
+        when(userRepository.findByEmail("nobody@example.com")).thenReturn(Optional.empty());
+
+        assertThatThrownBy(() -> userDetailsService.loadUserByUsername("nobody@example.com"))
+                .isInstanceOf(UsernameNotFoundException.class);
+        nanos.addAndGet(Duration.ofSeconds(9).toNanos());
+        assertThatThrownBy(() -> userDetailsService.loadUserByUsername("nobody@example.com"))
+                .isInstanceOf(UsernameNotFoundException.class);
+        verify(userRepository, times(1)).findByEmail("nobody@example.com");
+
+        nanos.addAndGet(Duration.ofSeconds(2).toNanos()); // Past the 10s negative TTL
+        assertThatThrownBy(() -> userDetailsService.loadUserByUsername("nobody@example.com"))
+                .isInstanceOf(UsernameNotFoundException.class);
+        verify(userRepository, times(2)).findByEmail("nobody@example.com");
+    }
+
+    @Test
+    void foundUsersExpireAfterTheTtl() {
+        when(userRepository.findByEmail("alice@example.com")).thenReturn(Optional.of(user("alice@example.com")));
+
+        userDetailsService.loadUserByUsername("alice@example.com");
+        nanos.addAndGet(Duration.ofSeconds(30).toNanos()); // Longer than the negative TTL, shorter than the TTL
+        userDetailsService.loadUserByUsername("alice@example.com");
+        verify(userRepository, times(1)).findByEmail("alice@example.com");
+
+        nanos.addAndGet(Duration.ofSeconds(31).toNanos());
+        userDetailsService.loadUserByUsername("alice@example.com");
+        verify(userRepository, times(2)).findByEmail("alice@example.com");
+    }
+
+    private static User user(String email) {
+        User user = new User("alice", email, "{bcrypt}hash");
+        user.setId(1L);
+        user.setEnabled(true);
+        return user;
+    }
+}
@@ -0,0 +1,176 @@
+package com.example.JWT_Login_with_Spring_Boot.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.awaitility.Awaitility.await;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.RegisterExtension;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+
+import com.example.JWT_Login_with_Spring_Boot.dto.RegisterUserDto;
+import com.example.JWT_Login_with_Spring_Boot.model.EmailOutbox;
+import com.example.JWT_Login_with_Spring_Boot.repository.EmailOutboxRepository;
+import com.example.JWT_Login_with_Spring_Boot.repository.UserRepository;
+import com.example.JWT_Login_with_Spring_Boot.support.EmbeddedInfrastructure;
+import com.icegreen.greenmail.configuration.GreenMailConfiguration;
+import com.icegreen.greenmail.junit5.GreenMailExtension;
+import com.icegreen.greenmail.util.ServerSetupTest;
+
+import jakarta.mail.internet.MimeMessage;
+
+
+@SpringBootTest(properties = {
+        "email.outbox.poll-interval=100ms",
+        "email.outbox.max-attempts=2",
+        "email.outbox.retry-backoff=0s",
+        "email.dispatcher.pause-after-failure=100ms"
+})
+class EmailOutboxRelayTests {
+
+    @RegisterExtension
+    static GreenMailExtension greenMail = new GreenMailExtension(ServerSetupTest.SMTP)
+            .withConfiguration(GreenMailConfiguration.aConfig()
+                    .withUser(EmbeddedInfrastructure.SMTP_USERNAME, EmbeddedInfrastructure.SMTP_PASSWORD));
+
+    @DynamicPropertySource
+    static void properties(DynamicPropertyRegistry registry) {
+        EmbeddedInfrastructure.register(registry);
+    }
+
+    @Autowired
+    private AuthenticationService authenticationService;
+    @Autowired
+    private EmailOutboxRelay emailOutboxRelay;
+    @Autowired
+    private EmailOutboxRepository emailOutboxRepository;
+    @Autowired
+    private UserRepository userRepository;
+
+    @BeforeEach
+    void cleanDatabase() {
+        emailOutboxRepository.deleteAll();
+        userRepository.deleteAll();
+    }
+
+    @Test
+    void signupEmailIsSentThroughTheOutbox() throws Exception {
+        authenticationService.signup(registration("alice", "alice@example.com"));
+
+        assertThat(greenMail.waitForIncomingEmail(10_000, 1)).isTrue();
+        MimeMessage received = greenMail.getReceivedMessages()[0];
+        assertThat(received.getAllRecipients()[0].toString()).isEqualTo("alice@example.com");
+
+        await().atMost(Duration.ofSeconds(10)).untilAsserted(() -> assertThat(emailOutboxRepository.findAll())
+                .singleElement()
+                .satisfies(email -> {
+                    assertThat(email.getStatus()).isEqualTo(EmailOutbox.Status.SENT);
+                    assertThat(email.getAttempts()).isEqualTo(1);
+                }));
+    }
+
+    @Test
+    void failingEmailIsDeadLetteredAfterMaxAttempts() {
+        greenMail.stop(); // SMTP server unreachable
+
+        authenticationService.signup(registration("bob", "bob@example.com"));
+
+        await().atMost(Duration.ofSeconds(20)).untilAsserted(() -> assertThat(emailOutboxRepository.findAll())
+                .singleElement()
+                .satisfies(email -> {
+                    assertThat(email.getStatus()).isEqualTo(EmailOutbox.Status.DEAD);
+                    assertThat(email.getAttempts()).isEqualTo(2);
+                    assertThat(email.getLastError()).isNotBlank();
+                }));
+    }
+
+    @Test
+    void resultOfAnOutdatedClaimIsIgnored() {
+        UUID currentClaim = UUID.randomUUID();
+        EmailOutbox claimed = new EmailOutbox("carol@example.com", "Subject", "<p>Body</p>", "Body");
+        claimed.setStatus(EmailOutbox.Status.PROCESSING);
+        claimed.setLockedUntil(LocalDateTime.now().plusMinutes(5));
+        claimed.setClaimToken(currentClaim);
+        claimed.setAttempts(2);
+        Long id = emailOutboxRepository.save(claimed).getId();
+
+        // Late result of the previous claim (its lease ran out, the row was claimed again)
+        emailOutboxRelay.recordResult(id, UUID.randomUUID(), null);
+        assertThat(emailOutboxRepository.findById(id)).get().satisfies(email -> {
+            assertThat(email.getStatus()).isEqualTo(EmailOutbox.Status.PROCESSING);
+            assertThat(email.getClaimToken()).isEqualTo(currentClaim);
+        });
+
+        emailOutboxRelay.recordResult(id, currentClaim, null);
+        assertThat(emailOutboxRepository.findById(id)).get().satisfies(email -> {
+            assertThat(email.getStatus()).isEqualTo(EmailOutbox.Status.SENT);
+            assertThat(email.getClaimToken()).isNull();
+        });
+    }
+
+    @Test
+    void emailThatExpiredInTheQueueIsReleasedWithoutCountingTheAttempt() {
+        UUID claim = UUID.randomUUID();
+        EmailOutbox claimed = new EmailOutbox("dave@example.com", "Subject", "<p>Body</p>", "Body");
+        claimed.setStatus(EmailOutbox.Status.PROCESSING);
+        claimed.setLockedUntil(LocalDateTime.now().plusMinutes(5));
+        claimed.setClaimToken(claim);
+        claimed.setAttempts(1);
+        claimed.setNextAttemptAt(LocalDateTime.now().plusHours(1)); // Not picked up again by the running relay
+        Long id = emailOutboxRepository.save(claimed).getId();
+
+        emailOutboxRelay.recordResult(id, claim, new EmailDispatcher.ExpiredException("expired"));
+
+        assertThat(emailOutboxRepository.findById(id)).get().satisfies(email -> {
+            assertThat(email.getStatus()).isEqualTo(EmailOutbox.Status.PENDING);
+            assertThat(email.getAttempts()).isZero();
+            assertThat(email.getClaimToken()).isNull();
+        });
+    }
+
+    @Test
+    void expiredLeaseIsReclaimedOnlyWhileAttemptsAreLeft() throws Exception {
+        // Leases that ran out (the node crashed while sending), one attempt left / none left
+        Long retriedId = emailOutboxRepository.save(abandoned("erin@example.com", 1)).getId();
+        Long deadId = emailOutboxRepository.save(abandoned("frank@example.com", 2)).getId();
+
+        await().atMost(Duration.ofSeconds(10)).untilAsserted(() -> {
+            assertThat(emailOutboxRepository.findById(retriedId)).get().satisfies(email -> {
+                assertThat(email.getStatus()).isEqualTo(EmailOutbox.Status.SENT);
+                assertThat(email.getAttempts()).isEqualTo(2);
+            });
+            assertThat(emailOutboxRepository.findById(deadId)).get().satisfies(email -> {
+                assertThat(email.getStatus()).isEqualTo(EmailOutbox.Status.DEAD);
+                assertThat(email.getAttempts()).isEqualTo(2); // Not claimed a third time
+                assertThat(email.getClaimToken()).isNull();
+                assertThat(email.getLastError()).isNotBlank();
+            });
+        });
+        assertThat(greenMail.getReceivedMessages()).hasSize(1);
+        assertThat(greenMail.getReceivedMessages()[0].getAllRecipients()[0].toString()).isEqualTo("erin@example.com");
+    }
+
+    private static EmailOutbox abandoned(String recipient, int attempts) {
+        EmailOutbox email = new EmailOutbox(recipient, "Subject", "<p>Body</p>", "Body");
+        email.setStatus(EmailOutbox.Status.PROCESSING);
+        email.setLockedUntil(LocalDateTime.now().minusMinutes(1));
+        email.setClaimToken(UUID.randomUUID());
+        email.setAttempts(attempts);
+        return email;
+    }
+
+    private static RegisterUserDto registration(String username, String email) {
+        RegisterUserDto registerUserDto = new RegisterUserDto();
+        registerUserDto.setUsername(username);
+        registerUserDto.setEmail(email);
+        registerUserDto.setPassword("password");
+        return registerUserDto;
+    }
+}
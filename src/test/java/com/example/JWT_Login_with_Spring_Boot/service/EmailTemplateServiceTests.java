@@ -0,0 +1,64 @@
+package com.example.JWT_Login_with_Spring_Boot.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import java.util.Locale;
+import java.util.Map;
+
+import org.junit.jupiter.api.Test;
+
+import com.example.JWT_Login_with_Spring_Boot.model.RenderedEmail;
+
+
+class EmailTemplateServiceTests {
+
+    private final EmailTemplateService emailTemplateService = new EmailTemplateService();
+
+    @Test
+    void valuesAreEscapedInTheHtmlBodyOnly() {
+        RenderedEmail email = emailTemplateService.render(
+                "verification", Locale.ENGLISH, Map.of("verificationCode", "<b>1 & \"2\"</b>"));
+
+        assertThat(email.htmlBody())
+                .contains("Verification code &lt;b&gt;1 &amp; &quot;2&quot;&lt;/b&gt;")
+                .doesNotContain("<b>1");
+        assertThat(email.textBody()).contains("Verification code <b>1 & \"2\"</b>");
+        assertThat(email.subject()).isEqualTo("Account verification");
+    }
+
+    @Test
+    void arabicLocaleUsesTheArabicFiles() {
+        RenderedEmail email = emailTemplateService.render(
+                "verification", Locale.forLanguageTag("ar-EG"), Map.of("verificationCode", "123456"));
+
+        assertThat(email.subject()).isEqualTo("تأكيد الحساب");
+        assertThat(email.textBody()).contains("رمز التحقق 123456");
+        assertThat(email.htmlBody()).startsWith("<html dir=\"rtl\" lang=\"ar\">").contains("رمز التحقق 123456");
+    }
+
+    @Test
+    void localeWithoutFilesFallsBackToTheDefaultFiles() {
+        for (Locale locale : new Locale[] {Locale.FRENCH, Locale.forLanguageTag("en-GB"), null}) {
+            RenderedEmail email = emailTemplateService.render(
+                    "verification", locale, Map.of("verificationCode", "123456"));
+
+            assertThat(email.subject()).isEqualTo("Account verification");
+            assertThat(email.textBody()).startsWith("Welcome to our app!").contains("Verification code 123456");
+            assertThat(email.htmlBody()).contains("Verification code 123456");
+        }
+    }
+
+    @Test
+    void missingValuesRenderAsEmpty() {
+        RenderedEmail email = emailTemplateService.render("verification", Locale.ENGLISH, Map.of());
+
+        assertThat(email.textBody()).endsWith("Verification code ");
+    }
+
+    @Test
+    void unknownTemplateIsRejected() {
+        assertThatThrownBy(() -> emailTemplateService.render("missing", Locale.ENGLISH, Map.of()))
+                .isInstanceOf(IllegalArgumentException.class);
+    }
+}
@@ -0,0 +1,194 @@
+package com.example.JWT_Login_with_Spring_Boot.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.security.KeyPair;
+import java.security.KeyPairGenerator;
+import java.security.spec.ECGenParameterSpec;
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import io.jsonwebtoken.security.InvalidKeyException;
+
+
+class JwtKeyRingTests {
+
+    private static final Duration JWKS_MAX_AGE = Duration.ofMinutes(5);
+    private static final long TOKEN_LIFETIME_MILLIS = Duration.ofHours(1).toMillis();
+
+    @TempDir
+    Path keys;
+
+    private final MutableClock clock = new MutableClock(Instant.parse("2026-10-01T00:00:00Z"));
+
+    @Test
+    void keysFoundAtStartupSignRightAway() throws Exception {
+        writeKeyPair("2026-09-01", "secp256r1");
+        writeKeyPair("2026-10-01", "secp256r1");
+
+        JwtKeyRing keyRing = keyRing();
+
+        assertThat(keyRing.signingKey().kid()).isEqualTo("2026-10-01"); // Greatest kid
+        assertThat(keyRing.verificationKey("2026-09-01")).isNotNull();
+    }
+
+    @Test
+    void newKeyIsPublishedBeforeItSignsTokens() throws Exception {
+        writeKeyPair("2026-09-01", "secp256r1");
+        JwtKeyRing keyRing = keyRing();
+
+        writeKeyPair("2026-10-01", "secp256r1");
+        keyRing.reload();
+
+        // Published (clients can fetch it), but not used for signing before one JWKS max-age
+        assertThat(kids(keyRing)).containsExactly("2026-09-01", "2026-10-01");
+        assertThat(keyRing.signingKey().kid()).isEqualTo("2026-09-01");
+
+        clock.advance(JWKS_MAX_AGE.minusSeconds(1));
+        keyRing.reload();
+        assertThat(keyRing.signingKey().kid()).isEqualTo("2026-09-01");
+
+        clock.advance(Duration.ofSeconds(1));
+        keyRing.reload();
+        assertThat(keyRing.signingKey().kid()).isEqualTo("2026-10-01");
+    }
+
+    @Test
+    void deletedKeyVerifiesTokensForOneTokenLifetime() throws Exception {
+        writeKeyPair("2026-09-01", "secp256r1");
+        writeKeyPair("2026-10-01", "secp256r1");
+        JwtKeyRing keyRing = keyRing();
+
+        Files.delete(keys.resolve("2026-09-01.key"));
+        Files.delete(keys.resolve("2026-09-01.pub"));
+        keyRing.reload();
+        assertThat(keyRing.verificationKey("2026-09-01")).isNotNull(); // Tokens it signed are still valid
+
+        clock.advance(Duration.ofMillis(TOKEN_LIFETIME_MILLIS).minusSeconds(1));
+        keyRing.reload();
+        assertThat(keyRing.verificationKey("2026-09-01")).isNotNull();
+
+        clock.advance(Duration.ofSeconds(1));
+        keyRing.reload();
+        assertThatThrownBy(() -> keyRing.verificationKey("2026-09-01")).isInstanceOf(InvalidKeyException.class);
+        assertThat(kids(keyRing)).containsExactly("2026-10-01");
+    }
+
+    @Test
+    void etagOnlyChangesWithThePublishedKeys() throws Exception {
+        writeKeyPair("2026-09-01", "secp256r1");
+        JwtKeyRing keyRing = keyRing();
+        String etag = keyRing.publishedKeys().etag();
+
+        keyRing.reload();
+        assertThat(keyRing.publishedKeys().etag()).isEqualTo(etag);
+
+        writeKeyPair("2026-10-01", "secp256r1");
+        keyRing.reload();
+        assertThat(keyRing.publishedKeys().etag()).isNotEqualTo(etag);
+        assertThat(keyRing.publishedKeys().maxAge()).isEqualTo(JWKS_MAX_AGE);
+    }
+
+    @Test
+    void jwkAlgorithmAndCurveComeFromTheKey() throws Exception {
+        writeKeyPair("2026-09-01", "secp256r1");
+        JwtKeyRing keyRing = keyRing();
+
+        JsonNode jwk = new ObjectMapper().readTree(keyRing.publishedKeys().json()).get("keys").get(0);
+        assertThat(jwk.get("alg").asText()).isEqualTo("ES256");
+        assertThat(jwk.get("crv").asText()).isEqualTo("P-256");
+        assertThat(jwk.get("kid").asText()).isEqualTo("2026-09-01");
+    }
+
+    @Test
+    void keyOfAnotherCurveIsRejected() throws Exception {
+        writeKeyPair("2026-09-01", "secp384r1"); // ES384 key, announced as ES256 it would break verifiers
+
+        assertThatThrownBy(this::keyRing).isInstanceOf(IllegalStateException.class);
+    }
+
+    @Test
+    void reloadWithAMismatchedKeyKeepsTheCurrentKeys() throws Exception {
+        writeKeyPair("2026-09-01", "secp256r1");
+        JwtKeyRing keyRing = keyRing();
+        String etag = keyRing.publishedKeys().etag();
+
+        writeKeyPair("2026-10-01", "secp384r1");
+        keyRing.reload();
+
+        assertThat(keyRing.publishedKeys().etag()).isEqualTo(etag);
+        assertThat(kids(keyRing)).containsExactly("2026-09-01");
+    }
+
+    private JwtKeyRing keyRing() {
+        return new JwtKeyRing(JwtKeyRing.ES256, "", keys.toString(), JWKS_MAX_AGE, TOKEN_LIFETIME_MILLIS, clock);
+    }
+
+    private static List<String> kids(JwtKeyRing keyRing) throws Exception {
+        List<String> kids = new ArrayList<>();
+        new ObjectMapper().readTree(keyRing.publishedKeys().json()).get("keys")
+                .forEach(jwk -> kids.add(jwk.get("kid").asText()));
+        return kids;
+    }
+
+    // <kid>.key (PKCS#8 PEM) & <kid>.pub (X.509 PEM) of a new EC key pair on the given curve
+    private void writeKeyPair(String kid, String curve) throws Exception {
+        KeyPairGenerator generator = KeyPairGenerator.getInstance("EC");
+        generator.initialize(new ECGenParameterSpec(curve));
+        KeyPair keyPair = generator.generateKeyPair();
+
+        Files.writeString(keys.resolve(kid + ".key"), pem("PRIVATE KEY", keyPair.getPrivate().getEncoded()));
+        Files.writeString(keys.resolve(kid + ".pub"), pem("PUBLIC KEY", keyPair.getPublic().getEncoded()));
+    }
+
+    private static String pem(String type, byte[] content) {
+        return "-----BEGIN " + type + "-----\n"
+                + Base64.getMimeEncoder(64, "\n".getBytes()).encodeToString(content)
+                + "\n-----END " + type + "-----\n";
+    }
+
+
+    // Clock moved forward by the test
+    private static final class MutableClock extends Clock {
+
+        private Instant now;
+
+        private MutableClock(Instant now) {
+            this.now = now;
+        }
+
+        void advance(Duration duration) {
+            now = now.plus(duration);
+        }
+
+        @Override
+        public Instant instant() {
+            return now;
+        }
+
+        @Override
+        public ZoneId getZone() {
+            return ZoneOffset.UTC;
+        }
+
+        @Override
+        public Clock withZone(ZoneId zone) {
+            return this;
+        }
+    }
+}
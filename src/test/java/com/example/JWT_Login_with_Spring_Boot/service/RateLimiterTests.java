@@ -0,0 +1,74 @@
+package com.example.JWT_Login_with_Spring_Boot.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.junit.jupiter.api.Test;
+
+
+class RateLimiterTests {
+
+    private static final long SECOND = TimeUnit.SECONDS.toNanos(1);
+
+    private final AtomicLong now = new AtomicLong(1_000 * SECOND);
+
+    @Test
+    void burstOfCapacityIsAllowedThenRejected() {
+        RateLimiter rateLimiter = new RateLimiter(5, Duration.ofSeconds(10), 100, now::get);
+
+        for (int i = 0; i < 5; i++) {
+            assertThat(rateLimiter.tryAcquire("key")).isZero();
+        }
+
+        assertThat(rateLimiter.tryAcquire("key")).isEqualTo(2 * SECOND); // One request every 10s / 5
+    }
+
+    @Test
+    void bucketRefillsOneRequestPerInterval() {
+        RateLimiter rateLimiter = new RateLimiter(5, Duration.ofSeconds(10), 100, now::get);
+        for (int i = 0; i < 5; i++) {
+            rateLimiter.tryAcquire("key");
+        }
+
+        now.addAndGet(2 * SECOND - 1);
+        assertThat(rateLimiter.tryAcquire("key")).isEqualTo(1); // Rejected requests use nothing
+
+        now.addAndGet(1);
+        assertThat(rateLimiter.tryAcquire("key")).isZero();
+        assertThat(rateLimiter.tryAcquire("key")).isEqualTo(2 * SECOND);
+
+        now.addAndGet(10 * SECOND); // Full again, but never more than the capacity
+        for (int i = 0; i < 5; i++) {
+            assertThat(rateLimiter.tryAcquire("key")).isZero();
+        }
+        assertThat(rateLimiter.tryAcquire("key")).isPositive();
+    }
+
+    @Test
+    void keysHaveSeparateBuckets() {
+        RateLimiter rateLimiter = new RateLimiter(1, Duration.ofMinutes(1), 100, now::get);
+
+        assertThat(rateLimiter.tryAcquire("10.0.0.1")).isZero();
+        assertThat(rateLimiter.tryAcquire("10.0.0.1")).isPositive();
+        assertThat(rateLimiter.tryAcquire("10.0.0.2")).isZero();
+        assertThat(rateLimiter.size()).isEqualTo(2);
+    }
+
+    @Test
+    void specIsParsed() {
+        RateLimiter rateLimiter = RateLimiter.of(" 3 / 15m ", 100);
+
+        for (int i = 0; i < 3; i++) {
+            assertThat(rateLimiter.tryAcquire("key")).isZero();
+        }
+        assertThat(rateLimiter.tryAcquire("key")).isGreaterThan(TimeUnit.MINUTES.toNanos(4)); // About 15m / 3
+
+        assertThatThrownBy(() -> RateLimiter.of("20", 100)).isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> RateLimiter.of("0/1m", 100)).isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> RateLimiter.of("5/0s", 100)).isInstanceOf(IllegalArgumentException.class);
+    }
+}
@@ -0,0 +1,159 @@
+package com.example.JWT_Login_with_Spring_Boot.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.RegisterExtension;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+
+import com.example.JWT_Login_with_Spring_Boot.exception.InvalidRefreshTokenException;
+import com.example.JWT_Login_with_Spring_Boot.model.RefreshToken;
+import com.example.JWT_Login_with_Spring_Boot.model.User;
+import com.example.JWT_Login_with_Spring_Boot.repository.RefreshTokenRepository;
+import com.example.JWT_Login_with_Spring_Boot.repository.UserRepository;
+import com.example.JWT_Login_with_Spring_Boot.service.RefreshTokenService.IssuedRefreshToken;
+import com.example.JWT_Login_with_Spring_Boot.service.RefreshTokenService.Rotation;
+import com.example.JWT_Login_with_Spring_Boot.support.EmbeddedInfrastructure;
+import com.icegreen.greenmail.configuration.GreenMailConfiguration;
+import com.icegreen.greenmail.junit5.GreenMailExtension;
+import com.icegreen.greenmail.util.ServerSetupTest;
+
+
+@SpringBootTest
+class RefreshTokenServiceTests {
+
+    @RegisterExtension
+    static GreenMailExtension greenMail = new GreenMailExtension(ServerSetupTest.SMTP)
+            .withConfiguration(GreenMailConfiguration.aConfig()
+                    .withUser(EmbeddedInfrastructure.SMTP_USERNAME, EmbeddedInfrastructure.SMTP_PASSWORD));
+
+    @DynamicPropertySource
+    static void properties(DynamicPropertyRegistry registry) {
+        EmbeddedInfrastructure.register(registry);
+    }
+
+    @Autowired
+    private RefreshTokenService refreshTokenService;
+    @Autowired
+    private RefreshTokenRepository refreshTokenRepository;
+    @Autowired
+    private UserRepository userRepository;
+
+    private User user;
+
+    @BeforeEach
+    void createUser() {
+        refreshTokenRepository.deleteAll();
+        userRepository.deleteAll();
+
+        User newUser = new User("alice", "alice@example.com", "{noop}unused");
+        newUser.setEnabled(true);
+        user = userRepository.save(newUser);
+    }
+
+    @Test
+    void rotationReplacesTheTokenWithANewOneOfTheSameFamily() {
+        IssuedRefreshToken issued = refreshTokenService.issue(user);
+
+        Rotation rotation = refreshTokenService.rotate(issued.token());
+
+        assertThat(rotation.user().getId()).isEqualTo(user.getId());
+        assertThat(rotation.refreshToken().token()).isNotEqualTo(issued.token());
+        List<RefreshToken> tokens = new ArrayList<>();
+        refreshTokenRepository.findAll().forEach(tokens::add);
+        assertThat(tokens).hasSize(2);
+        assertThat(tokens.stream().map(RefreshToken::getFamilyId).distinct()).hasSize(1);
+        assertThat(tokens).filteredOn(token -> token.getUsedAt() != null).hasSize(1); // The rotated one
+
+        // The replacement can be rotated in turn
+        assertThat(refreshTokenService.rotate(rotation.refreshToken().token()).user().getId()).isEqualTo(user.getId());
+    }
+
+    @Test
+    void reusedTokenRevokesTheWholeFamily() {
+        IssuedRefreshToken issued = refreshTokenService.issue(user);
+        Rotation rotation = refreshTokenService.rotate(issued.token());
+        IssuedRefreshToken otherLogin = refreshTokenService.issue(user); // Another family (other device)
+
+        assertThatThrownBy(() -> refreshTokenService.rotate(issued.token()))
+                .isInstanceOf(InvalidRefreshTokenException.class);
+
+        // The revocation is committed despite the exception: the legitimate successor is revoked too
+        assertThatThrownBy(() -> refreshTokenService.rotate(rotation.refreshToken().token()))
+                .isInstanceOf(InvalidRefreshTokenException.class);
+        // Other families are left alone
+        assertThat(refreshTokenService.rotate(otherLogin.token()).user().getId()).isEqualTo(user.getId());
+    }
+
+    @Test
+    void expiredTokenIsRejected() {
+        IssuedRefreshToken issued = refreshTokenService.issue(user);
+        expireAll();
+
+        assertThatThrownBy(() -> refreshTokenService.rotate(issued.token()))
+                .isInstanceOf(InvalidRefreshTokenException.class)
+                .hasMessageContaining("expired");
+    }
+
+    @Test
+    void tokenOfADisabledUserIsRejectedAndRevoked() {
+        IssuedRefreshToken issued = refreshTokenService.issue(user);
+        user.setEnabled(false);
+        userRepository.save(user);
+
+        assertThatThrownBy(() -> refreshTokenService.rotate(issued.token()))
+                .isInstanceOf(InvalidRefreshTokenException.class);
+        assertThat(refreshTokenRepository.findAll()).allSatisfy(token -> assertThat(token.getRevokedAt()).isNotNull());
+
+        // Enabling the account again does not bring the token back
+        user.setEnabled(true);
+        userRepository.save(user);
+        assertThatThrownBy(() -> refreshTokenService.rotate(issued.token()))
+                .isInstanceOf(InvalidRefreshTokenException.class);
+    }
+
+    @Test
+    void unknownAndBlankTokensAreRejected() {
+        assertThatThrownBy(() -> refreshTokenService.rotate("unknown")).isInstanceOf(InvalidRefreshTokenException.class);
+        assertThatThrownBy(() -> refreshTokenService.rotate(" ")).isInstanceOf(InvalidRefreshTokenException.class);
+        assertThatThrownBy(() -> refreshTokenService.rotate(null)).isInstanceOf(InvalidRefreshTokenException.class);
+    }
+
+    @Test
+    void revokeEndsTheFamily() {
+        IssuedRefreshToken issued = refreshTokenService.issue(user);
+
+        refreshTokenService.revoke(issued.token());
+
+        assertThatThrownBy(() -> refreshTokenService.rotate(issued.token()))
+                .isInstanceOf(InvalidRefreshTokenException.class);
+    }
+
+    @Test
+    void purgeDeletesExpiredTokensOnly() {
+        refreshTokenService.issue(user);
+        expireAll();
+        IssuedRefreshToken valid = refreshTokenService.issue(user);
+
+        refreshTokenService.purgeExpired();
+
+        assertThat(refreshTokenRepository.count()).isEqualTo(1);
+        assertThat(refreshTokenService.rotate(valid.token()).user().getId()).isEqualTo(user.getId());
+    }
+
+    private void expireAll() {
+        for (RefreshToken refreshToken : refreshTokenRepository.findAll()) {
+            refreshToken.setExpiresAt(LocalDateTime.now().minusMinutes(1));
+            refreshTokenRepository.save(refreshToken);
+        }
+    }
+}
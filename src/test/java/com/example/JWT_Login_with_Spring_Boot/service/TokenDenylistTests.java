@@ -0,0 +1,100 @@
+package com.example.JWT_Login_with_Spring_Boot.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import java.util.Date;
+
+import org.junit.jupiter.api.Test;
+
+import com.example.JWT_Login_with_Spring_Boot.exception.ServiceOverloadedException;
+import com.example.JWT_Login_with_Spring_Boot.model.VerifiedToken;
+
+import io.jsonwebtoken.Jwts;
+
+
+class TokenDenylistTests {
+
+    private static final long NOW = 1_800_000_000_000L;
+
+    @Test
+    void revokedTokenIsRejected() {
+        TokenDenylist tokenDenylist = new TokenDenylist(1000, 0.01, 10000);
+
+        tokenDenylist.revoke("jti-1", NOW + 60_000);
+
+        assertThat(tokenDenylist.isRevoked(token("jti-1"))).isTrue();
+        assertThat(tokenDenylist.isRevoked(token("jti-2"))).isFalse();
+        assertThat(tokenDenylist.isRevoked(token(null))).isFalse(); // No "jti": cannot be revoked one by one
+    }
+
+    @Test
+    void noRevokedTokenIsEverMissedAndNoOtherTokenIsRejected() {
+        // Small filter for many entries: lots of Bloom filter false positives, which the exact set rules out
+        TokenDenylist tokenDenylist = new TokenDenylist(100, 0.01, 100000);
+        for (int i = 0; i < 5000; i++) {
+            tokenDenylist.revoke("revoked-" + i, NOW + 60_000);
+        }
+
+        for (int i = 0; i < 5000; i++) {
+            assertThat(tokenDenylist.isRevoked("revoked-" + i)).isTrue();
+            assertThat(tokenDenylist.isRevoked("valid-" + i)).isFalse();
+        }
+    }
+
+    @Test
+    void purgeRemovesOnlyExpiredEntries() {
+        TokenDenylist tokenDenylist = new TokenDenylist(1000, 0.01, 10000);
+        tokenDenylist.revoke("expired", NOW - 1);
+        tokenDenylist.revoke("expires-now", NOW);
+        tokenDenylist.revoke("still-valid", NOW + 1);
+
+        tokenDenylist.purgeExpired(NOW);
+
+        assertThat(tokenDenylist.size()).isEqualTo(1);
+        assertThat(tokenDenylist.isRevoked("still-valid")).isTrue(); // Kept in the rebuilt Bloom filter
+        assertThat(tokenDenylist.isRevoked("expired")).isFalse();
+        assertThat(tokenDenylist.isRevoked("expires-now")).isFalse();
+    }
+
+    @Test
+    void revocationsAreRefusedOnceTheLimitIsReached() {
+        long inOneHour = System.currentTimeMillis() + 3_600_000;
+        TokenDenylist tokenDenylist = new TokenDenylist(10, 0.01, 2);
+        tokenDenylist.revoke("jti-1", inOneHour);
+        tokenDenylist.revoke("jti-2", inOneHour);
+
+        assertThatThrownBy(() -> tokenDenylist.ensureCapacityFor("jti-3"))
+                .isInstanceOf(ServiceOverloadedException.class);
+        assertThatThrownBy(() -> tokenDenylist.revoke("jti-3", inOneHour))
+                .isInstanceOf(ServiceOverloadedException.class);
+        tokenDenylist.ensureCapacityFor("jti-1"); // Already revoked: no room needed
+        assertThat(tokenDenylist.isRevoked("jti-1")).isTrue(); // Nothing was evicted
+        assertThat(tokenDenylist.isRevoked("jti-2")).isTrue();
+        assertThat(tokenDenylist.isRevoked("jti-3")).isFalse();
+
+        tokenDenylist.revoke("jti-1", inOneHour); // Already revoked: not a new entry
+        assertThat(tokenDenylist.size()).isEqualTo(2);
+        assertThat(tokenDenylist.maxEntries()).isEqualTo(2);
+    }
+
+    @Test
+    void expiredEntriesMakeRoomForNewRevocations() {
+        long now = System.currentTimeMillis();
+        TokenDenylist tokenDenylist = new TokenDenylist(10, 0.01, 2);
+        tokenDenylist.revoke("expired", now - 1);
+        tokenDenylist.revoke("valid", now + 3_600_000);
+
+        tokenDenylist.revoke("new", now + 3_600_000); // Drops "expired" first
+
+        assertThat(tokenDenylist.isRevoked("new")).isTrue();
+        assertThat(tokenDenylist.isRevoked("valid")).isTrue();
+        assertThat(tokenDenylist.size()).isEqualTo(2);
+    }
+
+    private static VerifiedToken token(String jti) {
+        Date expiration = new Date(NOW + 60_000);
+        return new VerifiedToken("user@example.com", expiration, new Date(NOW),
+                Jwts.claims().subject("user@example.com").id(jti).expiration(expiration).build());
+    }
+}
@@ -0,0 +1,94 @@
+package com.example.JWT_Login_with_Spring_Boot.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import java.util.Date;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Function;
+
+import org.junit.jupiter.api.Test;
+
+import com.example.JWT_Login_with_Spring_Boot.model.VerifiedToken;
+
+import io.jsonwebtoken.Jwts;
+import io.jsonwebtoken.MalformedJwtException;
+
+
+class VerifiedTokenCacheTests {
+
+    private final AtomicInteger verifications = new AtomicInteger();
+
+    @Test
+    void sameTokenIsVerifiedOnce() {
+        VerifiedTokenCache cache = new VerifiedTokenCache(true, 100);
+        Function<String, VerifiedToken> verifier = countingVerifier(System.currentTimeMillis() + 60_000);
+
+        VerifiedToken first = cache.get("token-a", verifier);
+        VerifiedToken second = cache.get("token-a", verifier);
+
+        assertThat(second).isSameAs(first);
+        assertThat(verifications).hasValue(1);
+
+        cache.get("token-b", verifier);
+        assertThat(verifications).hasValue(2);
+    }
+
+    @Test
+    void invalidTokensAreNotCached() {
+        VerifiedTokenCache cache = new VerifiedTokenCache(true, 100);
+        Function<String, VerifiedToken> verifier = token -> {
+            verifications.incrementAndGet();
+            throw new MalformedJwtException("bad token");
+        };
+
+        assertThatThrownBy(() -> cache.get("bad", verifier)).isInstanceOf(MalformedJwtException.class);
+        assertThatThrownBy(() -> cache.get("bad", verifier)).isInstanceOf(MalformedJwtException.class);
+
+        assertThat(verifications).hasValue(2);
+        assertThat(cache.size()).isZero();
+    }
+
+    @Test
+    void expiredTokensAreVerifiedAgain() {
+        VerifiedTokenCache cache = new VerifiedTokenCache(true, 100);
+        Function<String, VerifiedToken> verifier = countingVerifier(System.currentTimeMillis() - 1);
+
+        cache.get("expired", verifier);
+        cache.get("expired", verifier);
+
+        assertThat(verifications).hasValue(2); // The verifier decides (and would throw ExpiredJwtException)
+    }
+
+    @Test
+    void invalidateDropsTheToken() {
+        VerifiedTokenCache cache = new VerifiedTokenCache(true, 100);
+        Function<String, VerifiedToken> verifier = countingVerifier(System.currentTimeMillis() + 60_000);
+
+        cache.get("token", verifier);
+        cache.invalidate("token");
+        cache.get("token", verifier);
+
+        assertThat(verifications).hasValue(2);
+    }
+
+    @Test
+    void disabledCacheVerifiesEveryTime() {
+        VerifiedTokenCache cache = new VerifiedTokenCache(false, 100);
+        Function<String, VerifiedToken> verifier = countingVerifier(System.currentTimeMillis() + 60_000);
+
+        cache.get("token", verifier);
+        cache.get("token", verifier);
+
+        assertThat(verifications).hasValue(2);
+    }
+
+    private Function<String, VerifiedToken> countingVerifier(long expiresAtMillis) {
+        return token -> {
+            verifications.incrementAndGet();
+            Date expiration = new Date(expiresAtMillis);
+            return new VerifiedToken("user@example.com", expiration, new Date(),
+                    Jwts.claims().subject("user@example.com").expiration(expiration).build());
+        };
+    }
+}
@@ -0,0 +1,85 @@
+package com.example.JWT_Login_with_Spring_Boot.support;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.Statement;
+
+import javax.sql.DataSource;
+
+import org.springframework.test.context.DynamicPropertyRegistry;
+
+import io.zonky.test.db.postgres.embedded.EmbeddedPostgres;
+
+
+/**
+ * Local stand-ins for the external services, so integration tests run offline:
+ * - an embedded PostgreSQL server (started once per JVM, shared by all tests, extra databases with createDatabase())
+ * - a local SMTP server (GreenMail, registered by each test class on SMTP_PORT)
+ */
+public final class EmbeddedInfrastructure {
+
+    public static final String SMTP_HOST = "127.0.0.1";
+    public static final int SMTP_PORT = 3025; // GreenMail ServerSetupTest.SMTP
+    public static final String SMTP_USERNAME = "support@example.com";
+    public static final String SMTP_PASSWORD = "secret";
+
+    // 256-bit Base64 key, only used by tests
+    public static final String JWT_SECRET_KEY = "dGVzdC1zZWNyZXQta2V5LWZvci1pbnRlZ3JhdGlvbi10ZXN0cy0wMTIzNDU2Nzg5";
+
+    private static EmbeddedPostgres postgres;
+
+    private EmbeddedInfrastructure() {
+    }
+
+    // Start PostgreSQL (first call only) and point the application at the local services
+    public static void register(DynamicPropertyRegistry registry) {
+        register(registry, "postgres");
+    }
+
+    // Same, with another database of the embedded server (see createDatabase())
+    public static void register(DynamicPropertyRegistry registry, String databaseName) {
+        EmbeddedPostgres database = postgres();
+
+        registry.add("spring.datasource.url", () -> database.getJdbcUrl("postgres", databaseName));
+        registry.add("spring.datasource.username", () -> "postgres");
+        registry.add("spring.datasource.password", () -> "");
+        registry.add("spring.mail.host", () -> SMTP_HOST);
+        registry.add("spring.mail.port", () -> SMTP_PORT);
+        registry.add("spring.mail.username", () -> SMTP_USERNAME);
+        registry.add("spring.mail.password", () -> SMTP_PASSWORD);
+        registry.add("security.jwt.secret-key", () -> JWT_SECRET_KEY);
+    }
+
+    // Create an empty database on the embedded server (dropped first if it exists), e.g. to start from an older schema
+    public static DataSource createDatabase(String databaseName) {
+        EmbeddedPostgres database = postgres();
+        try (Connection connection = database.getPostgresDatabase().getConnection();
+                Statement statement = connection.createStatement()) {
+            statement.execute("DROP DATABASE IF EXISTS " + databaseName);
+            statement.execute("CREATE DATABASE " + databaseName);
+        } catch (SQLException exception) {
+            throw new IllegalStateException("Could not create database " + databaseName, exception);
+        }
+        return database.getDatabase("postgres", databaseName);
+    }
+
+    private static synchronized EmbeddedPostgres postgres() {
+        if (postgres == null) {
+            try {
+                postgres = EmbeddedPostgres.start();
+            } catch (IOException exception) {
+                throw new UncheckedIOException("Could not start embedded PostgreSQL", exception);
+            }
+            Runtime.getRuntime().addShutdownHook(new Thread(() -> {
+                try {
+                    postgres.close();
+                } catch (IOException ignored) {
+                    // JVM is exiting anyway
+                }
+            }));
+        }
+        return postgres;
+    }
+}